@@ -0,0 +1,136 @@
+package jungle.spaceship.chat;
+
+import jungle.spaceship.chat.entity.Chat;
+import jungle.spaceship.chat.entity.ChatType;
+import jungle.spaceship.chat.repository.ChatRedisSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅 캐시 직렬화 비교 : 채팅방 메시지 roomSize 개를 인코딩/디코딩하는 시간
+ * - generic : 기존 value 방식 (GenericJackson2JsonRedisSerializer 로 LinkedList 전체를 하나의 값으로)
+ * - json    : 메시지 단위 Jackson2JsonRedisSerializer
+ * - binary  : 메시지 단위 ChatRedisSerializer
+ * 메시지당 바이트 수는 encode* 결과의 보조 지표 bytesPerMessage 로 표시
+ *
+ * 실행 : ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatSerializerBenchmark {
+
+    @Param({"30", "50", "500"})
+    private int roomSize;
+
+    private final GenericJackson2JsonRedisSerializer generic = new GenericJackson2JsonRedisSerializer();
+    private final Jackson2JsonRedisSerializer<Chat> json = new Jackson2JsonRedisSerializer<>(Chat.class);
+    private final ChatRedisSerializer binary = new ChatRedisSerializer();
+
+    private LinkedList<Chat> room;
+    private byte[] genericRoom;
+    private byte[][] jsonRoom;
+    private byte[][] binaryRoom;
+
+    @Setup
+    public void setUp() {
+        room = new LinkedList<>();
+        long baseId = 1_200_000_000_000L;
+        for (int i = 0; i < roomSize; i++) {
+            room.add(Chat.builder()
+                    .chatId(baseId + i * 37L)
+                    .chatType(ChatType.TALK)
+                    .content(i % 3 == 0 ? "오늘 저녁 몇 시에 와?" : "응 7시쯤 도착할 것 같아 조심히 와")
+                    .sender(i % 2 == 0 ? "엄마" : "막내")
+                    .roomId(1024L)
+                    .createAt("2023-11-20 19:0" + (i % 10))
+                    .build());
+        }
+
+        genericRoom = generic.serialize(room);
+        jsonRoom = new byte[roomSize][];
+        binaryRoom = new byte[roomSize][];
+        for (int i = 0; i < roomSize; i++) {
+            jsonRoom[i] = json.serialize(room.get(i));
+            binaryRoom[i] = binary.serialize(room.get(i));
+        }
+    }
+
+    /**
+     * 인코딩한 메시지당 평균 바이트 수 (iteration 마다 초기화)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+
+        private long bytes;
+        private long messages;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+            messages = 0;
+        }
+
+        public double bytesPerMessage() {
+            return messages == 0 ? 0 : (double) bytes / messages;
+        }
+
+        void add(int length, int count) {
+            bytes += length;
+            messages += count;
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeGeneric(EncodedSize size) {
+        byte[] bytes = generic.serialize(room);
+        size.add(bytes.length, roomSize);
+        return bytes;
+    }
+
+    @Benchmark
+    public Object decodeGeneric() {
+        return generic.deserialize(genericRoom);
+    }
+
+    @Benchmark
+    public void encodeJson(Blackhole blackhole, EncodedSize size) {
+        for (Chat chat : room) {
+            byte[] bytes = json.serialize(chat);
+            size.add(bytes.length, 1);
+            blackhole.consume(bytes);
+        }
+    }
+
+    @Benchmark
+    public void decodeJson(Blackhole blackhole) {
+        for (byte[] bytes : jsonRoom) {
+            blackhole.consume(json.deserialize(bytes));
+        }
+    }
+
+    @Benchmark
+    public void encodeBinary(Blackhole blackhole, EncodedSize size) {
+        for (Chat chat : room) {
+            byte[] bytes = binary.serialize(chat);
+            size.add(bytes.length, 1);
+            blackhole.consume(bytes);
+        }
+    }
+
+    @Benchmark
+    public void decodeBinary(Blackhole blackhole) {
+        for (byte[] bytes : binaryRoom) {
+            blackhole.consume(binary.deserialize(bytes));
+        }
+    }
+}
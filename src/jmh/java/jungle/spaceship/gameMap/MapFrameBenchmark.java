@@ -0,0 +1,116 @@
+package jungle.spaceship.gameMap;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 지도 위치 프레임 비교 : 가족 members 명이 모두 움직일 때 구독자 한 명에게 보내는 한 tick 분량 인코딩 시간
+ * - jsonPerUpdate : 기존 방식 (위치마다 GameMapDto JSON 한 프레임)
+ * - jsonSnapshot  : MapTickEngine 의 MapSnapshotDto JSON
+ * - binaryKeyframe / binaryDelta : MapFrameCodec (MapBinaryPublisher 처럼 크기에 맞는 byte[] 에 인코딩)
+ * 15Hz 기준 구독자 한 명이 받는 초당 바이트 수는 보조 지표 bytesPerSecond 로 표시
+ *
+ * 실행 : ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapFrameBenchmark {
+
+    private static final int RATE_HZ = 15;
+
+    @Param({"2", "4", "8"})
+    private int members;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MapFrameCodec codec = new MapFrameCodec(0, 0, 16);
+
+    private List<GameMapDto> positions;
+    private MapFrameCodec.Snapshot base;
+    private MapFrameCodec.Snapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        positions = new ArrayList<>();
+        List<GameMapDto> previous = new ArrayList<>();
+        for (int i = 0; i < members; i++) {
+            GameMapDto before = new GameMapDto(512.25 + i * 40, 300.5 + i * 25, 1024L);
+            before.setAlienId(2000L + i);
+            previous.add(before);
+            // 한 tick(약 66ms) 동안 걸어서 움직인 거리
+            GameMapDto after = new GameMapDto(before.getX() + 3.4, before.getY() - 1.8, 1024L);
+            after.setAlienId(2000L + i);
+            positions.add(after);
+        }
+        base = codec.snapshot(previous);
+        snapshot = codec.snapshot(positions);
+    }
+
+    /**
+     * 한 tick 분량 프레임을 RATE_HZ 로 보낼 때 구독자 한 명이 받는 초당 바이트 수 (iteration 마다 초기화)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class FrameSize {
+
+        private long bytes;
+        private long ticks;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+            ticks = 0;
+        }
+
+        public double bytesPerSecond() {
+            return ticks == 0 ? 0 : (double) bytes / ticks * RATE_HZ;
+        }
+
+        void add(int length) {
+            bytes += length;
+            ticks++;
+        }
+    }
+
+    @Benchmark
+    public int jsonPerUpdate(FrameSize size) throws JsonProcessingException {
+        int length = 0;
+        for (GameMapDto position : positions) {
+            length += objectMapper.writeValueAsBytes(position).length;
+        }
+        size.add(length);
+        return length;
+    }
+
+    @Benchmark
+    public byte[] jsonSnapshot(FrameSize size) throws JsonProcessingException {
+        byte[] frame = objectMapper.writeValueAsBytes(new MapSnapshotDto(1024L, 1, positions));
+        size.add(frame.length);
+        return frame;
+    }
+
+    @Benchmark
+    public byte[] binaryKeyframe(FrameSize size) {
+        byte[] frame = new byte[codec.keyframeSize(snapshot)];
+        codec.encodeKeyframe(ByteBuffer.wrap(frame), 1, snapshot);
+        size.add(frame.length);
+        return frame;
+    }
+
+    @Benchmark
+    public byte[] binaryDelta(FrameSize size) {
+        byte[] frame = new byte[codec.deltaSize(base, snapshot)];
+        codec.encodeDelta(ByteBuffer.wrap(frame), 2, 1, base, snapshot);
+        size.add(frame.length);
+        return frame;
+    }
+}
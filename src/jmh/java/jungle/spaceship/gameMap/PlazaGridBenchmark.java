@@ -0,0 +1,109 @@
+package jungle.spaceship.gameMap;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 광장 부하 : aliens 명이 모두 세션을 가진 채 돌아다닐 때 tick 한 번(이동 반영 + viewer 별 관심 영역 수집) 처리 시간
+ * - 매 tick 외계인의 movingRatio 만큼이 한 걸음씩 이동
+ * - 전체 방송(N x 이동 수) 대비 실제로 보내는 위치 수는 보조 지표 entriesPerTick / broadcastEntriesPerTick 로 표시
+ *
+ * 실행 : ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlazaGridBenchmark {
+
+    private static final double SIZE = 4096;
+    private static final double CELL_SIZE = 128;
+    private static final int RADIUS = 2;
+
+    @Param({"1000", "5000", "10000"})
+    private int aliens;
+
+    @Param({"0.3"})
+    private double movingRatio;
+
+    private PlazaGrid grid;
+    private double[] xs;
+    private double[] ys;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        grid = new PlazaGrid(SIZE, SIZE, CELL_SIZE, RADIUS, null);
+        random = new Random(42);
+        xs = new double[aliens];
+        ys = new double[aliens];
+        for (int i = 0; i < aliens; i++) {
+            xs[i] = random.nextDouble() * SIZE;
+            ys[i] = random.nextDouble() * SIZE;
+            grid.move(i, (long) (i / 4), xs[i], ys[i], i, 0);
+        }
+        grid.tick((viewer, visible, left) -> { });
+    }
+
+    /**
+     * tick 당 보낸 프레임 수 / 위치 수, 전체 방송이었다면 보냈을 위치 수 (iteration 마다 초기화)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sent {
+
+        private long ticks;
+        private long frames;
+        private long entries;
+        private long broadcastEntries;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            ticks = 0;
+            frames = 0;
+            entries = 0;
+            broadcastEntries = 0;
+        }
+
+        public double framesPerTick() {
+            return ticks == 0 ? 0 : (double) frames / ticks;
+        }
+
+        public double entriesPerTick() {
+            return ticks == 0 ? 0 : (double) entries / ticks;
+        }
+
+        public double broadcastEntriesPerTick() {
+            return ticks == 0 ? 0 : (double) broadcastEntries / ticks;
+        }
+    }
+
+    private int step() {
+        int moves = (int) (aliens * movingRatio);
+        for (int m = 0; m < moves; m++) {
+            int i = random.nextInt(aliens);
+            xs[i] = Math.max(0, Math.min(SIZE - 1, xs[i] + random.nextGaussian() * 8));
+            ys[i] = Math.max(0, Math.min(SIZE - 1, ys[i] + random.nextGaussian() * 8));
+            grid.move(i, (long) (i / 4), xs[i], ys[i], null, 0);
+        }
+        return moves;
+    }
+
+    @Benchmark
+    public void tick(Blackhole blackhole, Sent sent) {
+        int moves = step();
+        grid.tick((viewer, visible, left) -> {
+            blackhole.consume(visible.size());
+            blackhole.consume(left.size());
+            sent.frames++;
+            sent.entries += visible.size() + left.size();
+        });
+        sent.ticks++;
+        sent.broadcastEntries += (long) aliens * moves;
+    }
+}
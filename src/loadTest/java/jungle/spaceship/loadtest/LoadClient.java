@@ -0,0 +1,184 @@
+package jungle.spaceship.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 가상 회원 한 명의 STOMP 세션
+ * - 채팅 content 와 지도 위치의 sentAt 에 보낸 시각을 담아, 같은 가족 회원이 받았을 때 전송 지연을 계산
+ */
+@Slf4j
+final class LoadClient extends StompSessionHandlerAdapter {
+
+    private static final String CHAT_PREFIX = "load ";
+
+    private final ObjectMapper objectMapper;
+    private final LoadStats stats;
+    private final String email;
+    private final String token;
+    private final Long familyId;
+    private final Long roomId;
+    private final Long alienId;
+    private final int familySize;
+
+    private volatile StompSession session;
+    private double x = ThreadLocalRandom.current().nextDouble(1000);
+    private double y = ThreadLocalRandom.current().nextDouble(1000);
+
+    LoadClient(ObjectMapper objectMapper, LoadStats stats, String email, String token,
+               Long familyId, Long roomId, Long alienId, int familySize) {
+        this.objectMapper = objectMapper;
+        this.stats = stats;
+        this.email = email;
+        this.token = token;
+        this.familyId = familyId;
+        this.roomId = roomId;
+        this.alienId = alienId;
+        this.familySize = familySize;
+    }
+
+    void connect(WebSocketStompClient client, String url) throws Exception {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        client.connect(url, new WebSocketHttpHeaders(), connectHeaders, this).get(10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+        session.subscribe("/sub/chat/room/" + roomId, new Subscription(this::onChat));
+        session.subscribe("/sub/map/" + familyId, new Subscription(this::onMap));
+        this.session = session;
+    }
+
+    void sendChat() {
+        long now = System.nanoTime();
+        ObjectNode chat = objectMapper.createObjectNode()
+                .put("type", "TALK")
+                .put("roomId", roomId)
+                .put("sender", email)
+                .put("content", CHAT_PREFIX + now)
+                .put("time", String.valueOf(System.currentTimeMillis()));
+        if (send("/pub/chat", chat)) {
+            stats.sent(stats.chat, now, familySize);
+        }
+    }
+
+    void sendMap() {
+        long now = System.nanoTime();
+        x = step(x);
+        y = step(y);
+        ObjectNode move = objectMapper.createObjectNode()
+                .put("x", x)
+                .put("y", y)
+                .put("familyId", familyId)
+                .put("alienId", alienId)
+                .put("sentAt", now);
+        if (send("/pub/map", move)) {
+            stats.sent(stats.map, now, familySize);
+        }
+    }
+
+    // 한 세션에 동시에 쓸 수 없으므로 채팅/지도 전송을 순서대로
+    private synchronized boolean send(String destination, JsonNode payload) {
+        StompSession current = session;
+        if (current == null || !current.isConnected()) {
+            return false;
+        }
+        try {
+            StompHeaders headers = new StompHeaders();
+            headers.setDestination(destination);
+            headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            current.send(headers, objectMapper.writeValueAsBytes(payload));
+            return true;
+        } catch (Exception e) {
+            stats.errors.increment();
+            log.warn("전송 실패 : {} {}", email, destination, e);
+            return false;
+        }
+    }
+
+    private void onChat(JsonNode chat) {
+        String content = chat.path("content").asText("");
+        if (content.startsWith(CHAT_PREFIX)) {
+            stats.received(stats.chat, Long.parseLong(content.substring(CHAT_PREFIX.length())), System.nanoTime());
+        }
+    }
+
+    // 바로 전송이면 GameMapDto 하나, tick 모드면 MapSnapshotDto (움직인 외계인 목록)
+    private void onMap(JsonNode frame) {
+        long now = System.nanoTime();
+        JsonNode aliens = frame.has("aliens") ? frame.get("aliens") : objectMapper.createArrayNode().add(frame);
+        for (JsonNode alien : aliens) {
+            // 입장 시 받는 전체 위치에는 sentAt 이 없음
+            if (alien.hasNonNull("sentAt")) {
+                stats.received(stats.map, alien.get("sentAt").asLong(), now);
+            }
+        }
+    }
+
+    private static double step(double value) {
+        return Math.max(0, Math.min(1000, value + ThreadLocalRandom.current().nextDouble(-8, 8)));
+    }
+
+    void disconnect() {
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+    }
+
+    @Override
+    public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                byte[] payload, Throwable exception) {
+        stats.errors.increment();
+        log.warn("STOMP 처리 실패 : {}", email, exception);
+    }
+
+    @Override
+    public void handleTransportError(StompSession session, Throwable exception) {
+        stats.errors.increment();
+        log.warn("연결 오류 : {}", email, exception);
+    }
+
+    private final class Subscription extends StompSessionHandlerAdapter {
+        private final FrameConsumer consumer;
+
+        private Subscription(FrameConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            try {
+                consumer.accept(objectMapper.readTree((byte[]) payload));
+            } catch (IOException e) {
+                stats.errors.increment();
+                log.warn("프레임 해석 실패 : {}", email, e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface FrameConsumer {
+        void accept(JsonNode frame);
+    }
+}
@@ -0,0 +1,162 @@
+package jungle.spaceship.loadtest;
+
+import com.sun.management.OperatingSystemMXBean;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 측정 구간에 보낸/받은 프레임 수, 전송 지연, 프로세스 CPU/heap
+ * - 결과는 key 순으로 정렬한 properties 파일로 저장해 실행 간 diff 로 비교
+ * - 클라이언트도 같은 JVM 에서 돌기 때문에 CPU/heap 은 서버 + 클라이언트 합계
+ */
+final class LoadStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    final Channel chat = new Channel();
+    final Channel map = new Channel();
+    final LongAdder errors = new LongAdder();
+
+    private final OperatingSystemMXBean os =
+            (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    private final List<Double> cpuSamples = new ArrayList<>();
+    private long heapUsedMax;
+    private long cpuTimeStart;
+    private long cpuTimeEnd;
+    private long gcCountStart;
+    private long gcTimeStart;
+    private long gcCountEnd;
+    private long gcTimeEnd;
+
+    // 측정 구간 [start, end) 에 보낸 프레임만 집계 (System.nanoTime 기준)
+    private volatile long start = Long.MAX_VALUE;
+    private volatile long end = Long.MAX_VALUE;
+
+    static final class Channel {
+        final LongAdder sent = new LongAdder();
+        final LongAdder expected = new LongAdder();
+        final LongAdder received = new LongAdder();
+        final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    }
+
+    boolean measuring(long nanos) {
+        return nanos >= start && nanos < end;
+    }
+
+    void sent(Channel channel, long nanos, int recipients) {
+        if (measuring(nanos)) {
+            channel.sent.increment();
+            channel.expected.add(recipients);
+        }
+    }
+
+    void received(Channel channel, long sentNanos, long now) {
+        if (measuring(sentNanos)) {
+            channel.received.increment();
+            channel.latency.recordValue(Math.min(MAX_LATENCY_MICROS, Math.max(0, (now - sentNanos) / 1000)));
+        }
+    }
+
+    void begin() {
+        cpuTimeStart = os.getProcessCpuTime();
+        long[] gc = gc();
+        gcCountStart = gc[0];
+        gcTimeStart = gc[1];
+        start = System.nanoTime();
+    }
+
+    void finish() {
+        end = System.nanoTime();
+        cpuTimeEnd = os.getProcessCpuTime();
+        long[] gc = gc();
+        gcCountEnd = gc[0];
+        gcTimeEnd = gc[1];
+    }
+
+    /**
+     * 측정 중 1초마다 호출
+     */
+    synchronized void sample() {
+        double load = os.getProcessCpuLoad();
+        if (load >= 0) {
+            cpuSamples.add(load);
+        }
+        heapUsedMax = Math.max(heapUsedMax, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+    }
+
+    private static long[] gc() {
+        long count = 0;
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[]{count, time};
+    }
+
+    synchronized void write(Path output, Map<String, Object> settings, Map<String, Double> serverCounters)
+            throws IOException {
+        double seconds = (end - start) / 1e9;
+        Map<String, String> result = new TreeMap<>();
+        settings.forEach((key, value) -> result.put("setting." + key, String.valueOf(value)));
+        channel(result, "chat", chat, seconds);
+        channel(result, "map", map, seconds);
+        result.put("client.errors", String.valueOf(errors.sum()));
+
+        int cores = os.getAvailableProcessors();
+        result.put("process.cores", String.valueOf(cores));
+        result.put("process.cpu.avg.percent", percent((cpuTimeEnd - cpuTimeStart) / 1e9 / seconds / cores));
+        result.put("process.cpu.max.percent", percent(cpuSamples.stream().mapToDouble(Double::doubleValue).max().orElse(0)));
+        result.put("process.heap.used.max.mb", String.valueOf(heapUsedMax >> 20));
+        result.put("process.gc.count", String.valueOf(gcCountEnd - gcCountStart));
+        result.put("process.gc.time.ms", String.valueOf(gcTimeEnd - gcTimeStart));
+        serverCounters.forEach((name, value) -> result.put("server." + name, String.valueOf(value.longValue())));
+
+        StringBuilder out = new StringBuilder("# StompLoadGenerator : latency 단위 ms, 처리량 단위 frames/s\n");
+        result.forEach((key, value) -> out.append(key).append('=').append(value).append('\n'));
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, out);
+    }
+
+    private static void channel(Map<String, String> result, String name, Channel channel, double seconds) {
+        long expected = channel.expected.sum();
+        long received = channel.received.sum();
+        result.put(name + ".sent", String.valueOf(channel.sent.sum()));
+        result.put(name + ".sent.per-second", decimal(channel.sent.sum() / seconds));
+        result.put(name + ".delivered", String.valueOf(received));
+        result.put(name + ".delivered.per-second", decimal(received / seconds));
+        // 지도는 tick 모드에서 합쳐진(superseded) 이동도 여기에 포함됨
+        result.put(name + ".missing", String.valueOf(Math.max(0, expected - received)));
+        for (double percentile : PERCENTILES) {
+            result.put(String.format(Locale.ROOT, "%s.latency.p%s", name, percentileName(percentile)),
+                    decimal(channel.latency.getValueAtPercentile(percentile) / 1000.0));
+        }
+        result.put(name + ".latency.max", decimal(channel.latency.getMaxValue() / 1000.0));
+    }
+
+    private static String percentileName(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+
+    private static String decimal(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    private static String percent(double ratio) {
+        return decimal(ratio * 100);
+    }
+}
@@ -0,0 +1,56 @@
+package jungle.spaceship.loadtest;
+
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.google.firebase.messaging.FirebaseMessaging;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import org.kurento.client.KurentoClient;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.util.Date;
+
+/**
+ * 부하 테스트에서 외부 서버/비공개 키 파일 대신 쓰는 빈 (같은 이름의 빈을 덮어씀)
+ * - @Configuration 을 붙이지 않아 컴포넌트 스캔에 잡히지 않고, StompLoadGenerator 가 source 로 직접 등록
+ */
+class LoadTestStandIns {
+
+    // 서비스 계정 키 파일 대신 가짜 인증 정보 (토큰이 없는 회원에게는 알림을 보내지 않음)
+    @Bean
+    public FirebaseMessaging firebaseMessaging() {
+        if (FirebaseApp.getApps().isEmpty()) {
+            GoogleCredentials credentials = GoogleCredentials.create(
+                    new AccessToken("loadtest", new Date(Long.MAX_VALUE)));
+            FirebaseApp.initializeApp(FirebaseOptions.builder()
+                    .setCredentials(credentials)
+                    .setProjectId("loadtest")
+                    .build());
+        }
+        return FirebaseMessaging.getInstance();
+    }
+
+    // jedis-mock 은 RESP3(HELLO)를 지원하지 않음
+    @Bean
+    public RedisConnectionFactory redisConnectionFactory(@Value("${spring.redis.host}") String host,
+                                                         @Value("${spring.redis.port}") int port) {
+        LettuceClientConfiguration client = LettuceClientConfiguration.builder()
+                .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                .build();
+        return new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port), client);
+    }
+
+    // 부하 테스트는 영상 통화를 사용하지 않으므로 미디어 서버에 연결하지 않음
+    @Bean
+    public KurentoClient kurentoClient() {
+        return Mockito.mock(KurentoClient.class);
+    }
+}
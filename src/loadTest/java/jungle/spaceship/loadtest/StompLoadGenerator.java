@@ -0,0 +1,188 @@
+package jungle.spaceship.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fppt.jedismock.RedisServer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jungle.spaceship.SpaceshipApplication;
+import jungle.spaceship.chat.entity.ChatRoom;
+import jungle.spaceship.chat.repository.ChatRoomRepository;
+import jungle.spaceship.jwt.JwtTokenProvider;
+import jungle.spaceship.member.entity.Member;
+import jungle.spaceship.member.entity.family.Family;
+import jungle.spaceship.member.entity.family.Role;
+import jungle.spaceship.member.repository.FamilyRepository;
+import jungle.spaceship.member.repository.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅/지도 STOMP 부하 생성기
+ * 1. 내장 Redis(jedis-mock)와 H2 로 서버를 같은 JVM 에 띄움 (profile : loadtest)
+ * 2. 가족 N 개 x 회원 M 명을 DB 에 만들고 JwtTokenProvider 로 발급한 토큰으로 /ws 에 접속
+ * 3. 회원마다 /pub/chat, /pub/map 을 설정한 빈도로 보내고, 같은 가족 회원이 받은 프레임으로 지연/누락 측정
+ * 4. 처리량, 지연 백분위, 누락, 서버 카운터, CPU/heap 을 loadtest.output 에 기록
+ *
+ * 설정은 application-loadtest.yml 의 loadtest.* (-Dloadtest.families=100 또는 gradle -Ploadtest.families=100)
+ */
+@Slf4j
+public final class StompLoadGenerator {
+
+    // 결과에 함께 기록하는 서버 카운터
+    private static final List<String> SERVER_COUNTERS = List.of(
+            "websocket.session.dropped",
+            "websocket.session.slow.closed",
+            "chat.pipeline.dropped",
+            "map.tick.superseded",
+            "map.move.rejected");
+
+    private StompLoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        RedisServer redis = RedisServer.newRedisServer();
+        redis.start();
+
+        List<String> arguments = new ArrayList<>(List.of(args));
+        arguments.add("--spring.redis.host=127.0.0.1");
+        arguments.add("--spring.redis.port=" + redis.getBindPort());
+        arguments.add("--server.port=0");
+        int exitCode = 0;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpaceshipApplication.class, LoadTestStandIns.class)
+                .profiles("loadtest")
+                .run(arguments.toArray(String[]::new))) {
+            run(context);
+        } catch (Exception e) {
+            log.error("부하 테스트 실패", e);
+            exitCode = 1;
+        } finally {
+            redis.stop();
+        }
+        System.exit(exitCode);
+    }
+
+    private static void run(ConfigurableApplicationContext context) throws Exception {
+        Environment env = context.getEnvironment();
+        int families = env.getProperty("loadtest.families", Integer.class, 20);
+        int members = env.getProperty("loadtest.members", Integer.class, 4);
+        double chatPerSecond = env.getProperty("loadtest.chat-per-second", Double.class, 0.5);
+        double mapPerSecond = env.getProperty("loadtest.map-per-second", Double.class, 5.0);
+        int warmupSeconds = env.getProperty("loadtest.warmup-seconds", Integer.class, 5);
+        int durationSeconds = env.getProperty("loadtest.duration-seconds", Integer.class, 30);
+        int drainSeconds = env.getProperty("loadtest.drain-seconds", Integer.class, 3);
+        Path output = Path.of(env.getProperty("loadtest.output", "build/loadtest/results.properties"));
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("families", families);
+        settings.put("members", members);
+        settings.put("chat-per-second", chatPerSecond);
+        settings.put("map-per-second", mapPerSecond);
+        settings.put("duration-seconds", durationSeconds);
+        settings.put("map.tick.enabled", env.getProperty("map.tick.enabled", "false"));
+        settings.put("websocket.coalesce.enabled", env.getProperty("websocket.coalesce.enabled", "false"));
+
+        LoadStats stats = new LoadStats();
+        List<LoadClient> clients = createClients(context, stats, families, members);
+
+        ThreadPoolTaskScheduler heartbeat = new ThreadPoolTaskScheduler();
+        heartbeat.setThreadNamePrefix("loadtest-stomp-");
+        heartbeat.initialize();
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setTaskScheduler(heartbeat);
+        String url = "ws://127.0.0.1:" + env.getProperty("local.server.port") + "/ws";
+        for (LoadClient client : clients) {
+            client.connect(stompClient, url);
+        }
+        log.warn("부하 테스트 시작 : 가족 {} x 회원 {} ({}개 세션)", families, members, clients.size());
+
+        ScheduledExecutorService senders = Executors.newScheduledThreadPool(
+                Math.max(2, Runtime.getRuntime().availableProcessors() / 2), new CustomizableThreadFactory("loadtest-send-"));
+        for (LoadClient client : clients) {
+            schedule(senders, client::sendChat, chatPerSecond);
+            schedule(senders, client::sendMap, mapPerSecond);
+        }
+
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        stats.begin();
+        for (int second = 0; second < durationSeconds; second++) {
+            TimeUnit.SECONDS.sleep(1);
+            stats.sample();
+        }
+        stats.finish();
+        // shutdownNow 는 전송 중인 스레드를 interrupt 해 연결이 끊김
+        senders.shutdown();
+        senders.awaitTermination(10, TimeUnit.SECONDS);
+        TimeUnit.SECONDS.sleep(drainSeconds);
+
+        clients.forEach(LoadClient::disconnect);
+        stompClient.stop();
+        heartbeat.shutdown();
+
+        stats.write(output, settings, serverCounters(context.getBean(MeterRegistry.class)));
+        log.warn("부하 테스트 결과 : {}", output.toAbsolutePath());
+    }
+
+    private static List<LoadClient> createClients(ConfigurableApplicationContext context, LoadStats stats,
+                                                  int families, int members) {
+        ChatRoomRepository chatRoomRepository = context.getBean(ChatRoomRepository.class);
+        FamilyRepository familyRepository = context.getBean(FamilyRepository.class);
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+        JwtTokenProvider jwtTokenProvider = context.getBean(JwtTokenProvider.class);
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+
+        List<LoadClient> clients = new ArrayList<>();
+        for (int f = 0; f < families; f++) {
+            ChatRoom chatRoom = chatRoomRepository.save(new ChatRoom(String.valueOf(System.currentTimeMillis())));
+            Family family = familyRepository.save(new Family(null, chatRoom));
+            for (int m = 0; m < members; m++) {
+                Member member = Member.builder()
+                        .name("load-" + f + "-" + m)
+                        .email("load-" + f + "-" + m + "@loadtest")
+                        .role(Role.USER)
+                        .build();
+                member.setFamily(family);
+                member = memberRepository.save(member);
+                String token = jwtTokenProvider.generateTokenByMember(
+                        member.getEmail(), member.getRoleKey(), family.getFamilyId()).getAccessToken();
+                clients.add(new LoadClient(objectMapper, stats, member.getEmail(), token,
+                        family.getFamilyId(), chatRoom.getRoomId(), member.getMemberId(), members));
+            }
+        }
+        return clients;
+    }
+
+    // 회원들이 동시에 보내지 않도록 시작 시점을 주기 안에서 흩뜨림
+    private static void schedule(ScheduledExecutorService senders, Runnable task, double perSecond) {
+        if (perSecond <= 0) {
+            return;
+        }
+        long periodMicros = (long) (1_000_000 / perSecond);
+        senders.scheduleAtFixedRate(task, ThreadLocalRandom.current().nextLong(periodMicros), periodMicros,
+                TimeUnit.MICROSECONDS);
+    }
+
+    private static Map<String, Double> serverCounters(MeterRegistry meterRegistry) {
+        Map<String, Double> counters = new TreeMap<>();
+        for (String name : SERVER_COUNTERS) {
+            counters.put(name, meterRegistry.find(name).counters().stream().mapToDouble(Counter::count).sum());
+        }
+        return counters;
+    }
+}
@@ -1,7 +1,17 @@
 package jungle.spaceship.chat.controller;
 
+import jungle.spaceship.chat.controller.dto.ChatEphemeralDto;
+import jungle.spaceship.chat.controller.dto.ChatPageResponseDto;
+import jungle.spaceship.chat.controller.dto.ChatReadDto;
 import jungle.spaceship.chat.controller.dto.ChatRegisterDto;
+import jungle.spaceship.chat.controller.dto.ChatSearchResponseDto;
+import jungle.spaceship.chat.controller.dto.ChatUnreadResponseDto;
 import jungle.spaceship.chat.entity.Chat;
+import jungle.spaceship.chat.service.ChatEphemeralService;
+import jungle.spaceship.chat.service.ChatReadService;
+import jungle.spaceship.chat.service.ChatRoomMembership;
+import jungle.spaceship.chat.service.ChatSearchService;
+import jungle.spaceship.chat.service.ChatSendPipeline;
 import jungle.spaceship.chat.service.ChatService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,6 +22,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.security.Principal;
 import java.util.List;
 
 @Slf4j
@@ -21,25 +32,82 @@ public class ChatController {
 
     private final ChatService chatService;
     private final SimpMessageSendingOperations messagingTemplate;
+    private final ChatSendPipeline chatSendPipeline;
+    private final ChatReadService chatReadService;
+    private final ChatSearchService chatSearchService;
+    private final ChatEphemeralService chatEphemeralService;
+    private final ChatRoomMembership chatRoomMembership;
     /**
      * WebSocket 으로 들어오는 메시지 발행(Publish)을 처리
 
      * 1. 클라이언트에서 prefix를 붙여 /pub/chat 로 발행 요청
      * 2. Controller 가 해당 메시지를 받아 처리
      * 3. 메시지 발행되면 /sub/chat/room/{roomId} 는 채팅방을 구분하는 값이므로 pub-sub 에서 Topic 의 역할
+     * 4. 저장과 알림은 브로드캐스트 후 ChatSendPipeline 에서 비동기로 처리
      */
     @MessageMapping("/chat")
     public void message(ChatRegisterDto message, StompHeaderAccessor accessor) {
+        long receivedAt = System.nanoTime();
 
         String memberEmail = accessor.getUser().getName();
-        ChatRegisterDto resMessage = chatService.sendMessage(message, memberEmail);
+        ChatRegisterDto resMessage = chatService.acceptMessage(message);
 
         messagingTemplate.convertAndSend("/sub/chat/room/" + message.getRoomId(), resMessage);
 
+        chatSendPipeline.submit(resMessage, memberEmail, receivedAt);
+    }
+
+    /**
+     * 읽음 처리 : /pub/chat/read 로 마지막으로 읽은 chatId 를 보내면 /sub/chat/room/{roomId}/read 로 읽음 알림
+     */
+    @MessageMapping("/chat/read")
+    public void read(ChatReadDto read, StompHeaderAccessor accessor) {
+        chatReadService.read(read, accessor.getUser());
+    }
+
+    /**
+     * 입력 중/보는 중 등 저장하지 않는 신호 : /pub/chat/ephemeral 로 보내면 /sub/chat/room/{roomId}/ephemeral 로 전달
+     */
+    @MessageMapping("/chat/ephemeral")
+    public void ephemeral(ChatEphemeralDto signal, StompHeaderAccessor accessor) {
+        chatEphemeralService.send(signal, accessor.getUser());
+    }
+
+    /**
+     * 내 채팅방별 안 읽은 메시지 수 (앱 복귀 시 전체 내역 대신 조회)
+     */
+    @GetMapping("/chat/unread")
+    public List<ChatUnreadResponseDto> getUnreadCounts(){
+        return chatReadService.getUnreadCounts();
     }
 
     @GetMapping("/chat/list")
     public List<Chat> getMessageList(@RequestParam("id") Long roomId){
         return chatService.getMessages(roomId);
     }
+
+    /**
+     * 채팅 내역 커서 페이징 : before 를 생략하면 가장 최근 메시지부터, 응답의 nextCursor 를 다음 요청의 before 로 사용 (채팅방의 가족만)
+     */
+    @GetMapping("/chat/history")
+    public ChatPageResponseDto getMessageHistory(@RequestParam("id") Long roomId,
+                                                 @RequestParam(value = "before", required = false) Long before,
+                                                 @RequestParam(value = "limit", defaultValue = "30") int limit,
+                                                 Principal principal){
+        chatRoomMembership.check(roomId, principal);
+        return chatService.getMessagesBefore(roomId, before, limit);
+    }
+
+    /**
+     * 채팅 검색 : 관련도 순, 응답의 nextCursor 를 다음 요청의 cursor 로 사용 (채팅방의 가족만)
+     */
+    @GetMapping("/chat/search")
+    public ChatSearchResponseDto searchMessages(@RequestParam("id") Long roomId,
+                                                @RequestParam("q") String q,
+                                                @RequestParam(value = "cursor", required = false) String cursor,
+                                                @RequestParam(value = "limit", defaultValue = "20") int limit,
+                                                Principal principal){
+        chatRoomMembership.check(roomId, principal);
+        return chatSearchService.search(roomId, q, cursor, limit);
+    }
 }
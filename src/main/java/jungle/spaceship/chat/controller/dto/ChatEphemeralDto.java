@@ -0,0 +1,25 @@
+package jungle.spaceship.chat.controller.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 저장하지 않는 일시적인 채팅 신호 (/pub/chat/ephemeral -> /sub/chat/room/{roomId}/ephemeral)
+ */
+@Getter
+@RequiredArgsConstructor
+public class ChatEphemeralDto {
+
+    private final Long roomId;
+    private final Type type;
+
+    @Setter
+    private String sender;          // 보낸 회원 이메일 (서버에서 채움)
+    @Setter
+    private Long sentAt;            // 서버 수신 시각 (epoch millis)
+
+    public enum Type {
+        TYPING_STARTED, TYPING_STOPPED, VIEWING
+    }
+}
@@ -0,0 +1,20 @@
+package jungle.spaceship.chat.controller.dto;
+
+import jungle.spaceship.chat.entity.Chat;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 채팅 내역 페이지
+ * - chats : 오래된 순, nextCursor : 다음 페이지 요청 시 before 로 넘길 값 (더 없으면 null)
+ */
+@Getter
+@RequiredArgsConstructor
+public class ChatPageResponseDto {
+
+    private final List<Chat> chats;
+    private final Long nextCursor;
+    private final boolean hasNext;
+}
@@ -0,0 +1,19 @@
+package jungle.spaceship.chat.controller.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 읽음 처리 요청 (/pub/chat/read) 및 읽음 알림 (/sub/chat/room/{roomId}/read)
+ */
+@Getter
+@RequiredArgsConstructor
+public class ChatReadDto {
+
+    private final Long roomId;
+    private final Long chatId;      // 마지막으로 읽은 메시지 Id
+
+    @Setter
+    private String reader;          // 읽은 회원 이메일 (서버에서 채움)
+}
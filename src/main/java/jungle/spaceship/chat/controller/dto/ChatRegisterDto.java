@@ -22,8 +22,15 @@ public class ChatRegisterDto {
     private String content;
     private final String time;
 
-    public Chat getNewMessage(){
+    // 서버가 수신 시 발급 (클라이언트가 보낸 값은 덮어씀)
+    @Setter
+    private Long chatId;
+    @Setter
+    private Long sentAt;    // 서버 수신 시각 (epoch ms)
+
+    public Chat getNewMessage(Long chatId){
         return Chat.builder()
+                .chatId(chatId)
                 .chatType(type)
                 .content(content)
                 .sender(sender)
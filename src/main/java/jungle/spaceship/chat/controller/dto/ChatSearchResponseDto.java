@@ -0,0 +1,21 @@
+package jungle.spaceship.chat.controller.dto;
+
+import jungle.spaceship.chat.entity.Chat;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 채팅 검색 결과 : 관련도 높은 순(같으면 최신순), nextCursor 를 다음 요청의 cursor 로 사용
+ * - indexing : 검색 색인을 만들거나 따라잡는 중이라 결과가 일부 빠졌을 수 있음 (잠시 후 다시 검색)
+ */
+@Getter
+@RequiredArgsConstructor
+public class ChatSearchResponseDto {
+
+    private final List<Chat> chats;
+    private final String nextCursor;
+    private final boolean hasNext;
+    private final boolean indexing;
+}
@@ -0,0 +1,13 @@
+package jungle.spaceship.chat.controller.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class ChatUnreadResponseDto {
+
+    private final Long roomId;
+    private final long unreadCount;
+    private final Long lastReadChatId;
+}
@@ -9,11 +9,11 @@ import javax.persistence.*;
 @Entity
 @Getter
 @NoArgsConstructor
+@Table(indexes = @Index(name = "idx_chat_room_id_chat_id", columnList = "roomId, chat_Id"))
 public class Chat {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
-    private Long chat_Id;
+    private Long chat_Id;   // ChatIdGenerator 가 메시지 수신 시점에 발급
 
     @Enumerated
     private ChatType chatType;
@@ -29,7 +29,8 @@ public class Chat {
 
 
     @Builder
-    public Chat(ChatType chatType, String content, String sender, Long roomId, String createAt) {
+    public Chat(Long chatId, ChatType chatType, String content, String sender, Long roomId, String createAt) {
+        this.chat_Id = chatId;
         this.chatType = chatType;
         this.content = content;
         this.sender = sender;
@@ -0,0 +1,51 @@
+package jungle.spaceship.chat.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * 오래된 채팅 보관 : 채팅방의 하루치 메시지를 압축 블록 하나로 저장
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_chat_archive_room_id_day", columnNames = {"roomId", "day"}),
+        indexes = @Index(name = "idx_chat_archive_room_id_first_chat_id", columnList = "roomId, firstChatId"))
+public class ChatArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    private Long roomId;
+
+    private LocalDate day;
+
+    private Long firstChatId;
+
+    private Long lastChatId;
+
+    private int messageCount;
+
+    @Lob
+    @Column(length = 16777215)
+    private byte[] block;
+
+    public ChatArchive(Long roomId, LocalDate day) {
+        this.roomId = roomId;
+        this.day = day;
+    }
+
+    /**
+     * 압축 블록 교체 (ChatBlockCodec 으로 인코딩한 chatId 오름차순 메시지)
+     */
+    public void update(byte[] block, Long firstChatId, Long lastChatId, int messageCount) {
+        this.block = block;
+        this.firstChatId = firstChatId;
+        this.lastChatId = lastChatId;
+        this.messageCount = messageCount;
+    }
+}
@@ -0,0 +1,38 @@
+package jungle.spaceship.chat.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * 채팅방별 회원의 마지막으로 읽은 메시지 (Redis 읽음 상태를 주기적으로 저장)
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_chat_read_cursor_room_id_email", columnNames = {"roomId", "email"}))
+public class ChatReadCursor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    private Long roomId;
+
+    private String email;
+
+    private Long lastReadChatId;
+
+    public ChatReadCursor(Long roomId, String email, Long lastReadChatId) {
+        this.roomId = roomId;
+        this.email = email;
+        this.lastReadChatId = lastReadChatId;
+    }
+
+    public void read(Long chatId) {
+        if (lastReadChatId == null || chatId > lastReadChatId) {
+            this.lastReadChatId = chatId;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package jungle.spaceship.chat.repository;
+
+import jungle.spaceship.chat.entity.ChatArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ChatArchiveRepository extends JpaRepository<ChatArchive, Long> {
+
+    Optional<ChatArchive> findByRoomIdAndDay(Long roomId, LocalDate day);
+
+    List<ChatArchive> findTop30ByRoomIdAndFirstChatIdGreaterThanOrderByFirstChatId(Long roomId, Long after);
+
+    /**
+     * 커서(chatId) 이전 메시지가 있는 블록을 최신순으로 조회
+     */
+    @Query(value = "select * from chat_archive where room_id = :roomId and first_chat_id < :before order by first_chat_id desc limit :num", nativeQuery = true)
+    List<ChatArchive> findBlocksBefore(@Param("roomId") Long roomId, @Param("before") Long before, @Param("num") int num);
+
+    @Query(value = "select * from chat_archive where room_id = :roomId and first_chat_id <= :chatId and last_chat_id >= :chatId", nativeQuery = true)
+    Optional<ChatArchive> findBlockContaining(@Param("roomId") Long roomId, @Param("chatId") Long chatId);
+}
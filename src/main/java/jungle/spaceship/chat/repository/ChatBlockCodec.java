@@ -0,0 +1,53 @@
+package jungle.spaceship.chat.repository;
+
+import jungle.spaceship.chat.entity.Chat;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 보관(cold) 채팅 블록 인코딩 : [메시지 수 4B]([길이 4B][ChatRedisSerializer 바이트])... 전체를 Deflate 압축
+ * - 같은 채팅방 하루치 메시지는 보낸 사람/형식이 반복되어 압축률이 높음
+ */
+public final class ChatBlockCodec {
+
+    private static final ChatRedisSerializer SERIALIZER = new ChatRedisSerializer();
+
+    private ChatBlockCodec() {
+    }
+
+    public static byte[] encode(List<Chat> chats) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(
+                new DeflaterOutputStream(bytes, new Deflater(Deflater.BEST_COMPRESSION)))) {
+            out.writeInt(chats.size());
+            for (Chat chat : chats) {
+                byte[] serialized = SERIALIZER.serialize(chat);
+                out.writeInt(serialized.length);
+                out.write(serialized);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static List<Chat> decode(byte[] block) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(block)))) {
+            int count = in.readInt();
+            List<Chat> chats = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] serialized = new byte[in.readInt()];
+                in.readFully(serialized);
+                chats.add(SERIALIZER.deserialize(serialized));
+            }
+            return chats;
+        } catch (IOException e) {
+            throw new UncheckedIOException("보관된 채팅 블록을 읽을 수 없습니다", e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package jungle.spaceship.chat.repository;
+
+import jungle.spaceship.chat.entity.Chat;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 아직 DB 에 저장되지 않은 메시지의 저널 (Write Ahead)
+ * - 채팅방마다 Redis Hash 하나 (chatId -> 메시지), 저널이 남은 채팅방 Id 는 Set 으로 관리
+ * - 메시지를 받을 때 기록하고, DB 커밋이 끝난 메시지만 지우므로 캐시가 만료되거나 서버가 내려가도 유실되지 않음
+ */
+@Repository
+public class ChatJournal {
+
+    public static final String ROOMS_KEY = "chat:journal:rooms";
+    private static final String KEY_PREFIX = "chat:journal:";
+    private static final int REMOVE_CHUNK = 1000;   // Lua unpack 은 인자 수 제한(약 8000)이 있어 나눠서 삭제
+
+    /**
+     * KEYS[1] : 채팅방 저널, KEYS[2] : 저널이 남은 채팅방 Set / ARGV[1] : 채팅방 Id, ARGV[2] : chatId, ARGV[3] : 메시지
+     */
+    private static final RedisScript<Long> APPEND_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('HSET', KEYS[1], ARGV[2], ARGV[3]) " +
+            "redis.call('SADD', KEYS[2], ARGV[1]) " +
+            "return 1", Long.class);
+
+    /**
+     * KEYS[1] : 채팅방 저널, KEYS[2] : 저널이 남은 채팅방 Set / ARGV[1] : 채팅방 Id, ARGV[2..] : 지울 chatId
+     */
+    private static final RedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('HDEL', KEYS[1], unpack(ARGV, 2)) " +
+            "if redis.call('HLEN', KEYS[1]) == 0 then redis.call('SREM', KEYS[2], ARGV[1]) end " +
+            "return 1", Long.class);
+
+    private final RedisTemplate<String, Chat> redisTemplate;
+    private final RedisSerializer<Object> argsSerializer;
+
+    @SuppressWarnings("unchecked")
+    public ChatJournal(@Qualifier("chatRedisTemplate") RedisTemplate<String, Chat> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.argsSerializer = new ChatScriptArgsSerializer((RedisSerializer<Chat>) redisTemplate.getValueSerializer());
+    }
+
+    public static String key(Long roomId) {
+        return KEY_PREFIX + roomId;
+    }
+
+    public void append(Chat chat) {
+        redisTemplate.execute(APPEND_SCRIPT, argsSerializer, null, List.of(key(chat.getRoomId()), ROOMS_KEY),
+                chat.getRoomId(), chat.getChat_Id(), chat);
+    }
+
+    /**
+     * DB 커밋이 끝난 메시지를 저널에서 제거
+     */
+    public void remove(Collection<Chat> chats) {
+        Map<Long, List<Chat>> byRoom = chats.stream().collect(Collectors.groupingBy(Chat::getRoomId));
+        byRoom.forEach((roomId, roomChats) -> {
+            for (int from = 0; from < roomChats.size(); from += REMOVE_CHUNK) {
+                List<Chat> chunk = roomChats.subList(from, Math.min(from + REMOVE_CHUNK, roomChats.size()));
+                Object[] args = new Object[chunk.size() + 1];
+                args[0] = roomId;
+                for (int i = 0; i < chunk.size(); i++) {
+                    args[i + 1] = chunk.get(i).getChat_Id();
+                }
+                redisTemplate.execute(REMOVE_SCRIPT, argsSerializer, null, List.of(key(roomId), ROOMS_KEY), args);
+            }
+        });
+    }
+
+    public List<Chat> read(Long roomId) {
+        List<Object> values = redisTemplate.opsForHash().values(key(roomId));
+        return values.stream()
+                .map(Chat.class::cast)
+                .sorted(Comparator.comparing(Chat::getChat_Id))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 저널이 남아 있는 채팅방 Id
+     */
+    public Set<Long> rooms() {
+        Set<Long> roomIds = redisTemplate.execute(connection -> {
+            Set<Long> ids = new HashSet<>();
+            Set<byte[]> members = connection.setCommands().sMembers(ROOMS_KEY.getBytes(StandardCharsets.UTF_8));
+            if (members != null) {
+                members.forEach(member -> ids.add(Long.valueOf(new String(member, StandardCharsets.UTF_8))));
+            }
+            return ids;
+        }, true);
+        return roomIds == null ? Collections.emptySet() : roomIds;
+    }
+}
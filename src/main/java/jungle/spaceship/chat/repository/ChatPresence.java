@@ -0,0 +1,74 @@
+package jungle.spaceship.chat.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 채팅방 접속자 (Redis Sorted Set : chat:presence:{roomId} -> "이메일|서버 Id", 만료 시각 ms)
+ * - 서버마다 주기적으로 만료 시각을 갱신(heartbeat)하므로, 서버가 죽으면 해당 서버의 접속자는 만료 시각이 지나 자연히 빠짐
+ * - 같은 사용자가 여러 서버에 접속해 있어도 서버별로 따로 기록되어, 한쪽에서 나가도 다른 쪽 접속은 유지
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatPresence {
+
+    private static final String KEY_PREFIX = "chat:presence:";
+    private static final String SEPARATOR = "|";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public void enter(Long roomId, String email, String node, long expireAt) {
+        redisTemplate.opsForZSet().add(key(roomId), email + SEPARATOR + node, expireAt);
+        redisTemplate.expireAt(key(roomId), new Date(expireAt));
+    }
+
+    public void leave(Long roomId, String email, String node) {
+        redisTemplate.opsForZSet().remove(key(roomId), email + SEPARATOR + node);
+    }
+
+    /**
+     * 이 서버의 접속자 만료 시각을 한 번에 갱신하고, 만료된 항목은 정리
+     */
+    public void refresh(Map<Long, ? extends Collection<String>> members, String node, long now, long expireAt) {
+        if (members.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            members.forEach((roomId, emails) -> {
+                String key = key(roomId);
+                redis.zRemRangeByScore(key, 0, now);
+                emails.forEach(email -> redis.zAdd(key, expireAt, email + SEPARATOR + node));
+                redis.pExpireAt(key, expireAt);
+            });
+            return null;
+        });
+    }
+
+    /**
+     * 현재 채팅방을 보고 있는 사용자 이메일 (모든 서버 기준)
+     */
+    public Set<String> present(Long roomId, long now) {
+        Set<String> members = redisTemplate.opsForZSet().rangeByScore(key(roomId), now, Double.POSITIVE_INFINITY);
+        if (members == null || members.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return members.stream()
+                .map(member -> member.substring(0, member.lastIndexOf(SEPARATOR)))
+                .collect(Collectors.toSet());
+    }
+
+    private static String key(Long roomId) {
+        return KEY_PREFIX + roomId;
+    }
+}
@@ -0,0 +1,13 @@
+package jungle.spaceship.chat.repository;
+
+import jungle.spaceship.chat.entity.ChatReadCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ChatReadCursorRepository extends JpaRepository<ChatReadCursor, Long> {
+
+    Optional<ChatReadCursor> findByRoomIdAndEmail(Long roomId, String email);
+}
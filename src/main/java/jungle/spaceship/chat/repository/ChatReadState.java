@@ -0,0 +1,117 @@
+package jungle.spaceship.chat.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+/**
+ * 채팅방별 읽음 상태
+ * - chat:count (Hash) : 채팅방 Id -> 지금까지 보낸 메시지 수
+ * - chat:ids:{roomId} (List) : 최근 ID_WINDOW 개 메시지의 chatId (보낸 순서)
+ * - chat:read:{roomId} (Hash) : 이메일 -> 마지막으로 읽은 chatId, 이메일:seen -> 읽은 chatId 까지의 메시지 수
+ * - 안 읽은 메시지 수 = 메시지 수 - 읽은 메시지 수 -> 전송 시 가족 수와 관계없이 카운터 하나만 증가
+ * - 읽은 메시지 수는 읽음 처리한 chatId 보다 뒤에 보낸 메시지를 최근 목록에서 세어 계산
+ *   (최근 목록보다 오래된 chatId 를 읽음 처리하면 최근 목록 전체를 안 읽은 것으로 봄)
+ * - chat:read:dirty (Set) : DB 에 아직 저장하지 않은 "roomId:이메일"
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatReadState {
+
+    private static final String COUNT_KEY = "chat:count";
+    private static final String DIRTY_KEY = "chat:read:dirty";
+    private static final String READ_KEY_PREFIX = "chat:read:";
+    private static final String IDS_KEY_PREFIX = "chat:ids:";
+    private static final String SEEN_SUFFIX = ":seen";
+    private static final int ID_WINDOW = 1000;
+
+    /**
+     * 메시지 전송 : 메시지 수 증가, 최근 목록에 추가, 보낸 사람은 자신의 메시지까지 읽은 것으로 처리
+     * KEYS[1] : 메시지 수, KEYS[2] : 채팅방 읽음 상태, KEYS[3] : dirty, KEYS[4] : 최근 chatId 목록
+     * ARGV[1] : roomId, ARGV[2] : 이메일, ARGV[3] : chatId, ARGV[4] : 최근 목록 크기
+     */
+    private static final RedisScript<Long> SENT_SCRIPT = new DefaultRedisScript<>(
+            "local count = redis.call('HINCRBY', KEYS[1], ARGV[1], 1) " +
+            "redis.call('RPUSH', KEYS[4], ARGV[3]) " +
+            "redis.call('LTRIM', KEYS[4], -tonumber(ARGV[4]), -1) " +
+            "redis.call('HSET', KEYS[2], ARGV[2], ARGV[3], ARGV[2] .. ':seen', count) " +
+            "redis.call('SADD', KEYS[3], ARGV[1] .. ':' .. ARGV[2]) " +
+            "return count", Long.class);
+
+    /**
+     * 읽음 처리 : 기존보다 뒤의 메시지일 때만 갱신, 갱신되면 1 반환
+     * - 읽은 메시지 수 = 메시지 수 - 최근 목록 중 읽음 처리한 chatId 보다 큰 chatId 수 (줄어들지 않음)
+     * - chatId 는 Lua number(double)로 바꾸면 정밀도를 잃으므로 같은 길이의 10진 문자열끼리 비교
+     */
+    private static final RedisScript<Long> READ_SCRIPT = new DefaultRedisScript<>(
+            "local function after(a, b) " +
+            "  if #a ~= #b then return #a > #b end " +
+            "  return a > b " +
+            "end " +
+            "local cursor = redis.call('HGET', KEYS[2], ARGV[2]) " +
+            "if cursor and not after(ARGV[3], cursor) then return 0 end " +
+            "local count = tonumber(redis.call('HGET', KEYS[1], ARGV[1]) or '0') " +
+            "local unread = 0 " +
+            "for _, id in ipairs(redis.call('LRANGE', KEYS[4], 0, -1)) do " +
+            "  if after(id, ARGV[3]) then unread = unread + 1 end " +
+            "end " +
+            "local seen = math.max(count - unread, tonumber(redis.call('HGET', KEYS[2], ARGV[2] .. ':seen') or '0')) " +
+            "redis.call('HSET', KEYS[2], ARGV[2], ARGV[3], ARGV[2] .. ':seen', seen) " +
+            "redis.call('SADD', KEYS[3], ARGV[1] .. ':' .. ARGV[2]) " +
+            "return 1", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public void sent(Long roomId, String email, Long chatId) {
+        redisTemplate.execute(SENT_SCRIPT, List.of(COUNT_KEY, readKey(roomId), DIRTY_KEY, idsKey(roomId)),
+                roomId.toString(), email, chatId.toString(), String.valueOf(ID_WINDOW));
+    }
+
+    public boolean read(Long roomId, String email, Long chatId) {
+        Long updated = redisTemplate.execute(READ_SCRIPT, List.of(COUNT_KEY, readKey(roomId), DIRTY_KEY, idsKey(roomId)),
+                roomId.toString(), email, chatId.toString());
+        return updated != null && updated == 1L;
+    }
+
+    public Long lastRead(Long roomId, String email) {
+        Object cursor = redisTemplate.opsForHash().get(readKey(roomId), email);
+        return cursor == null ? null : Long.valueOf(cursor.toString());
+    }
+
+    /**
+     * 안 읽은 메시지 수
+     */
+    public long unread(Long roomId, String email) {
+        Object count = redisTemplate.opsForHash().get(COUNT_KEY, roomId.toString());
+        Object seen = redisTemplate.opsForHash().get(readKey(roomId), email + SEEN_SUFFIX);
+        long total = count == null ? 0 : Long.parseLong(count.toString());
+        long read = seen == null ? 0 : Long.parseLong(seen.toString());
+        return Math.max(0, total - read);
+    }
+
+    /**
+     * DB 에 저장할 읽음 상태를 최대 count 개 꺼냄 ("roomId:이메일")
+     */
+    public List<String> popDirty(int count) {
+        List<String> dirty = redisTemplate.opsForSet().pop(DIRTY_KEY, count);
+        return dirty == null ? Collections.emptyList() : dirty;
+    }
+
+    public void markDirty(Collection<String> entries) {
+        if (!entries.isEmpty()) {
+            redisTemplate.opsForSet().add(DIRTY_KEY, entries.toArray(new String[0]));
+        }
+    }
+
+    private static String readKey(Long roomId) {
+        return READ_KEY_PREFIX + roomId;
+    }
+
+    private static String idsKey(Long roomId) {
+        return IDS_KEY_PREFIX + roomId;
+    }
+}
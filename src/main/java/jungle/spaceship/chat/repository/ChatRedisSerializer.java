@@ -0,0 +1,168 @@
+package jungle.spaceship.chat.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jungle.spaceship.chat.entity.Chat;
+import jungle.spaceship.chat.entity.ChatType;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 캐시/저널에 저장하는 채팅 메시지 전용 바이너리 직렬화
+ *
+ * [버전 1B][필드 존재 flag 1B][chatId varint][roomId varint][chatType 1B][content][sender][createAt]
+ * - 문자열은 [UTF-8 길이 varint][UTF-8 bytes], 값이 없는 필드는 flag 만 꺼지고 바이트를 쓰지 않음
+ * - 첫 바이트가 '{' 이면 이전 JSON 형식으로 읽어, 배포 중 캐시에 남은 값도 그대로 사용
+ */
+public class ChatRedisSerializer implements RedisSerializer<Chat> {
+
+    private static final byte VERSION_1 = 1;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_ROOM_ID = 1 << 1;
+    private static final int HAS_TYPE = 1 << 2;
+    private static final int HAS_CONTENT = 1 << 3;
+    private static final int HAS_SENDER = 1 << 4;
+    private static final int HAS_CREATE_AT = 1 << 5;
+
+    private static final ChatType[] CHAT_TYPES = ChatType.values();
+    private static final ObjectMapper LEGACY_MAPPER = new ObjectMapper();
+
+    @Override
+    public byte[] serialize(Chat chat) throws SerializationException {
+        if (chat == null) {
+            return new byte[0];
+        }
+        byte[] content = utf8(chat.getContent());
+        byte[] sender = utf8(chat.getSender());
+        byte[] createAt = utf8(chat.getCreateAt());
+
+        int flags = 0;
+        int size = 2;
+        if (chat.getChat_Id() != null) { flags |= HAS_ID; size += varintSize(chat.getChat_Id()); }
+        if (chat.getRoomId() != null) { flags |= HAS_ROOM_ID; size += varintSize(chat.getRoomId()); }
+        if (chat.getChatType() != null) { flags |= HAS_TYPE; size += 1; }
+        if (content != null) { flags |= HAS_CONTENT; size += varintSize(content.length) + content.length; }
+        if (sender != null) { flags |= HAS_SENDER; size += varintSize(sender.length) + sender.length; }
+        if (createAt != null) { flags |= HAS_CREATE_AT; size += varintSize(createAt.length) + createAt.length; }
+
+        byte[] out = new byte[size];
+        out[0] = VERSION_1;
+        out[1] = (byte) flags;
+        int pos = 2;
+        if (chat.getChat_Id() != null) pos = writeVarint(out, pos, chat.getChat_Id());
+        if (chat.getRoomId() != null) pos = writeVarint(out, pos, chat.getRoomId());
+        if (chat.getChatType() != null) out[pos++] = (byte) chat.getChatType().ordinal();
+        pos = writeBytes(out, pos, content);
+        pos = writeBytes(out, pos, sender);
+        writeBytes(out, pos, createAt);
+        return out;
+    }
+
+    /**
+     * 이 형식(버전 바이트로 시작)으로 직렬화된 값인지 : 숫자/문자열 인자와 구분할 때 사용
+     */
+    static boolean isBinary(byte[] bytes) {
+        return bytes.length > 0 && bytes[0] == VERSION_1;
+    }
+
+    @Override
+    public Chat deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == '{') {
+            return readLegacyJson(bytes);
+        }
+        if (bytes[0] != VERSION_1) {
+            throw new SerializationException("지원하지 않는 채팅 메시지 형식 버전입니다 : " + bytes[0]);
+        }
+
+        Reader reader = new Reader(bytes, 1);
+        int flags = bytes[reader.pos++];
+        Long chatId = (flags & HAS_ID) != 0 ? reader.varint() : null;
+        Long roomId = (flags & HAS_ROOM_ID) != 0 ? reader.varint() : null;
+        ChatType chatType = (flags & HAS_TYPE) != 0 ? CHAT_TYPES[bytes[reader.pos++]] : null;
+        String content = (flags & HAS_CONTENT) != 0 ? reader.string() : null;
+        String sender = (flags & HAS_SENDER) != 0 ? reader.string() : null;
+        String createAt = (flags & HAS_CREATE_AT) != 0 ? reader.string() : null;
+
+        return Chat.builder()
+                .chatId(chatId)
+                .roomId(roomId)
+                .chatType(chatType)
+                .content(content)
+                .sender(sender)
+                .createAt(createAt)
+                .build();
+    }
+
+    private Chat readLegacyJson(byte[] bytes) {
+        try {
+            return LEGACY_MAPPER.readValue(bytes, Chat.class);
+        } catch (IOException e) {
+            throw new SerializationException("이전 JSON 형식의 채팅 메시지를 읽을 수 없습니다", e);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    private static int writeVarint(byte[] out, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static int writeBytes(byte[] out, int pos, byte[] value) {
+        if (value == null) {
+            return pos;
+        }
+        pos = writeVarint(out, pos, value.length);
+        System.arraycopy(value, 0, out, pos, value.length);
+        return pos + value.length;
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private int pos;
+
+        private Reader(byte[] bytes, int pos) {
+            this.bytes = bytes;
+            this.pos = pos;
+        }
+
+        private long varint() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        private String string() {
+            int length = (int) varint();
+            String value = new String(bytes, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+    }
+}
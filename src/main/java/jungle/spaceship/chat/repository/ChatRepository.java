@@ -14,4 +14,22 @@ public interface ChatRepository extends JpaRepository<Chat, Long> {
     @Query(value = "select * from (select * from chat where room_id = :roomId order by chat_id desc limit :num) n order by n.chat_id", nativeQuery = true)
     List<Chat> findNumberOfMessageInChatRoomReverse(@Param("roomId") Long roomId, @Param("num") int num);
 
+    /**
+     * 커서(chatId) 이전 메시지를 최신순으로 조회 : (room_id, chat_id) 인덱스로 OFFSET 없이 탐색
+     */
+    @Query(value = "select * from chat where room_id = :roomId and chat_id < :before order by chat_id desc limit :num", nativeQuery = true)
+    List<Chat> findMessagesBefore(@Param("roomId") Long roomId, @Param("before") Long before, @Param("num") int num);
+
+    /**
+     * [from, before) 범위의 메시지를 최신순으로 조회 (시간 기반 Id 와 이전 시퀀스 Id 를 나눠서 조회할 때 사용)
+     */
+    @Query(value = "select * from chat where room_id = :roomId and chat_id >= :from and chat_id < :before order by chat_id desc limit :num", nativeQuery = true)
+    List<Chat> findMessagesBetween(@Param("roomId") Long roomId, @Param("from") Long from, @Param("before") Long before, @Param("num") int num);
+
+    /**
+     * chatId 이후 메시지를 오래된 순으로 조회 (검색 색인 따라잡기)
+     */
+    @Query(value = "select * from chat where room_id = :roomId and chat_id > :after order by chat_id limit :num", nativeQuery = true)
+    List<Chat> findMessagesAfter(@Param("roomId") Long roomId, @Param("after") Long after, @Param("num") int num);
+
 }
@@ -0,0 +1,72 @@
+package jungle.spaceship.chat.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 채팅방 마지막 활동 시각 (Redis Sorted Set : roomId -> 마지막 메시지 시각 ms)
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatRoomActivity {
+
+    public static final String KEY = "chat:rooms:activity";
+
+    /**
+     * 조회 이후 새 메시지가 들어온 채팅방은 남겨두고, 여전히 cutoff 이전인 채팅방만 활동 기록과 캐시를 함께 제거해 반환
+     * (확인과 삭제 사이에 메시지가 추가되어 캐시와 함께 지워지는 일이 없도록 한 스크립트로 처리)
+     * KEYS[1] : 활동 Sorted Set, KEYS[2..] : 채팅방 캐시 키 / ARGV[1] : cutoff, ARGV[2..] : 채팅방 Id
+     */
+    @SuppressWarnings("unchecked")
+    private static final RedisScript<List<String>> REMOVE_IDLE_SCRIPT = new DefaultRedisScript<>(
+            "local removed = {} " +
+            "for i = 2, #ARGV do " +
+            "  local score = redis.call('ZSCORE', KEYS[1], ARGV[i]) " +
+            "  if score and tonumber(score) <= tonumber(ARGV[1]) then " +
+            "    redis.call('ZREM', KEYS[1], ARGV[i]) " +
+            "    redis.call('DEL', KEYS[i]) " +
+            "    table.insert(removed, ARGV[i]) " +
+            "  end " +
+            "end " +
+            "return removed", (Class<List<String>>) (Class<?>) List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public void touch(Long roomId) {
+        redisTemplate.opsForZSet().add(KEY, roomId.toString(), System.currentTimeMillis());
+    }
+
+    /**
+     * cutoff(ms) 이후로 메시지가 없는 채팅방
+     */
+    public Set<Long> findIdle(long cutoff, int count) {
+        Set<String> roomIds = redisTemplate.opsForZSet().rangeByScore(KEY, 0, cutoff, 0, count);
+        return roomIds == null ? Collections.emptySet()
+                : roomIds.stream().map(Long::valueOf).collect(Collectors.toSet());
+    }
+
+    /**
+     * cacheKey : 채팅방 Id -> 캐시 키 (MessageCache.key)
+     */
+    public Set<Long> removeIfIdle(Collection<Long> roomIds, long cutoff, Function<Long, String> cacheKey) {
+        List<String> keys = new ArrayList<>(roomIds.size() + 1);
+        keys.add(KEY);
+        Object[] args = new Object[roomIds.size() + 1];
+        args[0] = String.valueOf(cutoff);
+        int i = 1;
+        for (Long roomId : roomIds) {
+            keys.add(cacheKey.apply(roomId));
+            args[i++] = roomId.toString();
+        }
+        List<String> removed = redisTemplate.execute(REMOVE_IDLE_SCRIPT, keys, args);
+        return removed == null ? Collections.emptySet()
+                : removed.stream().map(Long::valueOf).collect(Collectors.toSet());
+    }
+}
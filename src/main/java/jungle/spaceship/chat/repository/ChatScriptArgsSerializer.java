@@ -0,0 +1,39 @@
+package jungle.spaceship.chat.repository;
+
+import jungle.spaceship.chat.entity.Chat;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lua 스크립트 인자 직렬화 : 메시지는 ChatRedisSerializer 로, 숫자 등 나머지는 문자열로 변환
+ * - 읽을 때는 ChatRedisSerializer 형식이면 메시지로, 아니면 문자열로 복원
+ */
+class ChatScriptArgsSerializer implements RedisSerializer<Object> {
+
+    private final RedisSerializer<Chat> chatSerializer;
+
+    ChatScriptArgsSerializer(RedisSerializer<Chat> chatSerializer) {
+        this.chatSerializer = chatSerializer;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value instanceof Chat chat) {
+            return chatSerializer.serialize(chat);
+        }
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null) {
+            return null;
+        }
+        if (ChatRedisSerializer.isBinary(bytes)) {
+            return chatSerializer.deserialize(bytes);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,35 @@
+package jungle.spaceship.chat.repository;
+
+import jungle.spaceship.chat.entity.Chat;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 채팅방 별 메시지 캐시
+ * - chat.cache.type 으로 구현체 선택 (list : 메시지 단위 Redis List, value : 방 전체를 하나의 값으로 저장)
+ */
+public interface MessageCache {
+
+    /**
+     * 메시지를 저널(ChatJournal)에 기록하고 캐시 끝에 추가, 채팅방 활동 시각(ChatRoomActivity) 갱신
+     * 캐시 크기가 maxSize 를 넘으면 앞에서부터 writeBackSize 개를 잘라내 반환 (Write Back 대상)
+     */
+    List<Chat> append(Long roomId, Chat chat, int maxSize, int writeBackSize);
+
+    /**
+     * 최근 메시지 count 개를 오래된 순으로 반환
+     */
+    List<Chat> getRecent(Long roomId, int count);
+
+    void put(Long roomId, Collection<Chat> chats);
+
+    boolean containsKey(Long roomId);
+
+    void deleteKey(Long roomId);
+
+    /**
+     * 채팅방 캐시의 Redis 키
+     */
+    String key(Long roomId);
+}
@@ -0,0 +1,117 @@
+package jungle.spaceship.chat.repository;
+
+import jungle.spaceship.chat.entity.Chat;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메시지 단위 캐시 : 채팅방마다 Redis List 하나를 두고 메시지를 원소 하나로 저장
+ * - 저널 기록, 추가, 잘라내기(Write Back), 만료 갱신을 Lua 스크립트로 묶어 한 번의 왕복으로 처리
+ */
+@Repository
+@ConditionalOnProperty(name = "chat.cache.type", havingValue = "list", matchIfMissing = true)
+public class RedisListMessageCache implements MessageCache {
+
+    private static final String KEY_PREFIX = "chat:room:";
+
+    /**
+     * KEYS[1] : 채팅방 키, KEYS[2] : 채팅방 저널, KEYS[3] : 저널이 남은 채팅방 Set, KEYS[4] : 채팅방 활동 Sorted Set
+     * ARGV[1] : 메시지, ARGV[2] : 만료(초), ARGV[3] : 최대 캐시 크기, ARGV[4] : 잘라낼 메시지 수,
+     * ARGV[5] : 채팅방 Id, ARGV[6] : chatId, ARGV[7] : 현재 시각(ms)
+     */
+    private static final RedisScript<List<Chat>> APPEND_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('HSET', KEYS[2], ARGV[6], ARGV[1]) " +
+            "redis.call('SADD', KEYS[3], ARGV[5]) " +
+            "redis.call('ZADD', KEYS[4], ARGV[7], ARGV[5]) " +
+            "redis.call('RPUSH', KEYS[1], ARGV[1]) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[2]) " +
+            "if redis.call('LLEN', KEYS[1]) > tonumber(ARGV[3]) then " +
+            "  local evicted = redis.call('LRANGE', KEYS[1], 0, tonumber(ARGV[4]) - 1) " +
+            "  redis.call('LTRIM', KEYS[1], tonumber(ARGV[4]), -1) " +
+            "  return evicted " +
+            "end " +
+            "return {}", listOfChat());
+
+    private final RedisTemplate<String, Chat> redisTemplate;
+    private final RedisSerializer<Object> argsSerializer;
+    private final int expireTime;
+
+    public RedisListMessageCache(@Qualifier("chatRedisTemplate") RedisTemplate<String, Chat> redisTemplate,
+                                 @Value("${spring.redis.expire}") int expireTime) {
+        this.redisTemplate = redisTemplate;
+        this.argsSerializer = new ChatScriptArgsSerializer(chatSerializer());
+        this.expireTime = expireTime;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Chat> append(Long roomId, Chat chat, int maxSize, int writeBackSize) {
+        List<String> keys = List.of(key(roomId), ChatJournal.key(roomId), ChatJournal.ROOMS_KEY, ChatRoomActivity.KEY);
+        List<Chat> evicted = redisTemplate.execute(APPEND_SCRIPT, argsSerializer, (RedisSerializer<List<Chat>>) (RedisSerializer<?>) chatSerializer(), keys,
+                chat, TimeUnit.MINUTES.toSeconds(expireTime), maxSize, writeBackSize,
+                roomId, chat.getChat_Id(), System.currentTimeMillis());
+        return evicted == null ? Collections.emptyList() : evicted;
+    }
+
+    @Override
+    public List<Chat> getRecent(Long roomId, int count) {
+        List<Chat> chats = redisTemplate.opsForList().range(key(roomId), -count, -1);
+        return chats == null ? Collections.emptyList() : chats;
+    }
+
+    @Override
+    public void put(Long roomId, Collection<Chat> chats) {
+        String key = key(roomId);
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Chat> chatOperations = (RedisOperations<String, Chat>) operations;
+                chatOperations.delete(key);
+                if (!chats.isEmpty()) {
+                    chatOperations.opsForList().rightPushAll(key, chats);
+                    chatOperations.expire(key, expireTime, TimeUnit.MINUTES);
+                }
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public boolean containsKey(Long roomId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(key(roomId)));
+    }
+
+    @Override
+    public void deleteKey(Long roomId) {
+        redisTemplate.delete(key(roomId));
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<Chat> chatSerializer() {
+        return (RedisSerializer<Chat>) redisTemplate.getValueSerializer();
+    }
+
+    // 스크립트가 List 를 돌려주면 원소마다 결과 serializer 로 역직렬화되므로 List<Chat> 응답에 Chat serializer 를 사용
+    @SuppressWarnings("unchecked")
+    private static Class<List<Chat>> listOfChat() {
+        return (Class<List<Chat>>) (Class<?>) List.class;
+    }
+
+    @Override
+    public String key(Long roomId) {
+        return KEY_PREFIX + roomId;
+    }
+}
@@ -5,29 +5,67 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Repository;
 
-import java.util.LinkedList;
-import java.util.Objects;
-import java.util.Queue;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * 기존 캐시 방식 : 채팅방의 메시지 전체를 LinkedList 하나로 직렬화해 저장
+ * - 메시지를 보낼 때마다 리스트 전체를 읽고 다시 쓰므로 처리량 비교용으로만 유지
+ */
 @Repository
 @RequiredArgsConstructor
-public class RedisMessageCache {
+@ConditionalOnProperty(name = "chat.cache.type", havingValue = "value")
+public class RedisMessageCache implements MessageCache {
     @Autowired
     @Qualifier("messageRedisTemplate")
     private final RedisTemplate<String, LinkedList<Chat>> redisTemplate;
+    private final ChatJournal chatJournal;
+    private final ChatRoomActivity chatRoomActivity;
 
     @Value("${spring.redis.expire}")
     private int expireTime;
 
-    public void put(Long roomId, Queue<Chat> chatQueue){
+    @Override
+    public List<Chat> append(Long roomId, Chat chat, int maxSize, int writeBackSize) {
+        chatJournal.append(chat);
+        chatRoomActivity.touch(roomId);
+
+        // 채팅방에 처음쓰는 글이라면 캐시가 없으므로 캐시를 생성
+        LinkedList<Chat> mQueue = containsKey(roomId) ? get(roomId) : new LinkedList<>();
+        mQueue.add(chat);
+
+        // 캐시 쓰기 전략 (Write Back) : 큐 사이즈가 일정 크기 초과하면 일부를 잘라내 반환
+        List<Chat> evicted = new ArrayList<>();
+        if(mQueue.size() > maxSize){
+            for (int i = 0; i < writeBackSize; i++) {
+                evicted.add(mQueue.poll());
+            }
+        }
+        // 큐의 상태가 변경되었기 때문에 현재 큐를 갱신
+        put(roomId, mQueue);
+        return evicted;
+    }
+
+    @Override
+    public List<Chat> getRecent(Long roomId, int count) {
+        LinkedList<Chat> chats = get(roomId);
+        if(chats == null){
+            return Collections.emptyList();
+        }
+        return chats.subList(Math.max(0, chats.size() - count), chats.size());
+    }
+
+    @Override
+    public void put(Long roomId, Collection<Chat> chatQueue){
         redisTemplate.opsForValue().set(roomId.toString(), new LinkedList<>(chatQueue));
         redisTemplate.expire(roomId.toString(), expireTime, TimeUnit.MINUTES);
     }
 
+    @Override
     public boolean containsKey(Long roomId){
         return Boolean.TRUE.equals(redisTemplate.hasKey(roomId.toString()));
     }
@@ -40,10 +78,17 @@ public class RedisMessageCache {
         return get(Long.valueOf(Objects.requireNonNull(redisTemplate.randomKey())));
     }
 
+    @Override
     public void deleteKey(Long roomId){
         redisTemplate.delete(roomId.toString());
     }
+
+    @Override
+    public String key(Long roomId){
+        return roomId.toString();
+    }
+
     public void deleteAll(){
         redisTemplate.discard();
     }
-}
\ No newline at end of file
+}
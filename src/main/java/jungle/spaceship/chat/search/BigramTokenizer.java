@@ -0,0 +1,107 @@
+package jungle.spaceship.chat.search;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * 글자 2-gram 토크나이저 : 띄어쓰기 없이 쓰는 한글 채팅도 부분 문자열로 검색할 수 있도록 형태소 대신 2글자 단위로 색인
+ * - 글자/숫자가 이어진 구간마다 2-gram 과 마지막 글자 term 을 만듦 ("밥먹자" -> 밥먹, 먹자, 자)
+ *   -> 모든 글자가 어떤 term 의 첫 글자가 되므로, 한 글자 검색은 첫 글자가 같은 term 범위 조회로 처리
+ * - term 은 [첫 글자 16bit | 둘째 글자 16bit] int, 마지막 글자 term 은 둘째 글자가 0
+ */
+public final class BigramTokenizer {
+
+    private BigramTokenizer() {
+    }
+
+    /**
+     * 색인용 : term -> 등장 횟수
+     */
+    public static Map<Integer, Integer> termFrequencies(String text) {
+        Map<Integer, Integer> terms = new HashMap<>();
+        if (text == null) {
+            return terms;
+        }
+        forEachRun(normalize(text), (run, from, to) -> {
+            for (int i = from; i < to - 1; i++) {
+                terms.merge(term(run.charAt(i), run.charAt(i + 1)), 1, Integer::sum);
+            }
+            terms.merge(term(run.charAt(to - 1), (char) 0), 1, Integer::sum);
+        });
+        return terms;
+    }
+
+    /**
+     * 검색용 : 2글자 이상 구간은 2-gram, 한 글자 구간은 해당 글자로 시작하는 모든 term (중복 제거, 최대 64개)
+     */
+    public static List<QueryTerm> queryTerms(String query) {
+        Set<QueryTerm> terms = new LinkedHashSet<>();
+        if (query == null) {
+            return List.of();
+        }
+        forEachRun(normalize(query), (run, from, to) -> {
+            if (to - from == 1) {
+                int first = term(run.charAt(from), (char) 0);
+                terms.add(new QueryTerm(first, first | 0xFFFF));
+                return;
+            }
+            for (int i = from; i < to - 1; i++) {
+                int bigram = term(run.charAt(i), run.charAt(i + 1));
+                terms.add(new QueryTerm(bigram, bigram));
+            }
+        });
+        return terms.stream().limit(Long.SIZE).toList();
+    }
+
+    /**
+     * 색인된 term 빈도와 검색 term 비교 : [일치한 검색 term bit mask, term 빈도 합], 일치하지 않으면 null
+     */
+    public static long[] match(Map<Integer, Integer> terms, List<QueryTerm> query) {
+        long[] hit = null;
+        for (Map.Entry<Integer, Integer> entry : terms.entrySet()) {
+            int term = entry.getKey();
+            for (int i = 0; i < query.size(); i++) {
+                if (term >= query.get(i).from() && term <= query.get(i).to()) {
+                    if (hit == null) {
+                        hit = new long[2];
+                    }
+                    hit[0] |= 1L << i;
+                    hit[1] += entry.getValue();
+                }
+            }
+        }
+        return hit;
+    }
+
+    private static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    private static int term(char first, char second) {
+        return (first << 16) | second;
+    }
+
+    private static void forEachRun(String text, RunConsumer consumer) {
+        int from = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inRun = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inRun && from < 0) {
+                from = i;
+            } else if (!inRun && from >= 0) {
+                consumer.accept(text, from, i);
+                from = -1;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RunConsumer {
+        void accept(String text, int from, int to);
+    }
+
+    /**
+     * 검색 term 범위 [from, to] (2-gram 은 from == to)
+     */
+    public record QueryTerm(int from, int to) {
+    }
+}
@@ -0,0 +1,149 @@
+package jungle.spaceship.chat.search;
+
+import jungle.spaceship.chat.entity.Chat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 채팅 검색 역색인 (채팅방별로 로컬 디스크 {chat.search.dir}/{roomId}/ 에 저장)
+ * - DB 에 저장된 메시지를 색인 (ChatWriteBehindFlusher 가 커밋 후 추가, 다른 서버가 저장한 메시지는 검색 시 DB 에서 따라잡음)
+ * - 오래 쓰지 않은 채팅방 색인은 디스크에 저장하고 메모리에서 내림 (다음에 쓸 때 디스크에서 다시 엶)
+ */
+@Slf4j
+@Component
+public class ChatSearchIndex implements DisposableBean {
+
+    private final Path baseDir;
+    private final int memtableSize;
+    private final Map<Long, RoomSearchIndex> rooms = new ConcurrentHashMap<>();
+
+    public ChatSearchIndex(@Value("${chat.search.dir:./data/chat-search}") String baseDir,
+                           @Value("${chat.search.memtable-size:1000}") int memtableSize) {
+        this.baseDir = Paths.get(baseDir);
+        this.memtableSize = memtableSize;
+    }
+
+    /**
+     * 저장된 메시지 색인 (메시지가 일정 개수 쌓인 채팅방은 디스크 조각으로 저장)
+     */
+    public void add(Collection<Chat> chats) {
+        Map<Long, List<Chat>> byRoom = chats.stream()
+                .filter(chat -> chat.getRoomId() != null && chat.getChat_Id() != null)
+                .collect(Collectors.groupingBy(Chat::getRoomId));
+        byRoom.forEach((roomId, roomChats) -> {
+            RoomSearchIndex index = room(roomId);
+            for (Chat chat : roomChats) {
+                // 그 사이 메모리에서 내려간 색인이면 다시 열어서 추가
+                while (!index.add(chat.getChat_Id(), chat.getContent())) {
+                    index = room(roomId);
+                }
+            }
+            if (index.pending() >= memtableSize) {
+                flush(roomId, index);
+            }
+        });
+    }
+
+    /**
+     * chatId -> [일치한 term bit mask, term 빈도 합]
+     */
+    public Map<Long, long[]> search(Long roomId, List<BigramTokenizer.QueryTerm> query) {
+        return room(roomId).search(query);
+    }
+
+    /**
+     * 다른 서버가 저장한 메시지를 DB 에서 따라잡을 시작 chatId, 최근에 따라잡았다면 null
+     */
+    public Long catchUpFrom(Long roomId, long lagIds, long intervalMillis, long now) {
+        RoomSearchIndex index = room(roomId);
+        if (now - index.lastCatchUp() < intervalMillis) {
+            return null;
+        }
+        return index.catchUpFrom(lagIds);
+    }
+
+    public void caughtUp(Long roomId, long chatId, long now) {
+        room(roomId).caughtUp(chatId, now);
+    }
+
+    /**
+     * 메모리에 열려 있는 채팅방 Id
+     */
+    public Set<Long> openRooms() {
+        return Set.copyOf(rooms.keySet());
+    }
+
+    /**
+     * 중복 색인 확인용으로 보관 중인 chatId 수 (열려 있지 않으면 0)
+     */
+    public int recentSize(Long roomId) {
+        RoomSearchIndex index = rooms.get(roomId);
+        return index == null ? 0 : index.recentSize();
+    }
+
+    /**
+     * idleBefore 이후로 색인/검색하지 않은 채팅방 색인을 디스크에 저장하고 메모리에서 내림
+     */
+    public void evictIfIdle(Long roomId, long idleBefore) {
+        rooms.computeIfPresent(roomId, (id, index) -> {
+            if (index.lastUsed() >= idleBefore) {
+                return index;
+            }
+            try {
+                index.close();
+                return null;
+            } catch (IOException e) {
+                log.error("검색 색인 저장 실패 : roomId={}", id, e);
+                return index;
+            }
+        });
+    }
+
+    public boolean isIdle(Long roomId, long idleBefore) {
+        RoomSearchIndex index = rooms.get(roomId);
+        return index != null && index.lastUsed() < idleBefore;
+    }
+
+    /**
+     * 메모리에만 있는 색인을 주기적으로 디스크에 저장
+     */
+    @Scheduled(fixedDelayString = "${chat.search.flush-interval-ms:60000}")
+    public void flushAll() {
+        rooms.forEach(this::flush);
+    }
+
+    private void flush(Long roomId, RoomSearchIndex index) {
+        try {
+            index.flush();
+        } catch (IOException e) {
+            // memtable 은 그대로 남아 다음 주기에 다시 저장
+            log.error("검색 색인 저장 실패 : roomId={}", roomId, e);
+        }
+    }
+
+    private RoomSearchIndex room(Long roomId) {
+        return rooms.computeIfAbsent(roomId, id -> {
+            try {
+                return RoomSearchIndex.open(baseDir.resolve(id.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("검색 색인을 열 수 없습니다 : roomId=" + id, e);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        flushAll();
+    }
+}
@@ -0,0 +1,186 @@
+package jungle.spaceship.chat.search;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * 채팅방 하나의 검색 색인
+ * - 새 메시지는 메모리(memtable)에 모았다가 일정 개수가 되면 디스크 조각(SearchSegment)으로 저장
+ * - 조각이 많아지면 작은 조각부터 병합해 검색 시 읽는 파일 수를 제한
+ * - 닫힌(close) 색인에는 더 이상 추가하지 않음 : ChatSearchIndex 가 오래 쓰지 않은 채팅방을 메모리에서 내릴 때 사용
+ */
+@Slf4j
+final class RoomSearchIndex {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int MAX_SEGMENTS = 8;
+    private static final int MERGE_FACTOR = 4;
+
+    private final Path dir;
+    private final List<SearchSegment> segments = new CopyOnWriteArrayList<>();
+    private final Map<Long, Map<Integer, Integer>> memtable = new HashMap<>();
+    // 최근 디스크에 저장한 chatId : DB 에서 다시 따라잡은 메시지를 중복 색인하지 않기 위해 lag 범위만큼 보관
+    private final NavigableSet<Long> recent = new TreeSet<>();
+    private long recentFloor;       // 이 chatId 이하는 recent 로 중복을 확인할 수 없음
+    private long caughtUpTo;        // DB 에서 따라잡은 가장 큰 chatId
+    private long lagIds;
+    private long lastCatchUp;
+    private long nextSegment;
+    private volatile long lastUsed = System.currentTimeMillis();
+    private boolean closed;
+
+    private RoomSearchIndex(Path dir) {
+        this.dir = dir;
+    }
+
+    static RoomSearchIndex open(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        RoomSearchIndex index = new RoomSearchIndex(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path path : files.sorted().toList()) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    Files.deleteIfExists(path);
+                } else if (name.endsWith(SEGMENT_SUFFIX)) {
+                    SearchSegment segment = SearchSegment.open(path);
+                    index.segments.add(segment);
+                    index.recentFloor = Math.max(index.recentFloor, segment.maxChatId());
+                    index.nextSegment = Math.max(index.nextSegment,
+                            Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())) + 1);
+                }
+            }
+        }
+        index.caughtUpTo = index.recentFloor;
+        return index;
+    }
+
+    /**
+     * 닫힌 색인이면 false
+     */
+    synchronized boolean add(long chatId, String content) {
+        if (closed) {
+            return false;
+        }
+        if (!recent.contains(chatId) && !memtable.containsKey(chatId)) {
+            memtable.put(chatId, BigramTokenizer.termFrequencies(content));
+            lastUsed = System.currentTimeMillis();
+        }
+        return true;
+    }
+
+    synchronized int pending() {
+        return memtable.size();
+    }
+
+    /**
+     * query term 마다 일치한 메시지 : chatId -> [일치한 term bit mask, term 빈도 합]
+     */
+    Map<Long, long[]> search(List<BigramTokenizer.QueryTerm> query) {
+        lastUsed = System.currentTimeMillis();
+        Map<Long, long[]> hits = new HashMap<>();
+        for (SearchSegment segment : segments) {
+            for (int i = 0; i < query.size(); i++) {
+                long bit = 1L << i;
+                segment.forEachPosting(query.get(i), (chatId, tf) -> {
+                    long[] hit = hits.computeIfAbsent(chatId, id -> new long[2]);
+                    hit[0] |= bit;
+                    hit[1] += tf;
+                });
+            }
+        }
+        synchronized (this) {
+            memtable.forEach((chatId, terms) -> {
+                long[] match = BigramTokenizer.match(terms, query);
+                if (match != null) {
+                    long[] hit = hits.computeIfAbsent(chatId, id -> new long[2]);
+                    hit[0] |= match[0];
+                    hit[1] += match[1];
+                }
+            });
+        }
+        return hits;
+    }
+
+    /**
+     * memtable 을 디스크 조각으로 저장하고, 조각이 많으면 병합
+     */
+    synchronized void flush() throws IOException {
+        if (memtable.isEmpty()) {
+            return;
+        }
+        SearchSegment segment = SearchSegment.write(nextPath(), memtable);
+        segments.add(segment);
+        recent.addAll(memtable.keySet());
+        memtable.clear();
+        pruneRecent();
+
+        if (segments.size() > MAX_SEGMENTS) {
+            List<SearchSegment> smallest = segments.stream()
+                    .sorted(Comparator.comparingInt(SearchSegment::docCount))
+                    .limit(MERGE_FACTOR)
+                    .toList();
+            SearchSegment merged = SearchSegment.merge(nextPath(), smallest);
+            segments.add(merged);
+            segments.removeAll(smallest);
+            for (SearchSegment old : smallest) {
+                Files.deleteIfExists(old.path());
+            }
+            log.debug("검색 색인 조각 {}개 병합 : {}", smallest.size(), dir);
+        }
+    }
+
+    /**
+     * DB 에서 따라잡아야 할 시작 chatId (lagIds : 다른 서버가 늦게 저장하는 메시지를 위해 다시 살펴볼 범위)
+     */
+    synchronized long catchUpFrom(long lagIds) {
+        this.lagIds = lagIds;
+        return Math.max(recentFloor, caughtUpTo - lagIds);
+    }
+
+    synchronized void caughtUp(long chatId, long now) {
+        caughtUpTo = Math.max(caughtUpTo, chatId);
+        lastCatchUp = now;
+        pruneRecent();
+    }
+
+    synchronized long lastCatchUp() {
+        return lastCatchUp;
+    }
+
+    synchronized int recentSize() {
+        return recent.size();
+    }
+
+    long lastUsed() {
+        return lastUsed;
+    }
+
+    /**
+     * memtable 을 저장하고 닫음 (저장에 실패하면 닫지 않음)
+     */
+    synchronized void close() throws IOException {
+        flush();
+        closed = true;
+    }
+
+    /**
+     * DB 에서 따라잡은 범위(lag 제외) 아래의 chatId 는 다시 색인될 일이 없으므로 recent 에서 제거
+     * - 검색하지 않는 채팅방은 따라잡기가 일어나지 않으므로 ChatSearchService 가 recent 가 커지면 따라잡기를 요청
+     */
+    private void pruneRecent() {
+        long bound = caughtUpTo - lagIds;
+        if (bound > recentFloor) {
+            recent.headSet(bound, true).clear();
+            recentFloor = bound;
+        }
+    }
+
+    private Path nextPath() {
+        return dir.resolve(String.format("%019d%s", nextSegment++, SEGMENT_SUFFIX));
+    }
+}
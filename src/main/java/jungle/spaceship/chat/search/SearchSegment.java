@@ -0,0 +1,210 @@
+package jungle.spaceship.chat.search;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * 디스크에 저장된 변경 불가능한 색인 조각 (메모리 매핑으로 읽음)
+ *
+ * [magic 4B][version 4B][minChatId 8B][maxChatId 8B][docCount 4B][termCount 4B]
+ * [term table : termCount x (term 4B, postingStart 4B, postingCount 4B)]  (term 오름차순 -> 이진 탐색)
+ * [postings : (chatId 8B, tf 4B) ...]
+ */
+final class SearchSegment {
+
+    private static final int MAGIC = 0x43534958;    // "CSIX"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int TERM_ENTRY_SIZE = 12;
+    private static final int POSTING_SIZE = 12;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final long minChatId;
+    private final long maxChatId;
+    private final int docCount;
+    private final int termCount;
+    private final int postingsOffset;
+
+    private SearchSegment(Path path, MappedByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("검색 색인 형식이 아닙니다 : " + path);
+        }
+        this.minChatId = buffer.getLong(8);
+        this.maxChatId = buffer.getLong(16);
+        this.docCount = buffer.getInt(24);
+        this.termCount = buffer.getInt(28);
+        this.postingsOffset = HEADER_SIZE + termCount * TERM_ENTRY_SIZE;
+    }
+
+    static SearchSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // 매핑은 채널을 닫아도 유지됨
+            return new SearchSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * 메시지별 term 빈도로 새 조각 작성 (임시 파일에 쓴 뒤 이름을 바꿔 원자적으로 생성)
+     */
+    static SearchSegment write(Path path, Map<Long, Map<Integer, Integer>> docs) throws IOException {
+        TreeMap<Integer, List<long[]>> postings = new TreeMap<>();
+        docs.forEach((chatId, terms) -> terms.forEach((term, tf) ->
+                postings.computeIfAbsent(term, t -> new ArrayList<>()).add(new long[]{chatId, tf})));
+
+        long minChatId = docs.keySet().stream().mapToLong(Long::longValue).min().orElse(0);
+        long maxChatId = docs.keySet().stream().mapToLong(Long::longValue).max().orElse(0);
+        return write(path, minChatId, maxChatId, docs.size(), postings.size(), out -> {
+            int start = 0;
+            for (Map.Entry<Integer, List<long[]>> entry : postings.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeInt(start);
+                out.writeInt(entry.getValue().size());
+                start += entry.getValue().size();
+            }
+            for (List<long[]> list : postings.values()) {
+                for (long[] posting : list) {
+                    out.writeLong(posting[0]);
+                    out.writeInt((int) posting[1]);
+                }
+            }
+        });
+    }
+
+    /**
+     * 여러 조각을 하나로 병합 (term 별로 각 조각의 posting 을 이어 붙임)
+     */
+    static SearchSegment merge(Path path, List<SearchSegment> segments) throws IOException {
+        TreeMap<Integer, Integer> counts = new TreeMap<>();
+        long minChatId = Long.MAX_VALUE;
+        long maxChatId = 0;
+        int docCount = 0;
+        for (SearchSegment segment : segments) {
+            for (int i = 0; i < segment.termCount; i++) {
+                counts.merge(segment.termAt(i), segment.postingCountAt(i), Integer::sum);
+            }
+            minChatId = Math.min(minChatId, segment.minChatId);
+            maxChatId = Math.max(maxChatId, segment.maxChatId);
+            docCount += segment.docCount;
+        }
+
+        return write(path, minChatId, maxChatId, docCount, counts.size(), out -> {
+            int start = 0;
+            for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeInt(start);
+                out.writeInt(entry.getValue());
+                start += entry.getValue();
+            }
+            for (int term : counts.keySet()) {
+                for (SearchSegment segment : segments) {
+                    int index = segment.find(term);
+                    if (index < 0) {
+                        continue;
+                    }
+                    int from = segment.postingStartAt(index);
+                    int to = from + segment.postingCountAt(index);
+                    for (int p = from; p < to; p++) {
+                        out.writeLong(segment.chatIdAt(p));
+                        out.writeInt(segment.tfAt(p));
+                    }
+                }
+            }
+        });
+    }
+
+    private static SearchSegment write(Path path, long minChatId, long maxChatId, int docCount, int termCount,
+                                       SegmentBody body) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(minChatId);
+            out.writeLong(maxChatId);
+            out.writeInt(docCount);
+            out.writeInt(termCount);
+            body.write(out);
+        }
+        Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE);
+        return open(path);
+    }
+
+    @FunctionalInterface
+    private interface SegmentBody {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * query term 범위에 해당하는 posting 마다 consumer 호출
+     */
+    void forEachPosting(BigramTokenizer.QueryTerm query, PostingConsumer consumer) {
+        for (int i = lowerBound(query.from()); i < termCount && termAt(i) <= query.to(); i++) {
+            int from = postingStartAt(i);
+            int to = from + postingCountAt(i);
+            for (int p = from; p < to; p++) {
+                consumer.accept(chatIdAt(p), tfAt(p));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface PostingConsumer {
+        void accept(long chatId, int tf);
+    }
+
+    private int find(int term) {
+        int index = lowerBound(term);
+        return index < termCount && termAt(index) == term ? index : -1;
+    }
+
+    private int lowerBound(int term) {
+        int low = 0;
+        int high = termCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (termAt(mid) < term) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int termAt(int index) {
+        return buffer.getInt(HEADER_SIZE + index * TERM_ENTRY_SIZE);
+    }
+
+    private int postingStartAt(int index) {
+        return buffer.getInt(HEADER_SIZE + index * TERM_ENTRY_SIZE + 4);
+    }
+
+    private int postingCountAt(int index) {
+        return buffer.getInt(HEADER_SIZE + index * TERM_ENTRY_SIZE + 8);
+    }
+
+    private long chatIdAt(int posting) {
+        return buffer.getLong(postingsOffset + posting * POSTING_SIZE);
+    }
+
+    private int tfAt(int posting) {
+        return buffer.getInt(postingsOffset + posting * POSTING_SIZE + 8);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long maxChatId() {
+        return maxChatId;
+    }
+
+    int docCount() {
+        return docCount;
+    }
+}
@@ -0,0 +1,160 @@
+package jungle.spaceship.chat.service;
+
+import jungle.spaceship.chat.entity.Chat;
+import jungle.spaceship.chat.entity.ChatArchive;
+import jungle.spaceship.chat.entity.ChatRoom;
+import jungle.spaceship.chat.repository.ChatArchiveRepository;
+import jungle.spaceship.chat.repository.ChatBlockCodec;
+import jungle.spaceship.chat.repository.ChatRepository;
+import jungle.spaceship.chat.repository.ChatRoomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.*;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 오래된 채팅 보관 (cold storage)
+ * - archive-after-days 가 지난 메시지를 채팅방/날짜별 압축 블록(chat_archive)으로 옮기고 chat 테이블에서 삭제
+ *   -> chat 테이블과 인덱스를 최근 메시지 크기로 유지
+ * - 최근 메시지를 다 읽은 뒤의 커서 페이징/검색 결과 조회는 보관 블록을 풀어서 이어서 반환
+ * - 이전 시퀀스 Id 메시지는 Id 로 날짜를 알 수 없으므로 옮기지 않고 chat 테이블에 남김 (보관 블록보다 오래된 메시지로 조회)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatArchiveService {
+
+    private static final String LOCK_KEY = "chat:archive:lock";
+    private static final int ARCHIVE_BATCH_SIZE = 5000;     // 한 트랜잭션에서 옮길 최대 메시지 수
+    private static final int BLOCK_FETCH_SIZE = 3;          // 커서 페이징 시 한 번에 읽을 블록 수
+
+    private final ChatRepository chatRepository;
+    private final ChatArchiveRepository chatArchiveRepository;
+    private final ChatRoomRepository chatRoomRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${chat.archive.after-days:90}")
+    private long archiveAfterDays;
+
+    /**
+     * 보관 기간이 지난 메시지 이동 (Redis 락으로 한 서버만 수행)
+     */
+    @Scheduled(cron = "${chat.archive.cron:0 30 4 * * *}")
+    public void archive() {
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", Duration.ofHours(1)))) {
+            return;
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        long cutoffMillis = LocalDate.now(zone).minusDays(archiveAfterDays).atStartOfDay(zone).toInstant().toEpochMilli();
+        long cutoffId = ChatIdGenerator.minIdAt(cutoffMillis);
+
+        long archived = 0;
+        for (ChatRoom room : chatRoomRepository.findAll()) {
+            int moved;
+            do {
+                moved = archiveBatch(room.getRoomId(), cutoffId, zone);
+                archived += moved;
+            } while (moved == ARCHIVE_BATCH_SIZE);
+        }
+        log.info("채팅 메시지 {}건 보관", archived);
+    }
+
+    private int archiveBatch(Long roomId, long cutoffId, ZoneId zone) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Chat> chats = chatRepository.findMessagesBetween(roomId, ChatIdGenerator.MIN_TIME_ORDERED_ID, cutoffId, ARCHIVE_BATCH_SIZE);
+            if (chats.isEmpty()) {
+                return 0;
+            }
+            Map<LocalDate, List<Chat>> byDay = chats.stream()
+                    .collect(Collectors.groupingBy(chat -> dayOf(chat.getChat_Id(), zone)));
+            byDay.forEach((day, dayChats) -> {
+                ChatArchive archive = chatArchiveRepository.findByRoomIdAndDay(roomId, day)
+                        .orElseGet(() -> new ChatArchive(roomId, day));
+                merge(archive, dayChats);
+                chatArchiveRepository.save(archive);
+            });
+            chatRepository.deleteAllByIdInBatch(chats.stream().map(Chat::getChat_Id).toList());
+            return chats.size();
+        });
+        return moved == null ? 0 : moved;
+    }
+
+    /**
+     * 커서(chatId) 이전 보관 메시지를 최신순으로 최대 num 개
+     */
+    public List<Chat> findBefore(Long roomId, long before, int num) {
+        List<Chat> result = new ArrayList<>();
+        long cursor = before;
+        while (result.size() < num) {
+            List<ChatArchive> blocks = chatArchiveRepository.findBlocksBefore(roomId, cursor, BLOCK_FETCH_SIZE);
+            for (ChatArchive block : blocks) {
+                List<Chat> chats = ChatBlockCodec.decode(block.getBlock());
+                for (int i = chats.size() - 1; i >= 0 && result.size() < num; i--) {
+                    if (chats.get(i).getChat_Id() < before) {
+                        result.add(chats.get(i));
+                    }
+                }
+                cursor = block.getFirstChatId();
+            }
+            if (blocks.size() < BLOCK_FETCH_SIZE) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 채팅방의 보관 메시지를 오래된 블록부터 차례로 전달 (검색 색인을 새로 만들 때 사용)
+     */
+    public void forEachArchived(Long roomId, Consumer<List<Chat>> consumer) {
+        long after = Long.MIN_VALUE;
+        List<ChatArchive> blocks;
+        do {
+            blocks = chatArchiveRepository.findTop30ByRoomIdAndFirstChatIdGreaterThanOrderByFirstChatId(roomId, after);
+            for (ChatArchive block : blocks) {
+                consumer.accept(ChatBlockCodec.decode(block.getBlock()));
+                after = block.getFirstChatId();
+            }
+        } while (!blocks.isEmpty());
+    }
+
+    /**
+     * chatId 로 보관 메시지 조회 (검색 결과처럼 chat 테이블에 없는 메시지)
+     */
+    public Map<Long, Chat> findByIds(Long roomId, Collection<Long> chatIds) {
+        Map<Long, Chat> found = new HashMap<>();
+        for (Long chatId : chatIds) {
+            if (found.containsKey(chatId)) {
+                continue;
+            }
+            chatArchiveRepository.findBlockContaining(roomId, chatId).ifPresent(block ->
+                    ChatBlockCodec.decode(block.getBlock()).stream()
+                            .filter(chat -> chatIds.contains(chat.getChat_Id()))
+                            .forEach(chat -> found.put(chat.getChat_Id(), chat)));
+        }
+        return found;
+    }
+
+    private static void merge(ChatArchive archive, List<Chat> chats) {
+        TreeMap<Long, Chat> merged = new TreeMap<>();
+        if (archive.getBlock() != null) {
+            ChatBlockCodec.decode(archive.getBlock()).forEach(chat -> merged.put(chat.getChat_Id(), chat));
+        }
+        chats.forEach(chat -> merged.putIfAbsent(chat.getChat_Id(), chat));
+        archive.update(ChatBlockCodec.encode(new ArrayList<>(merged.values())),
+                merged.firstKey(), merged.lastKey(), merged.size());
+    }
+
+    private static LocalDate dayOf(long chatId, ZoneId zone) {
+        return Instant.ofEpochMilli(ChatIdGenerator.epochMillisOf(chatId)).atZone(zone).toLocalDate();
+    }
+}
@@ -0,0 +1,114 @@
+package jungle.spaceship.chat.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jungle.spaceship.chat.controller.dto.ChatEphemeralDto;
+import jungle.spaceship.member.entity.MemberDetail;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 입력 중/보는 중 같은 일시적인 신호 전달
+ * - ChatService 의 저장 경로(Redis, MySQL)를 거치지 않고 채팅방 구독자에게 바로 전달
+ * - 회원별 초당 전송 수 제한, 같은 신호가 dedupe-ms 안에 반복되면 무시
+ */
+@Slf4j
+@Service
+public class ChatEphemeralService {
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final ChatRoomMembership chatRoomMembership;
+    private final int ratePerSecond;
+    private final long dedupeMillis;
+
+    // 이메일 -> 전송 수 제한 상태, "이메일|채팅방 Id" -> 마지막으로 전달한 신호
+    private final Map<String, RateWindow> rates = new ConcurrentHashMap<>();
+    private final Map<String, LastSignal> lastSignals = new ConcurrentHashMap<>();
+
+    private final Counter sent;
+    private final Counter rateLimited;
+    private final Counter duplicated;
+
+    public ChatEphemeralService(SimpMessageSendingOperations messagingTemplate,
+                                ChatRoomMembership chatRoomMembership,
+                                MeterRegistry meterRegistry,
+                                @Value("${chat.ephemeral.rate-per-second:5}") int ratePerSecond,
+                                @Value("${chat.ephemeral.dedupe-ms:1000}") long dedupeMillis) {
+        this.messagingTemplate = messagingTemplate;
+        this.chatRoomMembership = chatRoomMembership;
+        this.ratePerSecond = ratePerSecond;
+        this.dedupeMillis = dedupeMillis;
+        this.sent = meterRegistry.counter("chat.ephemeral", "result", "sent");
+        this.rateLimited = meterRegistry.counter("chat.ephemeral", "result", "rate_limited");
+        this.duplicated = meterRegistry.counter("chat.ephemeral", "result", "duplicate");
+    }
+
+    public void send(ChatEphemeralDto signal, Principal principal) {
+        if (signal.getRoomId() == null || signal.getType() == null) {
+            throw new IllegalArgumentException("채팅방 Id 또는 신호 종류가 없습니다.");
+        }
+        MemberDetail member = chatRoomMembership.check(signal.getRoomId(), principal);
+
+        String email = member.getUsername();
+        long now = System.currentTimeMillis();
+        if (!rates.computeIfAbsent(email, key -> new RateWindow()).tryAcquire(now, ratePerSecond)) {
+            rateLimited.increment();
+            return;
+        }
+        if (isDuplicate(email + "|" + signal.getRoomId(), signal.getType(), now)) {
+            duplicated.increment();
+            return;
+        }
+
+        signal.setSender(email);
+        signal.setSentAt(now);
+        messagingTemplate.convertAndSend("/sub/chat/room/" + signal.getRoomId() + "/ephemeral", signal);
+        sent.increment();
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Principal user = event.getUser();
+        if (user != null) {
+            String prefix = user.getName() + "|";
+            rates.remove(user.getName());
+            lastSignals.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    private boolean isDuplicate(String key, ChatEphemeralDto.Type type, long now) {
+        boolean[] duplicate = new boolean[1];
+        lastSignals.compute(key, (k, last) -> {
+            if (last != null && last.type == type && now - last.at < dedupeMillis) {
+                duplicate[0] = true;
+                return last;
+            }
+            return new LastSignal(type, now);
+        });
+        return duplicate[0];
+    }
+
+    private static final class RateWindow {
+        private long windowStart;
+        private int count;
+
+        private synchronized boolean tryAcquire(long now, int limit) {
+            if (now - windowStart >= 1000) {
+                windowStart = now;
+                count = 0;
+            }
+            return ++count <= limit;
+        }
+    }
+
+    private record LastSignal(ChatEphemeralDto.Type type, long at) {
+    }
+}
@@ -0,0 +1,192 @@
+package jungle.spaceship.chat.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅 메시지 Id 발급
+ * - DB 에 쓰기 전(캐시 저장 시점)에 Id 가 필요하므로 서버에서 직접 발급
+ * - Id 순서가 곧 시간 순서여야 캐시/DB 를 이어서 커서 페이징할 수 있으므로 시간 기반으로 생성
+ *   [ 2023-01-01 이후 경과 ms (41bit) | 서버 번호 (4bit) | ms 내 순번 (8bit) ]
+ * - 53bit 이내라 JavaScript 클라이언트에서도 정밀도 손실 없음, 기존 시퀀스 Id 보다 항상 큼
+ * - 서버 번호는 Redis 에서 만료 시간을 두고 빌려 쓰고(chat:id:node:{번호} -> 서버 토큰) 주기적으로 연장
+ *   빈 번호가 없으면 시작하지 않고, 연장하지 못해 임대가 끝나면 다른 서버와 겹칠 수 있으므로 Id 를 발급하지 않음
+ *   임대가 끝났거나 다른 서버가 번호를 가져갔으면 다음 연장 주기에 빈 번호를 다시 빌려 이어서 발급
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatIdGenerator {
+
+    private static final String NODE_KEY_PREFIX = "chat:id:node:";
+    private static final long EPOCH = 1672498800000L;   // 2023-01-01T00:00+09:00
+    private static final int NODE_BITS = 4;
+    private static final int SEQUENCE_BITS = 8;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long NODE_COUNT = 1L << NODE_BITS;
+
+    /**
+     * 시간 기반 Id 의 하한 (EPOCH 다음 날 0시) : 이보다 작은 Id 는 이전 DB 시퀀스로 발급된 메시지이므로 Id 에서 시각을 알 수 없음
+     */
+    public static final long MIN_TIME_ORDERED_ID = minIdAt(EPOCH + TimeUnit.DAYS.toMillis(1));
+
+    /**
+     * KEYS[1] : 서버 번호 키, ARGV[1] : 서버 토큰, ARGV[2] : 임대 시간(ms)
+     * 내가 빌린 번호이거나 (Redis 재시작 등으로) 비어 있으면 다시 임대
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "local owner = redis.call('GET', KEYS[1]) " +
+            "if owner == ARGV[1] or not owner then " +
+            "  redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) " +
+            "  return 1 " +
+            "end " +
+            "return 0", Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${chat.id.lease-ms:30000}")
+    private long leaseMs;
+
+    private final String token = UUID.randomUUID().toString();
+    private final ScheduledExecutorService heartbeat =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("chat-id-lease-"));
+    private volatile long leaseExpiresAt;
+
+    private volatile long node;
+    private long lastMillis = -1;
+    private long sequence;
+
+    /**
+     * 비어 있는 서버 번호를 임대 (16대가 모두 쓰고 있으면 시작 실패)
+     */
+    @PostConstruct
+    private void init() {
+        if (!acquire()) {
+            throw new IllegalStateException("사용 가능한 채팅 Id 서버 번호가 없습니다. (최대 " + NODE_COUNT + "대)");
+        }
+        heartbeat.scheduleWithFixedDelay(this::renew, leaseMs / 3, leaseMs / 3, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 빈 서버 번호 하나를 임대, 모두 쓰고 있으면 false
+     */
+    private boolean acquire() {
+        long start = ThreadLocalRandom.current().nextLong(NODE_COUNT);
+        for (long i = 0; i < NODE_COUNT; i++) {
+            long candidate = (start + i) % NODE_COUNT;
+            long requestedAt = System.currentTimeMillis();
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(nodeKey(candidate), token, leaseMs, TimeUnit.MILLISECONDS))) {
+                leased(candidate, requestedAt + leaseMs);
+                log.info("채팅 Id 서버 번호 : {}", candidate);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 임대 연장 : 만료 시각은 요청 전 시각 기준으로 잡아 Redis 보다 먼저 끝나도록 함
+     * - 다른 서버가 번호를 가져갔거나 연장하지 못한 채 임대가 끝났으면 빈 번호를 다시 임대
+     */
+    private void renew() {
+        long requestedAt = System.currentTimeMillis();
+        long current = node;
+        try {
+            Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(nodeKey(current)), token, String.valueOf(leaseMs));
+            if (Long.valueOf(1).equals(renewed)) {
+                leaseExpiresAt = requestedAt + leaseMs;
+                return;
+            }
+            log.error("채팅 Id 서버 번호 {} 를 다른 서버가 쓰고 있어 연장하지 못했습니다.", current);
+            leaseExpiresAt = 0;
+        } catch (Exception e) {
+            log.warn("채팅 Id 서버 번호 {} 연장 실패 : {}", current, e.getMessage());
+            if (System.currentTimeMillis() < leaseExpiresAt) {
+                return;
+            }
+        }
+        try {
+            if (!acquire()) {
+                log.error("사용 가능한 채팅 Id 서버 번호가 없어 Id 를 발급하지 못합니다.");
+            }
+        } catch (Exception e) {
+            log.warn("채팅 Id 서버 번호 재임대 실패 : {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 발급 중인 Id 와 섞이지 않도록 잠근 채로 서버 번호와 만료 시각을 바꿈
+     */
+    private synchronized void leased(long node, long expiresAt) {
+        this.node = node;
+        this.leaseExpiresAt = expiresAt;
+    }
+
+    @PreDestroy
+    private void release() {
+        heartbeat.shutdownNow();
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(nodeKey(node)), token);
+        } catch (Exception e) {
+            log.warn("채팅 Id 서버 번호 {} 반납 실패 : {}", node, e.getMessage());
+        }
+    }
+
+    /**
+     * Id 에 담긴 발급 시각 (epoch ms)
+     */
+    public static long epochMillisOf(long chatId) {
+        return (chatId >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    /**
+     * 해당 시각(epoch ms)에 발급될 수 있는 가장 작은 Id
+     */
+    public static long minIdAt(long epochMillis) {
+        return (epochMillis - EPOCH) << (NODE_BITS + SEQUENCE_BITS);
+    }
+
+    public synchronized long nextId() {
+        if (System.currentTimeMillis() >= leaseExpiresAt) {
+            throw new IllegalStateException("채팅 Id 서버 번호 임대가 만료되었습니다.");
+        }
+        long now = Math.max(System.currentTimeMillis(), lastMillis);
+        if (now == lastMillis) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                // 같은 ms 에 순번을 모두 썼다면 다음 ms 로 넘김
+                now = lastMillis + 1;
+                while (System.currentTimeMillis() < now) {
+                    Thread.onSpinWait();
+                }
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+        return ((now - EPOCH) << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    private static String nodeKey(long node) {
+        return NODE_KEY_PREFIX + node;
+    }
+}
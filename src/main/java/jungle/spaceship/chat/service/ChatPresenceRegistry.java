@@ -0,0 +1,163 @@
+package jungle.spaceship.chat.service;
+
+import jungle.spaceship.chat.repository.ChatPresence;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.security.Principal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 채팅방 접속자 관리
+ * - /sub/chat/room/{roomId} 구독(SUBSCRIBE) 중인 사용자를 채팅방을 보고 있는 것으로 간주
+ * - 이 서버의 접속자는 메모리에서 관리하고, ChatPresence(Redis)에 heartbeat 로 공유해 다른 서버에서도 조회
+ */
+@Slf4j
+@Component
+public class ChatPresenceRegistry {
+
+    private static final String ROOM_DESTINATION_PREFIX = "/sub/chat/room/";
+
+    private final ChatPresence chatPresence;
+    private final long ttlMillis;
+    private final String node = UUID.randomUUID().toString();
+
+    // 세션 Id -> 세션 구독 정보, 채팅방 Id -> (이메일 -> 구독 수)
+    private final Map<String, SessionPresence> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, Map<String, Integer>> rooms = new ConcurrentHashMap<>();
+
+    public ChatPresenceRegistry(ChatPresence chatPresence,
+                                @Value("${chat.presence.heartbeat-ms:10000}") long heartbeatMillis) {
+        this.chatPresence = chatPresence;
+        // heartbeat 를 두 번 놓쳐도 접속이 유지되도록 여유를 둠
+        this.ttlMillis = heartbeatMillis * 3;
+    }
+
+    /**
+     * 채팅방을 보고 있는 사용자 이메일 (모든 서버 기준)
+     */
+    public Set<String> presentMembers(Long roomId) {
+        try {
+            return chatPresence.present(roomId, System.currentTimeMillis());
+        } catch (Exception e) {
+            // 조회 실패 시 이 서버 기준으로만 판단 (알림을 더 보내는 쪽으로 실패)
+            log.warn("채팅방 접속자 조회 실패 : roomId={}", roomId, e);
+            Map<String, Integer> local = rooms.get(roomId);
+            return local == null ? Collections.emptySet() : Set.copyOf(local.keySet());
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Long roomId = roomIdOf(accessor.getDestination());
+        Principal user = event.getUser();
+        if (roomId == null || user == null) {
+            return;
+        }
+        sessions.computeIfAbsent(accessor.getSessionId(), id -> new SessionPresence(user.getName()))
+                .subscriptions.put(accessor.getSubscriptionId(), roomId);
+        enter(roomId, user.getName());
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        SessionPresence session = sessions.get(accessor.getSessionId());
+        if (session == null) {
+            return;
+        }
+        Long roomId = session.subscriptions.remove(accessor.getSubscriptionId());
+        if (roomId != null) {
+            leave(roomId, session.email);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        SessionPresence session = sessions.remove(event.getSessionId());
+        if (session != null) {
+            session.subscriptions.values().forEach(roomId -> leave(roomId, session.email));
+        }
+    }
+
+    /**
+     * 이 서버 접속자의 만료 시각 갱신
+     */
+    @Scheduled(fixedDelayString = "${chat.presence.heartbeat-ms:10000}")
+    public void heartbeat() {
+        Map<Long, Set<String>> snapshot = new HashMap<>();
+        rooms.forEach((roomId, members) -> snapshot.put(roomId, Set.copyOf(members.keySet())));
+        long now = System.currentTimeMillis();
+        try {
+            chatPresence.refresh(snapshot, node, now, now + ttlMillis);
+        } catch (Exception e) {
+            log.warn("채팅방 접속자 heartbeat 실패", e);
+        }
+    }
+
+    /**
+     * 메모리 갱신은 compute 안에서, Redis 기록은 compute 밖에서 (Redis 응답을 기다리는 동안 같은 채팅방의 다른 구독 처리를 막지 않음)
+     * - 입장/퇴장 기록의 순서가 뒤바뀌어도 다음 heartbeat 가 메모리 기준으로 덮어씀
+     */
+    private void enter(Long roomId, String email) {
+        boolean[] first = new boolean[1];
+        rooms.compute(roomId, (id, members) -> {
+            Map<String, Integer> roomMembers = members == null ? new ConcurrentHashMap<>() : members;
+            first[0] = roomMembers.merge(email, 1, Integer::sum) == 1;
+            return roomMembers;
+        });
+        if (!first[0]) {
+            return;
+        }
+        try {
+            chatPresence.enter(roomId, email, node, System.currentTimeMillis() + ttlMillis);
+        } catch (Exception e) {
+            log.warn("채팅방 입장 기록 실패 (다음 heartbeat 에 반영) : roomId={}", roomId, e);
+        }
+    }
+
+    private void leave(Long roomId, String email) {
+        boolean[] last = new boolean[1];
+        rooms.computeIfPresent(roomId, (id, members) -> {
+            last[0] = members.computeIfPresent(email, (key, count) -> count > 1 ? count - 1 : null) == null;
+            return members.isEmpty() ? null : members;
+        });
+        if (!last[0]) {
+            return;
+        }
+        try {
+            chatPresence.leave(roomId, email, node);
+        } catch (Exception e) {
+            log.warn("채팅방 퇴장 기록 실패 (만료 시각이 지나면 제거) : roomId={}", roomId, e);
+        }
+    }
+
+    private static Long roomIdOf(String destination) {
+        if (destination == null || !destination.startsWith(ROOM_DESTINATION_PREFIX)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(destination.substring(ROOM_DESTINATION_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class SessionPresence {
+        private final String email;
+        private final Map<String, Long> subscriptions = new ConcurrentHashMap<>();
+
+        private SessionPresence(String email) {
+            this.email = email;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package jungle.spaceship.chat.service;
+
+import jungle.spaceship.chat.controller.dto.ChatReadDto;
+import jungle.spaceship.chat.controller.dto.ChatUnreadResponseDto;
+import jungle.spaceship.chat.entity.ChatReadCursor;
+import jungle.spaceship.chat.repository.ChatReadCursorRepository;
+import jungle.spaceship.chat.repository.ChatReadState;
+import jungle.spaceship.jwt.SecurityUtil;
+import jungle.spaceship.member.entity.Member;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.transaction.Transactional;
+import java.security.Principal;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 읽음 처리 및 안 읽은 메시지 수
+ * - 읽음 상태는 Redis(ChatReadState)에서 관리하고, DB 에는 주기적으로 마지막 읽은 메시지만 저장
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatReadService {
+
+    private static final int FLUSH_BATCH_SIZE = 1000;
+
+    private final ChatReadState chatReadState;
+    private final ChatReadCursorRepository chatReadCursorRepository;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final SecurityUtil securityUtil;
+    private final ChatRoomMembership chatRoomMembership;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 메시지 전송 시 안 읽은 메시지 수 증가 (보낸 사람은 읽은 것으로 처리)
+     */
+    public void sent(Long roomId, String email, Long chatId) {
+        chatReadState.sent(roomId, email, chatId);
+    }
+
+    /**
+     * 읽음 처리 후 채팅방에 읽음 알림 (/sub/chat/room/{roomId}/read), 채팅방의 가족만 가능
+     */
+    public void read(ChatReadDto read, Principal principal) {
+        if (read.getRoomId() == null || read.getChatId() == null) {
+            throw new IllegalArgumentException("채팅방 또는 메시지 Id 가 없습니다.");
+        }
+        String email = chatRoomMembership.check(read.getRoomId(), principal).getUsername();
+        if (chatReadState.read(read.getRoomId(), email, read.getChatId())) {
+            read.setReader(email);
+            messagingTemplate.convertAndSend("/sub/chat/room/" + read.getRoomId() + "/read", read);
+        }
+    }
+
+    /**
+     * 로그인한 회원의 모든 채팅방 안 읽은 메시지 수
+     */
+    @Transactional
+    public List<ChatUnreadResponseDto> getUnreadCounts() {
+        Member member = securityUtil.extractMember();
+        if (member.getFamily() == null || member.getFamily().getChatRoom() == null) {
+            return Collections.emptyList();
+        }
+        Long roomId = member.getFamily().getChatRoom().getRoomId();
+        String email = member.getEmail();
+
+        Long lastRead = chatReadState.lastRead(roomId, email);
+        if (lastRead == null) {
+            lastRead = chatReadCursorRepository.findByRoomIdAndEmail(roomId, email)
+                    .map(ChatReadCursor::getLastReadChatId)
+                    .orElse(null);
+        }
+        return List.of(new ChatUnreadResponseDto(roomId, chatReadState.unread(roomId, email), lastRead));
+    }
+
+    /**
+     * 변경된 읽음 상태를 DB 에 저장 (실패하면 다음 주기에 다시 시도)
+     */
+    @Scheduled(fixedDelayString = "${chat.read.flush-interval-ms:30000}")
+    public void flush() {
+        List<String> dirty = chatReadState.popDirty(FLUSH_BATCH_SIZE);
+        if (dirty.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> dirty.forEach(this::saveCursor));
+        } catch (RuntimeException e) {
+            chatReadState.markDirty(dirty);
+            log.warn("읽음 상태 저장 실패 : {}건", dirty.size(), e);
+        }
+    }
+
+    private void saveCursor(String entry) {
+        int separator = entry.indexOf(':');
+        Long roomId = Long.valueOf(entry.substring(0, separator));
+        String email = entry.substring(separator + 1);
+        Long lastRead = chatReadState.lastRead(roomId, email);
+        if (lastRead == null) {
+            return;
+        }
+        chatReadCursorRepository.findByRoomIdAndEmail(roomId, email)
+                .ifPresentOrElse(cursor -> cursor.read(lastRead),
+                        () -> chatReadCursorRepository.save(new ChatReadCursor(roomId, email, lastRead)));
+    }
+}
@@ -0,0 +1,63 @@
+package jungle.spaceship.chat.service;
+
+import jungle.spaceship.chat.entity.ChatRoom;
+import jungle.spaceship.member.entity.MemberDetail;
+import jungle.spaceship.member.entity.family.Family;
+import jungle.spaceship.member.repository.FamilyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * STOMP 메시지를 보낸 회원이 채팅방의 가족인지 확인
+ * - 회원의 가족 Id 는 STOMP 인증 정보(MemberDetail)에서 꺼내고, 가족의 채팅방은 바뀌지 않으므로 처음 한 번만 조회
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatRoomMembership {
+
+    private final FamilyRepository familyRepository;
+
+    // 가족 Id -> 채팅방 Id
+    private final Map<String, Long> familyRooms = new ConcurrentHashMap<>();
+
+    /**
+     * 채팅방의 회원이면 인증 정보를 반환, 아니면 IllegalArgumentException
+     */
+    public MemberDetail check(Long roomId, Principal principal) {
+        MemberDetail member = memberOf(principal);
+        if (roomId == null || !roomId.equals(roomOf(member.getFamilyId()))) {
+            throw new IllegalArgumentException("채팅방의 회원이 아닙니다.");
+        }
+        return member;
+    }
+
+    private Long roomOf(String familyId) {
+        if (familyId == null) {
+            return null;
+        }
+        Long roomId = familyRooms.get(familyId);
+        if (roomId == null) {
+            roomId = familyRepository.findById(Long.valueOf(familyId))
+                    .map(Family::getChatRoom)
+                    .map(ChatRoom::getRoomId)
+                    .orElse(null);
+            if (roomId != null) {
+                familyRooms.put(familyId, roomId);
+            }
+        }
+        return roomId;
+    }
+
+    private static MemberDetail memberOf(Principal principal) {
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof MemberDetail member) {
+            return member;
+        }
+        throw new IllegalArgumentException("인증 정보가 없습니다.");
+    }
+}
@@ -0,0 +1,209 @@
+package jungle.spaceship.chat.service;
+
+import jungle.spaceship.chat.controller.dto.ChatSearchResponseDto;
+import jungle.spaceship.chat.entity.Chat;
+import jungle.spaceship.chat.repository.ChatRepository;
+import jungle.spaceship.chat.repository.MessageCache;
+import jungle.spaceship.chat.search.BigramTokenizer;
+import jungle.spaceship.chat.search.ChatSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 채팅 검색 : 색인(ChatSearchIndex)에 더해 아직 DB 에 저장되지 않은 캐시/저장 대기 메시지도 함께 검색
+ * - 관련도 = 검색어 2-gram 중 일치한 비율, 같으면 term 빈도 합 -> 최신순
+ * - 2-gram 이 2개 이하인 짧은 검색어는 모두 일치해야 하고, 그 외에는 절반 이상 일치해야 결과에 포함
+ * - DB 에서 따라잡기(새 색인이면 전체 색인)는 별도 스레드에서 처리하고, 검색은 그때까지 색인된 메시지로 바로 응답 (indexing=true)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatSearchService implements DisposableBean {
+
+    private static final int SEARCH_MAX_SIZE = 50;
+    private static final int CATCH_UP_PAGE_SIZE = 1000;
+    private static final long CATCH_UP_INTERVAL_MS = 2000;
+
+    private final ChatSearchIndex chatSearchIndex;
+    private final ChatRepository chatRepository;
+    private final MessageCache messageMap;
+    private final ChatWriteBehindFlusher chatWriteBehindFlusher;
+    private final ChatArchiveService chatArchiveService;
+
+    @Value("${chat.cache.max-size:50}")
+    private int messageCacheMax;
+    // 다른 서버의 Write Behind 로 늦게 저장되는 메시지를 놓치지 않도록 다시 살펴볼 시간
+    @Value("${chat.search.catch-up-lag-minutes:15}")
+    private long catchUpLagMinutes;
+    @Value("${chat.search.recent-max:5000}")
+    private int recentMax;
+    @Value("${chat.search.idle-ms:1800000}")
+    private long idleMillis;
+
+    private final ExecutorService catchUpExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("chat-search-catch-up-"));
+    // 따라잡기를 기다리거나 진행 중인 채팅방
+    private final Set<Long> catchingUp = ConcurrentHashMap.newKeySet();
+
+    public ChatSearchResponseDto search(Long roomId, String q, String cursor, int limit) {
+        List<BigramTokenizer.QueryTerm> query = BigramTokenizer.queryTerms(q);
+        if (query.isEmpty()) {
+            return new ChatSearchResponseDto(List.of(), null, false, false);
+        }
+        int size = Math.max(1, Math.min(limit, SEARCH_MAX_SIZE));
+
+        boolean indexing = requestCatchUp(roomId, CATCH_UP_INTERVAL_MS, null);
+        Map<Long, long[]> hits = chatSearchIndex.search(roomId, query);
+
+        // 아직 DB 에 없는 메시지는 직접 비교
+        Map<Long, Chat> live = new HashMap<>();
+        List<Chat> unsaved = new ArrayList<>(messageMap.getRecent(roomId, messageCacheMax));
+        unsaved.addAll(chatWriteBehindFlusher.pendingOf(roomId));
+        for (Chat chat : unsaved) {
+            if (chat.getChat_Id() == null || hits.containsKey(chat.getChat_Id())) {
+                continue;
+            }
+            long[] match = BigramTokenizer.match(BigramTokenizer.termFrequencies(chat.getContent()), query);
+            if (match != null) {
+                hits.put(chat.getChat_Id(), match);
+                live.put(chat.getChat_Id(), chat);
+            }
+        }
+
+        long[] after = parseCursor(cursor);
+        List<long[]> ranked = hits.entrySet().stream()
+                .map(hit -> new long[]{score(hit.getValue(), query.size()), hit.getKey()})
+                .filter(hit -> hit[0] >= 0)
+                .filter(hit -> after == null || hit[0] < after[0] || (hit[0] == after[0] && hit[1] < after[1]))
+                .sorted(Comparator.<long[]>comparingLong(hit -> hit[0]).thenComparingLong(hit -> hit[1]).reversed())
+                .limit(size + 1L)
+                .toList();
+
+        boolean hasNext = ranked.size() > size;
+        List<long[]> page = hasNext ? ranked.subList(0, size) : ranked;
+        String nextCursor = hasNext ? page.get(size - 1)[0] + "_" + page.get(size - 1)[1] : null;
+        return new ChatSearchResponseDto(load(roomId, page, live), nextCursor, hasNext, indexing);
+    }
+
+    /**
+     * 일치 비율(천분율) * 1000 + term 빈도 합, 결과에 포함하지 않으면 -1
+     */
+    private static long score(long[] hit, int queryTerms) {
+        int matched = Long.bitCount(hit[0]);
+        boolean enough = queryTerms <= 2 ? matched == queryTerms : matched * 2 >= queryTerms;
+        if (!enough) {
+            return -1;
+        }
+        return (matched * 1000L / queryTerms) * 1000 + Math.min(hit[1], 999);
+    }
+
+    private static long[] parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] parts = cursor.split("_");
+        try {
+            return new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 검색 커서입니다 : " + cursor);
+        }
+    }
+
+    private List<Chat> load(Long roomId, List<long[]> page, Map<Long, Chat> live) {
+        List<Long> ids = page.stream().map(hit -> hit[1]).toList();
+        Map<Long, Chat> chats = chatRepository.findAllById(ids.stream().filter(id -> !live.containsKey(id)).toList())
+                .stream()
+                .collect(Collectors.toMap(Chat::getChat_Id, Function.identity()));
+        chats.putAll(live);
+        // 보관 블록으로 옮겨진 메시지
+        List<Long> archived = ids.stream().filter(id -> !chats.containsKey(id)).toList();
+        if (!archived.isEmpty()) {
+            chats.putAll(chatArchiveService.findByIds(roomId, archived));
+        }
+        return ids.stream().map(chats::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * 열려 있는 채팅방 색인 관리 (검색하지 않는 채팅방도 따라잡기를 해야 recent 를 줄일 수 있음)
+     * - recent 가 recent-max 를 넘으면 따라잡기
+     * - idle-ms 동안 쓰지 않았으면 마지막으로 따라잡은 뒤 메모리에서 내림
+     */
+    @Scheduled(fixedDelayString = "${chat.search.flush-interval-ms:60000}")
+    public void maintain() {
+        long idleBefore = System.currentTimeMillis() - idleMillis;
+        for (Long roomId : chatSearchIndex.openRooms()) {
+            if (chatSearchIndex.isIdle(roomId, idleBefore)) {
+                requestCatchUp(roomId, 0, () -> chatSearchIndex.evictIfIdle(roomId, idleBefore));
+            } else if (chatSearchIndex.recentSize(roomId) > recentMax) {
+                requestCatchUp(roomId, 0, null);
+            }
+        }
+    }
+
+    /**
+     * 따라잡기가 필요하면 별도 스레드에 맡김, 따라잡기를 기다리거나 진행 중이면 true
+     *
+     * @param then 따라잡은 뒤 실행 (따라잡기가 필요 없어도 실행)
+     */
+    private boolean requestCatchUp(Long roomId, long intervalMillis, Runnable then) {
+        long now = System.currentTimeMillis();
+        long lagIds = ChatIdGenerator.minIdAt(now) - ChatIdGenerator.minIdAt(now - TimeUnit.MINUTES.toMillis(catchUpLagMinutes));
+        Long from = chatSearchIndex.catchUpFrom(roomId, lagIds, intervalMillis, now);
+        if ((from == null && then == null) || !catchingUp.add(roomId)) {
+            return catchingUp.contains(roomId);
+        }
+        catchUpExecutor.execute(() -> {
+            try {
+                if (from != null) {
+                    catchUp(roomId, from, now);
+                }
+                if (then != null) {
+                    then.run();
+                }
+            } catch (RuntimeException e) {
+                log.warn("검색 색인 따라잡기 실패 : roomId={}", roomId, e);
+            } finally {
+                catchingUp.remove(roomId);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 이 서버의 색인에 없는(다른 서버가 저장한) 메시지를 from 이후부터 DB 에서 읽어 색인
+     */
+    private void catchUp(Long roomId, long from, long now) {
+        if (from == 0) {
+            // 새로 만드는 색인이면 chat 테이블에서 옮겨진 보관 메시지부터 색인
+            chatArchiveService.forEachArchived(roomId, chatSearchIndex::add);
+        }
+        long last = from;
+        List<Chat> chats;
+        do {
+            chats = chatRepository.findMessagesAfter(roomId, last, CATCH_UP_PAGE_SIZE);
+            chatSearchIndex.add(chats);
+            if (!chats.isEmpty()) {
+                last = chats.get(chats.size() - 1).getChat_Id();
+            }
+        } while (chats.size() == CATCH_UP_PAGE_SIZE);
+        chatSearchIndex.caughtUp(roomId, last, now);
+    }
+
+    @Override
+    public void destroy() {
+        catchUpExecutor.shutdownNow();
+    }
+}
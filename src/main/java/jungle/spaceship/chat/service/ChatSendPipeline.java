@@ -0,0 +1,178 @@
+package jungle.spaceship.chat.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import jungle.spaceship.chat.controller.dto.ChatRegisterDto;
+import jungle.spaceship.chat.entity.Chat;
+import jungle.spaceship.chat.repository.ChatJournal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * 채팅 전송 후처리 파이프라인 (브로드캐스트 이후 단계)
+ * - persist : 캐시 저장, 안 읽은 메시지 수 증가. 채팅방별로 같은 스레드(stripe)에서 처리해 캐시에 쌓이는 순서를 보장하고,
+ *             큐가 가득 차면 수신 스레드를 멈춰 세워(backpressure) 메시지를 버리지 않음
+ * - notify  : FCM 알림. FCM 응답 시간이 전송 지연에 영향을 주지 않도록 별도 스레드에서 처리하고,
+ *             큐가 가득 차면 알림만 버림
+ */
+@Slf4j
+@Component
+public class ChatSendPipeline implements DisposableBean {
+
+    private final ChatService chatService;
+    private final ChatReadService chatReadService;
+    private final ChatJournal chatJournal;
+
+    private final ThreadPoolExecutor[] persistStripes;
+    private final ThreadPoolExecutor notifyExecutor;
+
+    private final Timer deliverTimer;
+    private final Timer persistTimer;
+    private final Timer notifyTimer;
+    private final Counter persistFailed;
+    private final Counter notifyFailed;
+    private final Counter notifyDropped;
+
+    public ChatSendPipeline(ChatService chatService,
+                            ChatReadService chatReadService,
+                            ChatJournal chatJournal,
+                            MeterRegistry meterRegistry,
+                            @Value("${chat.pipeline.persist-stripes:4}") int persistStripes,
+                            @Value("${chat.pipeline.persist-queue:1000}") int persistQueue,
+                            @Value("${chat.pipeline.notify-threads:4}") int notifyThreads,
+                            @Value("${chat.pipeline.notify-queue:1000}") int notifyQueue) {
+        this.chatService = chatService;
+        this.chatReadService = chatReadService;
+        this.chatJournal = chatJournal;
+
+        this.persistStripes = new ThreadPoolExecutor[persistStripes];
+        for (int i = 0; i < persistStripes; i++) {
+            this.persistStripes[i] = newExecutor("chat-persist-" + i, 1, persistQueue, (task, executor) -> {
+                // 큐에 자리가 날 때까지 호출한 스레드를 대기시킴 (순서 유지를 위해 호출 스레드에서 직접 실행하지 않음)
+                try {
+                    executor.getQueue().put(task);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException("채팅 저장 대기 중 인터럽트", e);
+                }
+            });
+        }
+        this.notifyDropped = meterRegistry.counter("chat.pipeline.dropped", "stage", "notify");
+        this.notifyExecutor = newExecutor("chat-notify", notifyThreads, notifyQueue,
+                (task, executor) -> notifyDropped.increment());
+
+        this.deliverTimer = Timer.builder("chat.send.deliver")
+                .description("메시지 수신부터 구독자 브로드캐스트까지 걸린 시간")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.persistTimer = stageTimer(meterRegistry, "persist");
+        this.notifyTimer = stageTimer(meterRegistry, "notify");
+        this.persistFailed = meterRegistry.counter("chat.pipeline.failed", "stage", "persist");
+        this.notifyFailed = meterRegistry.counter("chat.pipeline.failed", "stage", "notify");
+        for (int i = 0; i < persistStripes; i++) {
+            meterRegistry.gauge("chat.pipeline.queue.depth", List.of(Tag.of("stage", "persist-" + i)),
+                    this.persistStripes[i].getQueue(), BlockingQueue::size);
+        }
+        meterRegistry.gauge("chat.pipeline.queue.depth", List.of(Tag.of("stage", "notify")),
+                notifyExecutor.getQueue(), BlockingQueue::size);
+    }
+
+    /**
+     * 브로드캐스트가 끝난 메시지의 저장/알림을 비동기 단계로 넘김
+     *
+     * @param receivedAt 메시지 수신 시각 (System.nanoTime)
+     */
+    public void submit(ChatRegisterDto message, String memberEmail, long receivedAt) {
+        long submittedAt = System.nanoTime();
+        deliverTimer.record(submittedAt - receivedAt, TimeUnit.NANOSECONDS);
+
+        Chat chat = message.getNewMessage(message.getChatId());
+        persistStripes[stripeOf(chat.getRoomId())].execute(() -> persist(chat, memberEmail, submittedAt));
+        notifyExecutor.execute(() -> notify(memberEmail, chat.getRoomId(), message.getContent(), submittedAt));
+    }
+
+    private void persist(Chat chat, String memberEmail, long submittedAt) {
+        try {
+            chatService.saveMessage(chat);
+        } catch (Exception e) {
+            // 캐시에 쓰지 못하면 저널에 남기고 바로 DB 저장 대기열로 넘겨 메시지 유실을 막음
+            persistFailed.increment();
+            log.error("채팅 캐시 저장 실패, DB 저장 대기열로 전달 : roomId={}, chatId={}", chat.getRoomId(), chat.getChat_Id(), e);
+            journal(chat);
+            chatService.commitMessageQueue(List.of(chat));
+        }
+        try {
+            chatReadService.sent(chat.getRoomId(), memberEmail, chat.getChat_Id());
+        } catch (Exception e) {
+            log.warn("안 읽은 메시지 수 갱신 실패 : roomId={}", chat.getRoomId(), e);
+        } finally {
+            persistTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 저널 기록 : 서버가 DB 저장 전에 내려가도 다른 서버가 저널에서 다시 저장 (Redis 장애로 실패하면 대기열에만 남음)
+     */
+    private void journal(Chat chat) {
+        try {
+            chatJournal.append(chat);
+        } catch (Exception e) {
+            log.error("채팅 저널 기록 실패, 서버가 내려가기 전에 DB 에 저장되어야 함 : roomId={}, chatId={}",
+                    chat.getRoomId(), chat.getChat_Id(), e);
+        }
+    }
+
+    private void notify(String memberEmail, Long roomId, String content, long submittedAt) {
+        try {
+            chatService.notifyFamily(memberEmail, roomId, content);
+        } catch (Exception e) {
+            notifyFailed.increment();
+            log.warn("채팅 알림 전송 실패 : {}", memberEmail, e);
+        } finally {
+            notifyTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private int stripeOf(Long roomId) {
+        return Math.floorMod(Long.hashCode(roomId), persistStripes.length);
+    }
+
+    private static ThreadPoolExecutor newExecutor(String name, int threads, int capacity, RejectedExecutionHandler handler) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), new CustomizableThreadFactory(name + "-"), handler);
+        executor.prestartAllCoreThreads();
+        return executor;
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("chat.pipeline.latency")
+                .description("브로드캐스트 이후 단계가 끝날 때까지 걸린 시간 (큐 대기 포함)")
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 종료 시 남은 저장 작업을 마저 처리 (이후 ChatWriteBehindFlusher 가 DB 에 flush)
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        notifyExecutor.shutdown();
+        for (ThreadPoolExecutor stripe : persistStripes) {
+            stripe.shutdown();
+        }
+        for (ThreadPoolExecutor stripe : persistStripes) {
+            if (!stripe.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("종료 전에 처리하지 못한 채팅 저장 작업 : {}", stripe.getQueue().size());
+            }
+        }
+    }
+}
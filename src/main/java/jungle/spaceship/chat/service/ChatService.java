@@ -1,88 +1,100 @@
 package jungle.spaceship.chat.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jungle.spaceship.chat.controller.dto.ChatPageResponseDto;
 import jungle.spaceship.chat.controller.dto.ChatRegisterDto;
 import jungle.spaceship.chat.entity.Chat;
 import jungle.spaceship.chat.entity.ChatType;
 import jungle.spaceship.chat.repository.ChatRepository;
-import jungle.spaceship.chat.repository.RedisMessageCache;
+import jungle.spaceship.chat.repository.MessageCache;
 import jungle.spaceship.member.entity.Member;
 import jungle.spaceship.member.repository.MemberRepository;
 import jungle.spaceship.notification.FcmService;
 import jungle.spaceship.notification.NotificationType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.NoSuchElementException;
-import java.util.Queue;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @Transactional
 @RequiredArgsConstructor
-public class ChatService implements DisposableBean{
+public class ChatService {
 
     private final ChatRepository chatRepository;
     private final MemberRepository memberRepository;
     private final FcmService fcmService;
+    private final ChatPresenceRegistry chatPresenceRegistry;
+    private final MeterRegistry meterRegistry;
 
-    private final RedisMessageCache messageMap;
+    private final MessageCache messageMap;
     // 채팅 메시지 임시 저장 캐시 : 채팅방Id, 채팅 메시지
 //    private static final Map<Long, Queue<Message>> messageMap = new HashMap<>();
-    private final EntityManager em;
-    private static final int TRANSACTION_MESSAGE_SIZE = 20; // 한번에 처리될 메시지 사이즈
+    private final ChatIdGenerator chatIdGenerator;
+    private final ChatWriteBehindFlusher chatWriteBehindFlusher;
+    private final ChatArchiveService chatArchiveService;
     private static final int MESSAGE_PAGEABLE_SIZE = 30;    // Queue 에 임시 보관될 메시지 수
-    private static final int MESSAGE_CACHE_MAX = 50;        // Write Back 패턴 중 최대 모을 수 있는 메시지 캐시
+
+    // 저널이 유실을 막아주므로 Write Back 구간을 설정으로 늘릴 수 있음
+    @Value("${chat.cache.write-back-size:20}")
+    private int transactionMessageSize;     // 한번에 처리될 메시지 사이즈
+    @Value("${chat.cache.max-size:50}")
+    private int messageCacheMax;            // Write Back 패턴 중 최대 모을 수 있는 메시지 캐시
+    private static final int MESSAGE_HISTORY_MAX_SIZE = 100; // 채팅 내역 한 페이지 최대 메시지 수
+    private static final int MESSAGE_CONTENT_MAX_LENGTH = 255; // chat.content 컬럼 길이
 
 
     /**
-     * 메시지 보내기 및 캐시/DB 에 저장
+     * 메시지 수신 : 검증 후 Id 와 서버 시각을 붙여 바로 브로드캐스트할 수 있는 상태로 반환
+     * - 캐시 저장과 알림은 ChatSendPipeline 이 브로드캐스트 이후 비동기로 처리하므로 트랜잭션/DB 커넥션을 잡지 않음
      */
-    public ChatRegisterDto sendMessage(ChatRegisterDto message, String memberEmail) {
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public ChatRegisterDto acceptMessage(ChatRegisterDto message) {
+        if (message.getRoomId() == null || message.getType() == null) {
+            throw new IllegalArgumentException("채팅방 또는 메시지 타입이 없습니다.");
+        }
         if(ChatType.ENTER.equals(message.getType())) {
             message.setContent(message.getSender() + "(님)이 입장하였습니다.");
         }
-        saveMessage(message);
-        Member member = memberRepository.findByEmail(memberEmail).orElseThrow(()-> new NoSuchElementException("해당하는 사용자가 없습니다"));
-        fcmService.sendFcmMessageToFamilyExcludingMe(member, NotificationType.CHAT, message.getContent());
+        if (message.getContent() == null || message.getContent().isEmpty()
+                || message.getContent().length() > MESSAGE_CONTENT_MAX_LENGTH) {
+            throw new IllegalArgumentException("메시지는 1자 이상 " + MESSAGE_CONTENT_MAX_LENGTH + "자 이하로 보낼 수 있습니다.");
+        }
+
+        long chatId = chatIdGenerator.nextId();
+        message.setChatId(chatId);
+        message.setSentAt(ChatIdGenerator.epochMillisOf(chatId));
         return message;
     }
 
-
-    private void saveMessage(ChatRegisterDto chatRegisterDto){
-        Long roomId = chatRegisterDto.getRoomId();
-
-        Chat chat = chatRegisterDto.getNewMessage();
-
-        // 채팅방에 캐시가 없다면 새로운 큐를 생성 및 메시지 추가 후 put(roomId, queue) 한다.
-        if(!messageMap.containsKey(roomId)){
-            //채팅방에 처음쓰는 글이라면 캐시가 없으므로 캐시를 생성
-            Queue<Chat> q = new LinkedList<>();
-            q.add(chat);
-            messageMap.put(roomId, q);
+    /**
+     * 캐시 쓰기 전략 (Write Back) : 캐시 크기가 일정 크기 초과하면 밀려난 메시지를 Write Behind 큐에 넘김
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void saveMessage(Chat chat){
+        List<Chat> evicted = messageMap.append(chat.getRoomId(), chat, messageCacheMax, transactionMessageSize);
+        if(!evicted.isEmpty()){
+            commitMessageQueue(evicted);
         }
-        else{
-            Queue<Chat> mQueue = messageMap.get(roomId);
-            mQueue.add(chat);
-            // 캐시 쓰기 전략 (Write Back) : 큐 사이즈가 일정 크기 초과하면 일부를 db에 저장 후 큐를 갱신
-            if(mQueue.size() > MESSAGE_CACHE_MAX){
-
-                Queue<Chat> tmpQueue = new LinkedList<>();
-                for (int i = 0; i < TRANSACTION_MESSAGE_SIZE; i++) {
-
-                    tmpQueue.add(mQueue.poll());
-                }
-                commitMessageQueue(tmpQueue);   // 큐에서 메시지를 가져와 db에 저장
-            }
-            // 큐의 상태가 변경되었기 때무넹 현재 큐를 갱신
-            messageMap.put(roomId, mQueue);
+    }
 
+    /**
+     * 보낸 사람과 이미 채팅방을 보고 있는 가족을 제외하고 채팅 알림 전송
+     */
+    public void notifyFamily(String memberEmail, Long roomId, String content) {
+        Member member = memberRepository.findByEmail(memberEmail).orElseThrow(()-> new NoSuchElementException("해당하는 사용자가 없습니다"));
+        Set<String> present = chatPresenceRegistry.presentMembers(roomId);
+        // 보낸 사람은 원래 알림 대상이 아니므로 생략된 알림 수에서 제외
+        int suppressed = present.contains(memberEmail) ? present.size() - 1 : present.size();
+        if (suppressed > 0) {
+            meterRegistry.counter("chat.notify.suppressed").increment(suppressed);
         }
+        fcmService.sendFcmMessageToFamilyExcludingMe(member, NotificationType.CHAT, content, present);
     }
 
     /**
@@ -95,35 +107,93 @@ public class ChatService implements DisposableBean{
         if(messageMap.containsKey(roomId)){
             return getMessageInCache(roomId);
         }
-        // DB에서 조회
-        List<Chat> chatList = getMessageInDB(roomId);
-        
-        // DB에서 가져온 데이터를 큐에 저장
-        messageMap.put(roomId, new LinkedList<>(chatList));
+        // DB에서 조회 후 chat 테이블에서 가져온 데이터만 큐에 저장
+        List<Chat> cacheable = new ArrayList<>();
+        List<Chat> chatList = getMessageInDB(roomId, cacheable);
+        messageMap.put(roomId, cacheable);
         return chatList;
     }
 
+    /**
+     * 커서 기반 채팅 내역 조회 : before(chatId) 보다 이전 메시지를 limit 개 반환
+     * 캐시 -> 저장 대기열 -> DB -> 보관 블록 -> DB 의 이전 시퀀스 Id 메시지 순으로 부족한 만큼만 이어서 조회
+     */
+    public ChatPageResponseDto getMessagesBefore(Long roomId, Long before, int limit) {
+        long cursor = before == null ? Long.MAX_VALUE : before;
+        int size = Math.max(1, Math.min(limit, MESSAGE_HISTORY_MAX_SIZE));
+
+        // 다음 페이지 존재 여부를 알기 위해 size + 1 개까지 모음 (Id 내림차순, 중복 제거)
+        TreeMap<Long, Chat> page = new TreeMap<>(Comparator.reverseOrder());
+        collectBefore(page, messageMap.getRecent(roomId, messageCacheMax), cursor);
+        if (page.size() <= size) {
+            collectBefore(page, chatWriteBehindFlusher.pendingOf(roomId), cursor);
+        }
+        if (page.size() <= size) {
+            long dbCursor = page.isEmpty() ? cursor : page.lastKey();
+            collectBefore(page, chatRepository.findMessagesBetween(roomId, ChatIdGenerator.MIN_TIME_ORDERED_ID,
+                    dbCursor, size + 1 - page.size()), cursor);
+        }
+        if (page.size() <= size) {
+            long archiveCursor = page.isEmpty() ? cursor : page.lastKey();
+            collectBefore(page, chatArchiveService.findBefore(roomId, archiveCursor, size + 1 - page.size()), cursor);
+        }
+        if (page.size() <= size) {
+            long legacyCursor = Math.min(page.isEmpty() ? cursor : page.lastKey(), ChatIdGenerator.MIN_TIME_ORDERED_ID);
+            collectBefore(page, chatRepository.findMessagesBefore(roomId, legacyCursor, size + 1 - page.size()), cursor);
+        }
+
+        List<Chat> chats = page.values().stream().limit(size).collect(Collectors.toList());
+        Collections.reverse(chats);
+        boolean hasNext = page.size() > size;
+        Long nextCursor = hasNext ? chats.get(0).getChat_Id() : null;
+        return new ChatPageResponseDto(chats, nextCursor, hasNext);
+    }
 
-    public void commitMessageQueue(Queue<Chat> queue){
-        for (int i = 0; i < queue.size(); i++) {
-            Chat chat = queue.poll();
-            em.persist(chat);
+    private void collectBefore(Map<Long, Chat> page, Collection<Chat> chats, long cursor) {
+        for (Chat chat : chats) {
+            if (chat.getChat_Id() != null && chat.getChat_Id() < cursor) {
+                page.putIfAbsent(chat.getChat_Id(), chat);
+            }
         }
-        em.flush();
     }
 
-    @Override
-    public void destroy() throws Exception {
-        // 서버 다운 전 큐를 db 에 저장시키기
-        commitMessageQueue(messageMap.values());
+    /**
+     * 메시지를 DB 저장 대기열에 추가 (실제 저장은 ChatWriteBehindFlusher 가 batch 로 처리)
+     */
+    public void commitMessageQueue(Collection<Chat> chats){
+        chatWriteBehindFlusher.enqueue(chats);
     }
 
-    private List<Chat> getMessageInDB(Long roomId) {
-        return chatRepository.findNumberOfMessageInChatRoomReverse(roomId,MESSAGE_PAGEABLE_SIZE);
+    /**
+     * 최근 메시지를 오래된 순으로 조회 : chat 테이블 -> 보관 블록 -> chat 테이블의 이전 시퀀스 Id 메시지 순으로 채움
+     * - cacheable 에는 캐시에 넣어도 되는 메시지만 담음 : 보관 블록 메시지가 캐시에서 밀려나면 chat 테이블에 다시 저장되고,
+     *   보관 블록을 건너뛴 이전 메시지가 캐시에 있으면 커서 페이징이 보관 블록을 건너뜀
+     */
+    private List<Chat> getMessageInDB(Long roomId, List<Chat> cacheable) {
+        List<Chat> chats = new ArrayList<>(chatRepository.findMessagesBetween(roomId, ChatIdGenerator.MIN_TIME_ORDERED_ID,
+                Long.MAX_VALUE, MESSAGE_PAGEABLE_SIZE));
+        cacheable.addAll(chats);
+        if (chats.size() < MESSAGE_PAGEABLE_SIZE) {
+            // 최근 메시지가 부족하면 보관된 메시지로 채움
+            long before = chats.isEmpty() ? Long.MAX_VALUE : chats.get(chats.size() - 1).getChat_Id();
+            List<Chat> archived = chatArchiveService.findBefore(roomId, before, MESSAGE_PAGEABLE_SIZE - chats.size());
+            chats.addAll(archived);
+            if (chats.size() < MESSAGE_PAGEABLE_SIZE) {
+                List<Chat> legacy = chatRepository.findMessagesBefore(roomId, ChatIdGenerator.MIN_TIME_ORDERED_ID,
+                        MESSAGE_PAGEABLE_SIZE - chats.size());
+                chats.addAll(legacy);
+                if (archived.isEmpty()) {
+                    cacheable.addAll(legacy);
+                }
+            }
+        }
+        Collections.reverse(chats);
+        Collections.reverse(cacheable);
+        return chats;
     }
 
     private List<Chat> getMessageInCache(Long roomId){
-        return messageMap.get(roomId).stream().toList();
+        return messageMap.getRecent(roomId, MESSAGE_PAGEABLE_SIZE);
     }
 
 
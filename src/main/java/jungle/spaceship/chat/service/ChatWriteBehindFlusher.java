@@ -0,0 +1,262 @@
+package jungle.spaceship.chat.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jungle.spaceship.chat.entity.Chat;
+import jungle.spaceship.chat.repository.ChatJournal;
+import jungle.spaceship.chat.repository.MessageCache;
+import jungle.spaceship.chat.search.ChatSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 채팅 메시지 Write Behind
+ * - 캐시에서 밀려난 메시지를 모든 채팅방에 대해 모아 두었다가, 주기적으로 또는 일정 개수가 쌓이면 JDBC batch insert 로 저장
+ * - 메시지 전송 스레드는 큐에 넣기만 하므로 DB 쓰기 시간이 전송 지연에 포함되지 않음
+ * - 커밋이 끝난 메시지는 저널(ChatJournal)에서 지우고, 주기적으로 주인 없이 남은 저널 메시지를 다시 큐에 넣음
+ */
+@Slf4j
+@Component
+public class ChatWriteBehindFlusher implements DisposableBean {
+
+    private static final String INSERT_SQL =
+            "insert into chat (chat_id, chat_type, content, sender, room_id, create_at) values (?, ?, ?, ?, ?, ?)";
+    private static final String EXISTING_ID_SQL = "select chat_id from chat where chat_id in (:ids)";
+    private static final String REPLAY_LOCK_KEY = "chat:journal:replay:lock";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ChatJournal chatJournal;
+    private final MessageCache messageCache;
+    private final StringRedisTemplate redisTemplate;
+    private final ChatSearchIndex chatSearchIndex;
+    private final int batchSize;
+
+    @Value("${chat.cache.max-size:50}")
+    private int cacheMaxSize;
+
+    @Value("${chat.journal.replay-interval-ms:300000}")
+    private long replayIntervalMs;
+
+    @Value("${chat.journal.replay-after-ms:60000}")
+    private long replayAfterMs;
+
+    private final Deque<Chat> pending = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "chat-flusher"));
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchRows;
+
+    public ChatWriteBehindFlusher(JdbcTemplate jdbcTemplate,
+                                  NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  ChatJournal chatJournal,
+                                  MessageCache messageCache,
+                                  StringRedisTemplate redisTemplate,
+                                  ChatSearchIndex chatSearchIndex,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${chat.flush.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.chatJournal = chatJournal;
+        this.messageCache = messageCache;
+        this.redisTemplate = redisTemplate;
+        this.chatSearchIndex = chatSearchIndex;
+        this.batchSize = batchSize;
+
+        meterRegistry.gauge("chat.flush.queue.depth", depth);
+        this.flushTimer = Timer.builder("chat.flush.latency")
+                .description("한 batch 를 DB 에 쓰는 데 걸린 시간")
+                .register(meterRegistry);
+        this.batchRows = DistributionSummary.builder("chat.flush.batch.rows")
+                .description("batch 당 저장한 메시지 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 저장할 메시지 추가 : batch 크기만큼 쌓이면 주기를 기다리지 않고 바로 flush
+     */
+    public void enqueue(Collection<Chat> chats) {
+        pending.addAll(chats);
+        if (depth.addAndGet(chats.size()) >= batchSize && flushRequested.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * 아직 DB 에 저장되지 않은 채팅방의 메시지
+     */
+    public List<Chat> pendingOf(Long roomId) {
+        List<Chat> chats = new ArrayList<>();
+        for (Chat chat : pending) {
+            if (roomId.equals(chat.getRoomId())) {
+                chats.add(chat);
+            }
+        }
+        return chats;
+    }
+
+    /**
+     * 최대 지연 시간마다 쌓인 메시지를 모두 저장
+     */
+    @Scheduled(fixedDelayString = "${chat.flush.max-delay-ms:1000}")
+    public synchronized void flush() {
+        while (!pending.isEmpty()) {
+            List<Chat> batch = new ArrayList<>(batchSize);
+            Chat chat;
+            while (batch.size() < batchSize && (chat = pending.pollFirst()) != null) {
+                batch.add(chat);
+            }
+            depth.addAndGet(-batch.size());
+
+            List<Chat> inserted;
+            try {
+                inserted = flushTimer.record(() -> writeBatch(batch));
+            } catch (RuntimeException e) {
+                // 실패한 batch 는 순서를 유지해 큐 앞에 다시 넣고 다음 주기에 재시도
+                log.error("채팅 메시지 {}건 저장 실패", batch.size(), e);
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    pending.addFirst(batch.get(i));
+                }
+                depth.addAndGet(batch.size());
+                return;
+            }
+
+            try {
+                chatJournal.remove(batch);
+            } catch (RuntimeException e) {
+                // 저널이 남아도 다시 저장할 때 이미 저장된 Id 는 제외되므로 로그만 남김
+                log.warn("저장된 채팅 메시지 {}건의 저널 삭제 실패", batch.size(), e);
+            }
+            index(inserted);
+        }
+    }
+
+    /**
+     * 주인 없이 남은 저널 메시지를 다시 저장 대기열에 넣음 (서버 시작 직후 + replay-interval-ms 마다, Redis 락으로 한 서버만)
+     * - 캐시에 남아 있는 메시지는 밀려나거나 유휴 채팅방 정리 때 저장되므로 제외
+     * - 캐시에서 밀려나 다른 서버의 대기열에 있는 메시지는 곧 저장되므로, 발급된 지 replay-after-ms 가 지난 메시지만 대상
+     *   (서버가 내려가 대기열과 함께 사라진 메시지만 남음)
+     * - DB 장애로 이 서버의 대기열에 오래 남아 있는 메시지도 제외 (같은 메시지를 대기열에 두 번 넣지 않음)
+     */
+    @Scheduled(fixedDelayString = "${chat.journal.replay-interval-ms:300000}")
+    public void replayJournal() {
+        // 락은 풀지 않고 만료시켜, 다른 서버가 같은 주기에 다시 수행하지 않도록 함
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(REPLAY_LOCK_KEY, "1", Duration.ofMillis(replayIntervalMs)))) {
+            return;
+        }
+        long maxId = ChatIdGenerator.minIdAt(System.currentTimeMillis() - replayAfterMs);
+        Set<Long> queued = new HashSet<>();
+        pending.forEach(chat -> queued.add(chat.getChat_Id()));
+        int count = 0;
+        for (Long roomId : chatJournal.rooms()) {
+            Set<Long> cached = new HashSet<>();
+            messageCache.getRecent(roomId, cacheMaxSize).forEach(chat -> cached.add(chat.getChat_Id()));
+            List<Chat> orphans = chatJournal.read(roomId).stream()
+                    .filter(chat -> chat.getChat_Id() < maxId && !cached.contains(chat.getChat_Id())
+                            && !queued.contains(chat.getChat_Id()))
+                    .toList();
+            enqueue(orphans);
+            count += orphans.size();
+        }
+        if (count > 0) {
+            log.info("저널에 남아있던 채팅 메시지 {}건을 다시 저장합니다.", count);
+        }
+    }
+
+    /**
+     * 큐를 거치지 않고 바로 저장 (유휴 채팅방 정리처럼 여러 채팅방을 한 트랜잭션으로 저장할 때 사용)
+     */
+    public void flushNow(List<Chat> chats) {
+        if (chats.isEmpty()) {
+            return;
+        }
+        List<Chat> inserted = flushTimer.record(() -> writeBatch(chats));
+        chatJournal.remove(chats);
+        index(inserted);
+    }
+
+    /**
+     * 새로 저장된 메시지를 검색 색인에 추가 (실패해도 검색 시 DB 에서 따라잡으므로 저장에는 영향 없음)
+     */
+    private void index(List<Chat> inserted) {
+        try {
+            chatSearchIndex.add(inserted);
+        } catch (RuntimeException e) {
+            log.warn("채팅 메시지 {}건 검색 색인 실패", inserted.size(), e);
+        }
+    }
+
+    /**
+     * 메시지를 트랜잭션 하나로 저장 (batchSize 단위로 나눠 JDBC batch 실행)
+     * - DB 에서 읽어 캐시에 올렸던 메시지처럼 이미 저장된 Id 는 제외하고, 새로 저장한 메시지를 반환
+     * - batch 안에 같은 Id 가 두 번 있으면 하나만 저장 (PK 충돌로 batch 전체가 계속 실패하지 않도록)
+     */
+    private List<Chat> writeBatch(List<Chat> batch) {
+        return transactionTemplate.execute(status -> {
+            Set<Long> existing = new HashSet<>();
+            for (int from = 0; from < batch.size(); from += batchSize) {
+                List<Long> ids = batch.subList(from, Math.min(from + batchSize, batch.size())).stream()
+                        .map(Chat::getChat_Id)
+                        .toList();
+                existing.addAll(namedParameterJdbcTemplate.queryForList(EXISTING_ID_SQL,
+                        new MapSqlParameterSource("ids", ids), Long.class));
+            }
+            Set<Long> written = new HashSet<>(existing);
+            List<Chat> rows = batch.stream()
+                    .filter(chat -> written.add(chat.getChat_Id()))
+                    .toList();
+            if (rows.isEmpty()) {
+                return rows;
+            }
+
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, batchSize, (ps, chat) -> {
+                ps.setLong(1, chat.getChat_Id());
+                if (chat.getChatType() == null) {
+                    ps.setNull(2, Types.INTEGER);
+                } else {
+                    ps.setInt(2, chat.getChatType().ordinal());
+                }
+                ps.setString(3, chat.getContent());
+                ps.setString(4, chat.getSender());
+                ps.setObject(5, chat.getRoomId(), Types.BIGINT);
+                ps.setString(6, chat.getCreateAt());
+            });
+            batchRows.record(rows.size());
+            return rows;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        // 서버 다운 전 남은 메시지 저장
+        executor.shutdown();
+        flush();
+    }
+}
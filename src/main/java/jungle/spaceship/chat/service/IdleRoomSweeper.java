@@ -0,0 +1,68 @@
+package jungle.spaceship.chat.service;
+
+import jungle.spaceship.chat.entity.Chat;
+import jungle.spaceship.chat.repository.ChatJournal;
+import jungle.spaceship.chat.repository.ChatRoomActivity;
+import jungle.spaceship.chat.repository.MessageCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 유휴 채팅방 정리
+ * - 마지막 메시지 이후 idle-minutes 가 지난 채팅방을 한꺼번에 찾아, 저널의 메시지를 트랜잭션 하나로 저장한 뒤 캐시에서 제거
+ * - Redis 락으로 주기마다 한 서버만 수행 (keyspace 만료 이벤트를 쓰지 않으므로 notify-keyspace-events 설정이 필요 없음)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdleRoomSweeper {
+
+    private static final String LOCK_KEY = "chat:sweeper:lock";
+    private static final int SWEEP_MAX_ROOMS = 1000;     // 한 번에 정리할 최대 채팅방 수
+
+    private final StringRedisTemplate redisTemplate;
+    private final ChatRoomActivity chatRoomActivity;
+    private final ChatJournal chatJournal;
+    private final MessageCache messageMap;
+    private final ChatWriteBehindFlusher chatWriteBehindFlusher;
+
+    @Value("${chat.sweep.idle-minutes:10}")
+    private long idleMinutes;
+
+    @Value("${chat.sweep.interval-ms:60000}")
+    private long intervalMs;
+
+    @Scheduled(fixedDelayString = "${chat.sweep.interval-ms:60000}")
+    public void sweep() {
+        // 락은 풀지 않고 만료시켜, 다른 서버가 같은 주기에 다시 정리하지 않도록 함
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", Duration.ofMillis(intervalMs)))) {
+            return;
+        }
+
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(idleMinutes);
+        Set<Long> idleRooms = chatRoomActivity.findIdle(cutoff, SWEEP_MAX_ROOMS);
+        if (idleRooms.isEmpty()) {
+            return;
+        }
+
+        List<Chat> chats = new ArrayList<>();
+        for (Long roomId : idleRooms) {
+            chats.addAll(chatJournal.read(roomId));
+        }
+        chatWriteBehindFlusher.flushNow(chats);
+
+        // 정리하는 사이 새 메시지가 들어온 채팅방은 캐시를 유지
+        Set<Long> evicted = chatRoomActivity.removeIfIdle(idleRooms, cutoff, messageMap::key);
+        log.info("유휴 채팅방 {}개 정리, 메시지 {}건 저장", evicted.size(), chats.size());
+    }
+}
@@ -1,6 +1,7 @@
 package jungle.spaceship.config;
 
 import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.WebSocketMessage;
@@ -9,11 +10,37 @@ import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
 
 /**
  * Register this in WebSocketConfig
+ * 연결된 세션을 SlowConsumerSessionDecorator 로 감싸 세션별 전송 버퍼와 느린 세션 종료를 적용
  */
 public class CustomWebSocketHandlerDecorator extends WebSocketHandlerDecorator {
 
-	public CustomWebSocketHandlerDecorator(WebSocketHandler delegate) {
+	private final WebSocketSessionLimiter sessionLimiter;
+
+	public CustomWebSocketHandlerDecorator(WebSocketHandler delegate, WebSocketSessionLimiter sessionLimiter) {
 		super(delegate);
+		this.sessionLimiter = sessionLimiter;
+	}
+
+	@Override
+	public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+		super.afterConnectionEstablished(sessionLimiter.decorate(session));
+	}
+
+	@Override
+	public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+		super.handleMessage(sessionLimiter.decorated(session), message);
+	}
+
+	@Override
+	public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+		super.handleTransportError(sessionLimiter.decorated(session), exception);
+	}
+
+	@Override
+	public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+		WebSocketSession decorated = sessionLimiter.decorated(session);
+		sessionLimiter.remove(session);
+		super.afterConnectionClosed(decorated, closeStatus);
 	}
 
 //	@Override
@@ -0,0 +1,194 @@
+package jungle.spaceship.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅/지도 메시지 묶음 전송 (websocket.coalesce.enabled=true)
+ * - SUBSCRIBE 시 "coalesce: true" 헤더를 보낸 구독에만 적용, 그 외 구독은 기존처럼 메시지마다 한 프레임
+ * - /sub/chat/room/*, /sub/map/* 로 가는 JSON 메시지를 구독별로 window-ms 동안 모았다가 JSON 배열 한 프레임으로 전송
+ *   (max-messages 개가 모이면 바로 전송)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "websocket.coalesce.enabled", havingValue = "true")
+public class OutboundCoalescingInterceptor implements ChannelInterceptor, DisposableBean {
+
+    public static final String OPT_IN_HEADER = "coalesce";
+    private static final String BATCH_COUNT_HEADER = "batch-count";
+    private static final String COALESCED = "coalesced";
+    private static final List<String> DESTINATION_PREFIXES = List.of("/sub/chat/room/", "/sub/map/");
+
+    private final MessageChannel clientOutboundChannel;
+    private final long windowMillis;
+    private final int maxMessages;
+
+    // 묶음 전송을 원하는 구독 "sessionId:subscriptionId", 구독별 모으는 중인 메시지
+    private final Set<String> optedIn = ConcurrentHashMap.newKeySet();
+    private final Map<String, Batch> batches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "outbound-coalescer"));
+
+    private final Counter frames;
+    private final Counter messages;
+
+    public OutboundCoalescingInterceptor(@Lazy @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${websocket.coalesce.window-ms:20}") long windowMillis,
+                                         @Value("${websocket.coalesce.max-messages:50}") int maxMessages) {
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.windowMillis = windowMillis;
+        this.maxMessages = maxMessages;
+        this.frames = meterRegistry.counter("websocket.coalesce.frames");
+        this.messages = meterRegistry.counter("websocket.coalesce.messages");
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE || headers.containsKey(COALESCED)) {
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+        if (destination == null || DESTINATION_PREFIXES.stream().noneMatch(destination::startsWith)
+                || !optedIn.contains(sessionId + ":" + subscriptionId)
+                || !(message.getPayload() instanceof byte[] payload) || !isJson(headers)) {
+            return message;
+        }
+
+        String key = sessionId + ":" + subscriptionId;
+        Batch[] full = new Batch[1];
+        batches.compute(key, (k, batch) -> {
+            if (batch == null) {
+                batch = new Batch(sessionId, subscriptionId, destination);
+                scheduler.schedule(() -> flush(k), windowMillis, TimeUnit.MILLISECONDS);
+            }
+            batch.payloads.add(payload);
+            if (batch.payloads.size() >= maxMessages) {
+                full[0] = batch;
+                return null;
+            }
+            return batch;
+        });
+        if (full[0] != null) {
+            send(full[0]);
+        }
+        return null;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        if ("true".equalsIgnoreCase(accessor.getFirstNativeHeader(OPT_IN_HEADER))) {
+            optedIn.add(accessor.getSessionId() + ":" + accessor.getSubscriptionId());
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String key = accessor.getSessionId() + ":" + accessor.getSubscriptionId();
+        optedIn.remove(key);
+        flush(key);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + ":";
+        optedIn.removeIf(key -> key.startsWith(prefix));
+        batches.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private void flush(String key) {
+        Batch batch = batches.remove(key);
+        if (batch != null) {
+            send(batch);
+        }
+    }
+
+    /**
+     * 모은 JSON 메시지를 배열 하나로 묶어 구독자에게 전송
+     */
+    private void send(Batch batch) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('[');
+        for (int i = 0; i < batch.payloads.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(batch.payloads.get(i));
+        }
+        out.write(']');
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(batch.sessionId);
+        accessor.setSubscriptionId(batch.subscriptionId);
+        accessor.setDestination(batch.destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setNativeHeader(BATCH_COUNT_HEADER, String.valueOf(batch.payloads.size()));
+        accessor.setHeader(COALESCED, Boolean.TRUE);
+        try {
+            clientOutboundChannel.send(MessageBuilder.createMessage(out.toByteArray(), accessor.getMessageHeaders()));
+            frames.increment();
+            messages.increment(batch.payloads.size());
+        } catch (RuntimeException e) {
+            log.warn("묶음 메시지 전송 실패 : session={}", batch.sessionId, e);
+        }
+    }
+
+    private static boolean isJson(MessageHeaders headers) {
+        Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+        MimeType mimeType = contentType instanceof String value ? MimeTypeUtils.parseMimeType(value) : (MimeType) contentType;
+        return mimeType != null && MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(mimeType);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+    }
+
+    private static final class Batch {
+        private final String sessionId;
+        private final String subscriptionId;
+        private final String destination;
+        private final List<byte[]> payloads = new ArrayList<>();
+
+        private Batch(String sessionId, String subscriptionId, String destination) {
+            this.sessionId = sessionId;
+            this.subscriptionId = subscriptionId;
+            this.destination = destination;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package jungle.spaceship.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 서버 간 STOMP 메시지 전달 (websocket.broker.relay=redis)
+ * - 서버에서 /sub/** 로 보내는 메시지는 내장 브로커로 로컬 세션에 바로 전달하고, 목적지별 Redis 채널(stomp:{destination})에도 한 번 발행
+ * - 각 서버는 자신에게 구독자가 있는 목적지의 채널만 구독하고, 다른 서버가 발행한 메시지만 내장 브로커로 넘겨 로컬 세션에 전달
+ *   (자신이 발행한 메시지는 이미 로컬에 전달했으므로 무시) -> Redis 트래픽은 서버 수가 아닌 활성 채팅방/지도 수에 비례
+ * - 입력 중/보는 중 신호(/sub/chat/room/{roomId}/ephemeral)는 잃어도 되고 양이 많으므로 Redis 로 보내지 않고 이 서버의 구독자에게만 전달
+ * - binary 지도 구독(/sub/map/{familyId}/bin)은 구독자별 delta 라 그대로 전달하지 않고, 같은 가족의 JSON 위치 채널을 구독해
+ *   MapRelayInterceptor 가 이 서버에서 다시 인코딩
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "websocket.broker.relay", havingValue = "redis")
+public class RedisBrokerRelay implements ChannelInterceptor, MessageListener {
+
+    private static final String CHANNEL_PREFIX = "stomp:";
+    private static final String DESTINATION_PREFIX = "/sub/";
+    private static final String LOCAL_ONLY_SUFFIX = "/ephemeral";
+    private static final String BINARY_SUFFIX = "/bin";
+    // 다른 서버에서 전달받은 메시지 표시
+    public static final String RELAYED_HEADER = "relayed";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MessageChannel brokerChannel;
+    private final byte[] node = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+
+    // 세션 Id -> (구독 Id -> 목적지), 목적지 -> 로컬 구독 수
+    private final Map<String, Map<String, String>> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, Integer> localSubscribers = new ConcurrentHashMap<>();
+
+    public RedisBrokerRelay(StringRedisTemplate redisTemplate,
+                            RedisMessageListenerContainer listenerContainer,
+                            @Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.brokerChannel = brokerChannel;
+    }
+
+    /**
+     * brokerChannel 로 들어오는 서버 발행 메시지를 다른 서버를 위해 Redis 에도 발행 (메시지는 그대로 통과시켜 로컬 전달)
+     * - null 을 반환해 메시지를 막으면 send 가 false 가 되어 SimpMessagingTemplate 이 MessageDeliveryException 을 던짐
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, SimpMessageHeaderAccessor.class);
+        if (accessor == null || accessor.getMessageType() != SimpMessageType.MESSAGE
+                || accessor.getHeader(RELAYED_HEADER) != null) {
+            return message;
+        }
+        String destination = accessor.getDestination();
+        if (!isRelayed(destination) || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+
+        byte[] envelope = encode(accessor.getContentType(), payload);
+        try {
+            redisTemplate.execute(connection -> connection.publish(
+                    (CHANNEL_PREFIX + destination).getBytes(StandardCharsets.UTF_8), envelope), true);
+        } catch (RuntimeException e) {
+            // Redis 장애 시에도 이 서버의 구독자에게는 전달
+            log.warn("{} 메시지를 다른 서버로 전달하지 못했습니다 : {}", destination, e.getMessage());
+        }
+        return message;
+    }
+
+    /**
+     * 다른 서버가 Redis 채널로 발행한 메시지를 로컬 내장 브로커로 전달
+     */
+    @Override
+    public void onMessage(org.springframework.data.redis.connection.Message message, byte[] pattern) {
+        ByteBuffer envelope = ByteBuffer.wrap(message.getBody());
+        byte[] origin = new byte[envelope.get() & 0xFF];
+        envelope.get(origin);
+        if (Arrays.equals(origin, node)) {
+            return;
+        }
+        String destination = new String(message.getChannel(), StandardCharsets.UTF_8).substring(CHANNEL_PREFIX.length());
+        byte[] contentType = new byte[envelope.get() & 0xFF];
+        envelope.get(contentType);
+        byte[] payload = new byte[envelope.remaining()];
+        envelope.get(payload);
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        if (contentType.length > 0) {
+            accessor.setContentType(MimeTypeUtils.parseMimeType(new String(contentType, StandardCharsets.UTF_8)));
+        }
+        accessor.setHeader(RELAYED_HEADER, Boolean.TRUE);
+        brokerChannel.send(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (!isRelayed(destination)) {
+            return;
+        }
+        String relayed = destination.endsWith(BINARY_SUFFIX)
+                ? destination.substring(0, destination.length() - BINARY_SUFFIX.length()) : destination;
+        subscriptions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), relayed);
+        increase(relayed);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> sessionSubscriptions = subscriptions.get(accessor.getSessionId());
+        if (sessionSubscriptions == null) {
+            return;
+        }
+        String destination = sessionSubscriptions.remove(accessor.getSubscriptionId());
+        if (destination != null) {
+            decrease(destination);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> sessionSubscriptions = subscriptions.remove(event.getSessionId());
+        if (sessionSubscriptions != null) {
+            sessionSubscriptions.values().forEach(this::decrease);
+        }
+    }
+
+    /**
+     * 로컬 첫 구독자가 생기면 해당 목적지 채널 구독
+     */
+    private void increase(String destination) {
+        localSubscribers.compute(destination, (key, count) -> {
+            if (count == null) {
+                listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL_PREFIX + destination));
+                return 1;
+            }
+            return count + 1;
+        });
+    }
+
+    /**
+     * 로컬 구독자가 모두 떠나면 채널 구독 해제
+     */
+    private void decrease(String destination) {
+        localSubscribers.computeIfPresent(destination, (key, count) -> {
+            if (count > 1) {
+                return count - 1;
+            }
+            listenerContainer.removeMessageListener(this, new ChannelTopic(CHANNEL_PREFIX + destination));
+            return null;
+        });
+    }
+
+    private static boolean isRelayed(String destination) {
+        return destination != null && destination.startsWith(DESTINATION_PREFIX) && !destination.endsWith(LOCAL_ONLY_SUFFIX);
+    }
+
+    /**
+     * [발행 서버 Id 길이 1B][발행 서버 Id][content-type 길이 1B][content-type][payload]
+     */
+    private byte[] encode(MimeType contentType, byte[] payload) {
+        byte[] type = contentType == null ? new byte[0] : contentType.toString().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(2 + node.length + type.length + payload.length)
+                .put((byte) node.length)
+                .put(node)
+                .put((byte) type.length)
+                .put(type)
+                .put(payload)
+                .array();
+    }
+}
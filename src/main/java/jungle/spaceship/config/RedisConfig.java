@@ -2,6 +2,7 @@ package jungle.spaceship.config;
 
 
 import jungle.spaceship.chat.entity.Chat;
+import jungle.spaceship.chat.repository.ChatRedisSerializer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
@@ -13,8 +14,10 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
 
 import java.util.LinkedList;
+import java.util.concurrent.Executors;
 
 @EnableCaching
 @Configuration
@@ -42,14 +45,33 @@ public class RedisConfig {
         return messageRedisTemplate;
     }
 
+    /**
+     * 메시지 단위 캐시(Redis List), 저널(Redis Hash)용 템플릿
+     * - 원소마다 타입 정보(@class)를 붙이지 않도록 채팅 메시지 전용 바이너리 직렬화 사용
+     */
+    @Bean(name = "chatRedisTemplate")
+    public RedisTemplate<String, Chat> chatRedisTemplate(RedisConnectionFactory redisConnectionFactory) {
+        RedisTemplate<String, Chat> chatRedisTemplate = new RedisTemplate<>();
+        chatRedisTemplate.setConnectionFactory(redisConnectionFactory);
+        chatRedisTemplate.setKeySerializer(new StringRedisSerializer());
+        ChatRedisSerializer chatRedisSerializer = new ChatRedisSerializer();
+        chatRedisTemplate.setValueSerializer(chatRedisSerializer);
+        chatRedisTemplate.setHashKeySerializer(new StringRedisSerializer());
+        chatRedisTemplate.setHashValueSerializer(chatRedisSerializer);
+        return chatRedisTemplate;
+    }
+
     /**
      * Redis 메시지를 수신하는 리스너 컨테이너
      * - Redis에 연결하고, 메시지를 수신하기 위해 등록된 리스너를 관리
+     * - 채널 메시지를 받은 순서대로 전달하도록 단일 스레드로 처리
      */
     @Bean
     public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
         RedisMessageListenerContainer redisMessageListenerContainer = new RedisMessageListenerContainer();
         redisMessageListenerContainer.setConnectionFactory(redisConnectionFactory);
+        redisMessageListenerContainer.setTaskExecutor(new ConcurrentTaskExecutor(
+                Executors.newSingleThreadExecutor(r -> new Thread(r, "redis-listener"))));
         return redisMessageListenerContainer;
     }
 
@@ -0,0 +1,117 @@
+package jungle.spaceship.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * clientInboundChannel 실행기
+ * - /pub/chat 메시지는 roomId 별 stripe(단일 스레드)에서 처리 : 같은 채팅방은 도착 순서대로 하나씩, 다른 채팅방은 병렬로
+ * - 그 외 프레임(CONNECT, SUBSCRIBE, 지도 등)은 기존과 같은 공용 스레드 풀에서 처리
+ * - stripe 큐가 가득 차면 수신 스레드(Tomcat I/O 스레드)를 최대 put-timeout-ms 동안 대기시킴(backpressure)
+ *   그래도 자리가 나지 않으면 프레임을 거부 -> StompSubProtocolHandler 가 클라이언트에 ERROR 프레임을 보냄
+ *   (대기 시간을 제한하지 않으면 채팅방 하나가 막혔을 때 I/O 스레드가 모두 묶여 다른 연결까지 멈춤)
+ */
+@Slf4j
+public class RoomStripedTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private static final long serialVersionUID = 1L;
+    private static final String CHAT_DESTINATION = "/pub/chat";
+    private static final byte[] ROOM_ID_FIELD = "\"roomId\"".getBytes(StandardCharsets.UTF_8);
+
+    private final transient ThreadPoolExecutor[] stripes;
+
+    public RoomStripedTaskExecutor(int stripeCount, int queueCapacity, long putTimeoutMillis, MeterRegistry meterRegistry) {
+        // 공용 스레드 풀은 Spring 기본 clientInboundChannel 설정과 동일하게
+        setCorePoolSize(Runtime.getRuntime().availableProcessors() * 2);
+        setThreadNamePrefix("clientInboundChannel-");
+        setAllowCoreThreadTimeOut(true);
+
+        Counter rejected = meterRegistry.counter("websocket.inbound.stripe.rejected");
+        this.stripes = new ThreadPoolExecutor[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            ThreadPoolExecutor stripe = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("inbound-room-" + i + "-"),
+                    (task, executor) -> {
+                        try {
+                            if (executor.getQueue().offer(task, putTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                                return;
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        rejected.increment();
+                        throw new RejectedExecutionException("채팅 프레임 대기열이 가득 찼습니다.");
+                    });
+            stripe.prestartAllCoreThreads();
+            stripes[i] = stripe;
+            meterRegistry.gauge("websocket.inbound.stripe.depth", List.of(Tag.of("stripe", String.valueOf(i))),
+                    stripe.getQueue(), BlockingQueue::size);
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        Long roomId = task instanceof MessageHandlingRunnable runnable ? chatRoomIdOf(runnable.getMessage()) : null;
+        if (roomId == null) {
+            super.execute(task);
+            return;
+        }
+        stripes[Math.floorMod(Long.hashCode(roomId), stripes.length)].execute(task);
+    }
+
+    @Override
+    public void shutdown() {
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.shutdown();
+        }
+        super.shutdown();
+    }
+
+    /**
+     * /pub/chat 메시지의 roomId (JSON 본문 전체를 파싱하지 않고 "roomId" 값만 찾음)
+     */
+    private static Long chatRoomIdOf(Message<?> message) {
+        if (!CHAT_DESTINATION.equals(SimpMessageHeaderAccessor.getDestination(message.getHeaders()))
+                || !(message.getPayload() instanceof byte[] payload)) {
+            return null;
+        }
+        int i = indexOf(payload, ROOM_ID_FIELD);
+        if (i < 0) {
+            return null;
+        }
+        i += ROOM_ID_FIELD.length;
+        while (i < payload.length && (payload[i] == ' ' || payload[i] == ':' || payload[i] == '"')) {
+            i++;
+        }
+        long roomId = 0;
+        int start = i;
+        while (i < payload.length && payload[i] >= '0' && payload[i] <= '9' && i - start < 18) {
+            roomId = roomId * 10 + (payload[i++] - '0');
+        }
+        return i == start ? null : roomId;
+    }
+
+    private static int indexOf(byte[] bytes, byte[] target) {
+        outer:
+        for (int i = 0; i <= bytes.length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (bytes[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
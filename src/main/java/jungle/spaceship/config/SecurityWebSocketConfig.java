@@ -1,5 +1,6 @@
 package jungle.spaceship.config;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.security.config.annotation.web.messaging.MessageSecurityMetadataSourceRegistry;
@@ -7,8 +8,11 @@ import org.springframework.security.config.annotation.web.socket.AbstractSecurit
 import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
+@RequiredArgsConstructor
 public class SecurityWebSocketConfig extends AbstractSecurityWebSocketMessageBrokerConfigurer {
 
+    private final WebSocketSessionLimiter webSocketSessionLimiter;
+
     @Override
     protected void configureInbound(MessageSecurityMetadataSourceRegistry message) {
         message
@@ -23,7 +27,10 @@ public class SecurityWebSocketConfig extends AbstractSecurityWebSocketMessageBro
 
     @Override
     public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
-        registration.addDecoratorFactory(CustomWebSocketHandlerDecorator::new);
+        // 세션별 전송 버퍼 : 느린 세션의 지도 프레임은 오래된 것부터 버리고, 계속 느리면 연결 종료
+        registration.setSendTimeLimit(webSocketSessionLimiter.getSendTimeLimit())
+                .setSendBufferSizeLimit(webSocketSessionLimiter.getSendBufferSizeLimit())
+                .addDecoratorFactory(handler -> new CustomWebSocketHandlerDecorator(handler, webSocketSessionLimiter));
     }
 
     @Override
@@ -0,0 +1,211 @@
+package jungle.spaceship.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 세션별 전송 버퍼
+ * - sendMessage 는 버퍼에 넣고 바로 반환하며, 실제 전송은 전송 스레드(WebSocketSessionLimiter)에서 세션별로 하나씩
+ *   : 느린 세션 때문에 clientOutboundChannel 스레드가 네트워크 전송을 기다리지 않음
+ * - 버퍼가 가득 차면 오래된 지도(/sub/map/**) 프레임부터 버리고, 채팅 등 나머지 프레임은 버리지 않음
+ * - 지도 프레임을 버려도 가득 차 있거나 한 번의 전송이 send-time-limit 를 넘으면 느린 세션으로 보고 연결 종료
+ * - close 는 버퍼에 남은 프레임(STOMP ERROR 프레임 등)을 마저 보낸 뒤 연결을 닫음
+ */
+@Slf4j
+public class SlowConsumerSessionDecorator extends WebSocketSessionDecorator {
+
+    private static final String MAP_DESTINATION_HEADER = "\ndestination:/sub/map/";
+
+    private final WebSocketSessionLimiter limiter;
+    private final Deque<Frame> buffer = new ArrayDeque<>();
+    private int bufferSize;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile long sendStartTime;
+    private volatile boolean limitExceeded;
+    private volatile CloseStatus closeStatus;     // close 요청 후 버퍼를 비우면 닫을 상태
+
+    public SlowConsumerSessionDecorator(WebSocketSession delegate, WebSocketSessionLimiter limiter) {
+        super(delegate);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (limitExceeded || closeStatus != null) {
+            return;
+        }
+        boolean overflow = false;
+        synchronized (buffer) {
+            buffer.add(new Frame(message, isMapUpdate(message)));
+            bufferSize += message.getPayloadLength();
+            while (bufferSize > limiter.getSendBufferSizeLimit()) {
+                if (!dropOldestMapUpdate()) {
+                    overflow = true;
+                    break;
+                }
+            }
+        }
+
+        long start = sendStartTime;
+        if (start != 0 && System.currentTimeMillis() - start > limiter.getSendTimeLimit()) {
+            terminate("전송 시간 초과");
+        } else if (overflow) {
+            terminate("전송 버퍼 초과");
+        } else {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * 버퍼에 쌓인 프레임 수
+     */
+    public int getQueuedFrames() {
+        synchronized (buffer) {
+            return buffer.size();
+        }
+    }
+
+    /**
+     * 버퍼에 남은 프레임을 전송 스레드에서 마저 보낸 뒤 닫음 (전송마다 send-time-limit 가 적용되므로 무한히 기다리지 않음)
+     */
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        if (limitExceeded || closeStatus != null) {
+            return;
+        }
+        closeStatus = status;
+        scheduleDrain();
+    }
+
+    private boolean dropOldestMapUpdate() {
+        for (Iterator<Frame> it = buffer.iterator(); it.hasNext(); ) {
+            Frame frame = it.next();
+            if (frame.mapUpdate) {
+                it.remove();
+                bufferSize -= frame.message.getPayloadLength();
+                limiter.mapUpdateDropped();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            limiter.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!limitExceeded) {
+                Frame frame;
+                synchronized (buffer) {
+                    frame = buffer.poll();
+                    if (frame != null) {
+                        bufferSize -= frame.message.getPayloadLength();
+                    }
+                }
+                if (frame == null) {
+                    closeIfRequested();
+                    break;
+                }
+                sendStartTime = System.currentTimeMillis();
+                try {
+                    getDelegate().sendMessage(frame.message);
+                } finally {
+                    sendStartTime = 0;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("세션 전송 실패 : session={}", getId(), e);
+            if (closeStatus != null) {
+                // 이미 닫는 중인 세션 (상대가 먼저 끊은 경우 등) 은 느린 세션으로 세지 않음
+                limitExceeded = true;
+                clear();
+                closeDelegate(closeStatus);
+            } else {
+                terminate("전송 실패");
+            }
+        } finally {
+            draining.set(false);
+        }
+        // 마지막 확인 이후 들어온 프레임이나 close 요청
+        if (!limitExceeded && (closeStatus != null || getQueuedFrames() > 0)) {
+            scheduleDrain();
+        }
+    }
+
+    private void terminate(String reason) {
+        if (limitExceeded) {
+            return;
+        }
+        limitExceeded = true;
+        clear();
+        limiter.slowConsumerClosed();
+        log.info("느린 세션 연결 종료 ({}) : session={}", reason, getId());
+        closeDelegate(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    /**
+     * close 요청 후 버퍼가 비었으면 연결 종료
+     */
+    private void closeIfRequested() {
+        if (closeStatus != null && !limitExceeded) {
+            limitExceeded = true;
+            closeDelegate(closeStatus);
+        }
+    }
+
+    private void closeDelegate(CloseStatus status) {
+        try {
+            getDelegate().close(status);
+        } catch (IOException | RuntimeException e) {
+            log.debug("세션 종료 실패 : session={}", getId(), e);
+        }
+    }
+
+    private void clear() {
+        synchronized (buffer) {
+            buffer.clear();
+            bufferSize = 0;
+        }
+    }
+
+    /**
+     * 인코딩된 STOMP MESSAGE 프레임의 destination 이 /sub/map/** 인지 (헤더 부분만 확인)
+     */
+    private static boolean isMapUpdate(WebSocketMessage<?> message) {
+        String head;
+        if (message instanceof TextMessage text) {
+            String payload = text.getPayload();
+            head = payload.substring(0, Math.min(payload.length(), 256));
+        } else if (message instanceof BinaryMessage binary) {
+            ByteBuffer payload = binary.getPayload().duplicate();
+            byte[] bytes = new byte[Math.min(payload.remaining(), 256)];
+            payload.get(bytes);
+            head = new String(bytes, StandardCharsets.ISO_8859_1);
+        } else {
+            return false;
+        }
+        int headerEnd = head.indexOf("\n\n");
+        int destination = head.indexOf(MAP_DESTINATION_HEADER);
+        return head.startsWith("MESSAGE\n") && destination >= 0 && (headerEnd < 0 || destination < headerEnd);
+    }
+
+    private record Frame(WebSocketMessage<?> message, boolean mapUpdate) {
+    }
+}
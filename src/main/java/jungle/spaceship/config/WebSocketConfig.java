@@ -1,16 +1,30 @@
 package jungle.spaceship.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import jungle.spaceship.gameMap.MapRelayInterceptor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.broker.OrderedMessageChannelDecorator;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import java.util.List;
+import java.util.concurrent.RejectedExecutionHandler;
+
 /**
  *  WebSocketConfig
  *  Web Socket 을 사용 하는 기능에 있어 필요한 설정을 담당
@@ -24,7 +38,32 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @EnableWebSocketMessageBroker
 @RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private static final String MAP_DESTINATION_PREFIX = "/sub/map/";
+
     private final WebSocketInterceptor webSocketInterceptor;
+    private final ObjectProvider<RedisBrokerRelay> redisBrokerRelay;
+    private final ObjectProvider<OutboundCoalescingInterceptor> outboundCoalescingInterceptor;
+    private final ObjectProvider<MapRelayInterceptor> mapRelayInterceptor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${websocket.inbound.room-stripes:8}")
+    private int roomStripes;
+    @Value("${websocket.inbound.room-queue:1000}")
+    private int roomQueue;
+    @Value("${websocket.inbound.room-put-timeout-ms:1000}")
+    private long roomPutTimeoutMillis;
+    @Value("${websocket.inbound.core-pool-size:16}")
+    private int inboundCorePoolSize;
+    @Value("${websocket.inbound.max-pool-size:64}")
+    private int inboundMaxPoolSize;
+    @Value("${websocket.inbound.queue-capacity:10000}")
+    private int inboundQueueCapacity;
+    @Value("${websocket.outbound.core-pool-size:16}")
+    private int outboundCorePoolSize;
+    @Value("${websocket.outbound.max-pool-size:64}")
+    private int outboundMaxPoolSize;
+    @Value("${websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config){
@@ -32,8 +71,18 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // /sub : Prefix 가 붙은 메시지가 송신되었을 때, 그 메시지를 브로커가 처리하겠다는 의미
         config.enableSimpleBroker("/sub");
 
+        // websocket.broker.relay=redis : 서버 간 메시지 전달을 위해 서버 발행 메시지를 Redis 채널로 보냄
+        // binary 지도 구독자가 있으면 다른 서버에서 움직인 위치도 이 서버에서 binary 로 인코딩해 전송
+        redisBrokerRelay.ifAvailable(relay -> {
+            config.configureBrokerChannel().interceptors(relay);
+            mapRelayInterceptor.ifAvailable(config.configureBrokerChannel()::interceptors);
+        });
+
         // setApplicationDestinationPrefixes : 바로 브로커가 아닌, 메시지에 어떤 처리/가공이 필요한 경우 해당 경로를 처리하고 있는 핸들러로 전달
         config.setApplicationDestinationPrefixes("/pub");
+
+        // 브로커가 세션에 보내는 메시지는 발행 순서대로 전송 (전송 스레드 풀에서 순서가 바뀌지 않도록)
+        config.setPreservePublishOrder(true);
     }
 
     @Override
@@ -44,7 +93,68 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(webSocketInterceptor);
+        // 같은 채팅방의 /pub/chat 메시지는 도착 순서대로 처리
+        RoomStripedTaskExecutor executor = new RoomStripedTaskExecutor(roomStripes, roomQueue, roomPutTimeoutMillis, meterRegistry);
+        registration.taskExecutor(executor)
+                .corePoolSize(inboundCorePoolSize)
+                .maxPoolSize(inboundMaxPoolSize)
+                .queueCapacity(inboundQueueCapacity);
+        bindPoolMetrics("inbound", executor);
     }
 
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // websocket.coalesce.enabled=true : 원하는 구독에 한해 채팅/지도 메시지를 묶어서 전송
+        outboundCoalescingInterceptor.ifAvailable(registration::interceptors);
 
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("clientOutboundChannel-");
+        executor.setRejectedExecutionHandler(outboundRejected());
+        registration.taskExecutor(executor)
+                .corePoolSize(outboundCorePoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+        bindPoolMetrics("outbound", executor);
+    }
+
+    /**
+     * 전송 스레드 풀/대기열이 가득 찬 경우
+     * - 지도(/sub/map/**) 메시지는 곧 다음 tick 이 오므로 버림 (발행 순서 유지 중이면 그 세션의 다음 메시지는 이어서 전송)
+     * - 채팅 등 나머지는 잃지 않도록 보낸 스레드에서 직접 처리 (세션 데코레이터가 버퍼에 넣기만 하므로 오래 걸리지 않음)
+     */
+    private RejectedExecutionHandler outboundRejected() {
+        Counter mapRejected = meterRegistry.counter("websocket.outbound.rejected", "type", "map");
+        Counter otherRejected = meterRegistry.counter("websocket.outbound.rejected", "type", "other");
+        return (task, pool) -> {
+            if (pool.isShutdown()) {
+                return;
+            }
+            if (task instanceof MessageHandlingRunnable runnable && isMapMessage(runnable.getMessage())) {
+                mapRejected.increment();
+                Runnable next = OrderedMessageChannelDecorator.getNextMessageTask(runnable.getMessage());
+                if (next != null) {
+                    next.run();
+                }
+                return;
+            }
+            otherRejected.increment();
+            task.run();
+        };
+    }
+
+    private static boolean isMapMessage(Message<?> message) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        return destination != null && destination.startsWith(MAP_DESTINATION_PREFIX);
+    }
+
+    /**
+     * 채널 스레드 풀 포화 정도 (사용 중 스레드 / 대기 작업 수)
+     */
+    private void bindPoolMetrics(String channel, ThreadPoolTaskExecutor executor) {
+        List<Tag> tags = List.of(Tag.of("channel", channel));
+        meterRegistry.gauge("websocket.channel.pool.active", tags, executor, ThreadPoolTaskExecutor::getActiveCount);
+        meterRegistry.gauge("websocket.channel.pool.size", tags, executor, ThreadPoolTaskExecutor::getPoolSize);
+        meterRegistry.gauge("websocket.channel.pool.max", tags, executor, ThreadPoolTaskExecutor::getMaxPoolSize);
+        meterRegistry.gauge("websocket.channel.queue.size", tags, executor, ThreadPoolTaskExecutor::getQueueSize);
+    }
 }
@@ -0,0 +1,102 @@
+package jungle.spaceship.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+
+import javax.websocket.Session;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * WebSocket 세션 전송 제한 설정과 전송 스레드
+ * - 세션을 SlowConsumerSessionDecorator 로 감싸 세션별 전송 버퍼 크기/전송 시간을 제한
+ * - 전송 스레드는 blocking 전송을 하므로 Tomcat 세션에 전송 timeout(send-time-limit)을 걸어,
+ *   응답하지 않는 클라이언트가 전송 스레드를 계속 붙잡지 못하게 함 (timeout 이 나면 느린 세션으로 연결 종료)
+ */
+@Component
+public class WebSocketSessionLimiter implements DisposableBean {
+
+    private static final String BLOCKING_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    @Getter
+    private final int sendTimeLimit;
+    @Getter
+    private final int sendBufferSizeLimit;
+    private final ExecutorService sender;
+
+    // 세션 Id -> 전송 버퍼를 둔 세션
+    private final Map<String, SlowConsumerSessionDecorator> sessions = new ConcurrentHashMap<>();
+
+    private final Counter mapUpdatesDropped;
+    private final Counter slowConsumersClosed;
+
+    public WebSocketSessionLimiter(MeterRegistry meterRegistry,
+                                   @Value("${websocket.session.send-time-limit-ms:10000}") int sendTimeLimit,
+                                   @Value("${websocket.session.send-buffer-size-limit:524288}") int sendBufferSizeLimit,
+                                   @Value("${websocket.session.sender-threads:16}") int senderThreads) {
+        this.sendTimeLimit = sendTimeLimit;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.sender = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("websocket-sender-"));
+        this.mapUpdatesDropped = meterRegistry.counter("websocket.session.dropped", "type", "map");
+        this.slowConsumersClosed = meterRegistry.counter("websocket.session.slow.closed");
+        meterRegistry.gauge("websocket.session.queued.frames", sessions,
+                map -> map.values().stream().mapToInt(SlowConsumerSessionDecorator::getQueuedFrames).sum());
+        meterRegistry.gauge("websocket.session.queued.frames.max", sessions,
+                map -> map.values().stream().mapToInt(SlowConsumerSessionDecorator::getQueuedFrames).max().orElse(0));
+    }
+
+    public SlowConsumerSessionDecorator decorate(WebSocketSession session) {
+        limitBlockingSend(session);
+        SlowConsumerSessionDecorator decorated = new SlowConsumerSessionDecorator(session, this);
+        sessions.put(session.getId(), decorated);
+        return decorated;
+    }
+
+    public WebSocketSession decorated(WebSocketSession session) {
+        WebSocketSession decorated = sessions.get(session.getId());
+        return decorated != null ? decorated : session;
+    }
+
+    public void remove(WebSocketSession session) {
+        sessions.remove(session.getId());
+    }
+
+    /**
+     * 전송 한 번의 최대 대기 시간 (Tomcat 기본값 20초 대신 send-time-limit)
+     */
+    private void limitBlockingSend(WebSocketSession session) {
+        if (session instanceof NativeWebSocketSession nativeSession) {
+            Session standard = nativeSession.getNativeSession(Session.class);
+            if (standard != null) {
+                standard.getUserProperties().put(BLOCKING_SEND_TIMEOUT, (long) sendTimeLimit);
+            }
+        }
+    }
+
+    void execute(Runnable task) {
+        sender.execute(task);
+    }
+
+    void mapUpdateDropped() {
+        mapUpdatesDropped.increment();
+    }
+
+    void slowConsumerClosed() {
+        slowConsumersClosed.increment();
+    }
+
+    @Override
+    public void destroy() {
+        sender.shutdown();
+    }
+}
@@ -0,0 +1,61 @@
+package jungle.spaceship.gameMap;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 가족 지도 위치 공유 (Redis Hash : map:family:{familyId} -> alienId, "x,y,갱신 시각 ms")
+ * - 다른 서버에 접속한 가족의 위치를 입장 시 불러오기 위해 사용
+ */
+@Repository
+@RequiredArgsConstructor
+public class FamilyMapRepository {
+
+    private static final String KEY_PREFIX = "map:family:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * 여러 가족의 위치를 한 번에 저장
+     */
+    public void saveAll(Map<Long, List<Position>> families, long ttlMillis) {
+        if (families.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            families.forEach((familyId, positions) -> {
+                String key = key(familyId);
+                positions.forEach(position -> redis.hSet(key, String.valueOf(position.alienId()),
+                        position.x() + "," + position.y() + "," + position.updatedAt()));
+                redis.pExpire(key, ttlMillis);
+            });
+            return null;
+        });
+    }
+
+    public List<Position> findAll(Long familyId) {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(key(familyId));
+        List<Position> positions = new ArrayList<>(entries.size());
+        entries.forEach((alienId, value) -> {
+            String[] parts = value.toString().split(",");
+            positions.add(new Position(Long.parseLong(alienId.toString()),
+                    Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), Long.parseLong(parts[2])));
+        });
+        return positions;
+    }
+
+    private static String key(Long familyId) {
+        return KEY_PREFIX + familyId;
+    }
+
+    public record Position(long alienId, double x, double y, long updatedAt) {
+    }
+}
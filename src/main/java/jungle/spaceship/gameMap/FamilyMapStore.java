@@ -0,0 +1,359 @@
+package jungle.spaceship.gameMap;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 가족 지도 위치 저장소
+ * - 가족마다 외계인 slot 별 배열(alienId, x, y, 갱신 시각)로 마지막 위치를 보관
+ * - /sub/map/{familyId} 구독(SUBSCRIBE) 시 현재 위치 전체를 전송 : 다른 가족이 움직이기 전에도 위치가 보임
+ *   : 이동 프레임보다 늦게 도착해 이전 위치로 되돌리지 않도록 이동과 같은 경로(브로커, tick 사용 시 다음 tick 프레임)로 보냄
+ * - 위치는 flush-interval-ms 마다 바뀐 것만 Redis(FamilyMapRepository)에 저장 (자주 움직여도 주기당 한 번),
+ *   입장 시 Redis 위치와 합쳐 다른 서버에 접속한 가족의 위치도 보여줌 (Redis 조회는 WebSocket 스레드가 아닌 map-join 스레드에서)
+ * - 지도 충돌 정보(WalkabilityMaps)가 있으면 이동마다 이전 위치에서 지나갈 수 있는지 검사해 거부하거나 벽 앞까지로 제한
+ *   (이전 위치 이후 지난 시간으로 이동 거리도 제한)
+ * - 이 서버에 구독 중인 세션이 없는 가족은 저장 후 메모리에서 제거
+ */
+@Slf4j
+@Component
+public class FamilyMapStore implements DisposableBean {
+
+    private static final String MAP_DESTINATION_PREFIX = "/sub/map/";
+    private static final String BINARY_SUFFIX = "/bin";
+
+    private final FamilyMapRepository familyMapRepository;
+    private final WalkabilityMaps walkabilityMaps;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final ObjectProvider<MapBinaryPublisher> mapBinaryPublisher;
+    private final ObjectProvider<MapTickEngine> mapTickEngine;
+    private final long ttlMillis;
+    private final ExecutorService joinExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("map-join-"));
+
+    private final Map<Long, FamilyState> families = new ConcurrentHashMap<>();
+    // 가족 Id -> 이 서버의 구독 "sessionId:subscriptionId"
+    private final Map<Long, Set<String>> subscribers = new ConcurrentHashMap<>();
+
+    private final Counter rejected;
+    private final Counter clamped;
+
+    public FamilyMapStore(FamilyMapRepository familyMapRepository,
+                          WalkabilityMaps walkabilityMaps,
+                          MeterRegistry meterRegistry,
+                          @Lazy SimpMessageSendingOperations messagingTemplate,
+                          ObjectProvider<MapBinaryPublisher> mapBinaryPublisher,
+                          ObjectProvider<MapTickEngine> mapTickEngine,
+                          @Value("${map.store.ttl-minutes:60}") long ttlMinutes) {
+        this.familyMapRepository = familyMapRepository;
+        this.walkabilityMaps = walkabilityMaps;
+        this.rejected = meterRegistry.counter("map.move.rejected", "map", WalkabilityMaps.FAMILY);
+        this.clamped = meterRegistry.counter("map.move.clamped", "map", WalkabilityMaps.FAMILY);
+        this.messagingTemplate = messagingTemplate;
+        this.mapBinaryPublisher = mapBinaryPublisher;
+        this.mapTickEngine = mapTickEngine;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+    }
+
+    /**
+     * 이동 반영 : 지도 충돌 정보가 있으면 이전 위치에서 지나갈 수 있는지 검사
+     * @return 반영한 위치 (막힌 칸 앞까지만 이동하면 그 위치), 거부하면 null
+     */
+    public GameMapDto update(GameMapDto position) {
+        if (position.getFamilyId() == null || position.getAlienId() == null) {
+            return position;
+        }
+        FamilyState family = families.computeIfAbsent(position.getFamilyId(), id -> new FamilyState());
+        GameMapDto accepted = family.move(position, walkabilityMaps.get(WalkabilityMaps.FAMILY), System.currentTimeMillis());
+        if (accepted == null) {
+            rejected.increment();
+        } else if (accepted != position) {
+            clamped.increment();
+        }
+        return accepted;
+    }
+
+    /**
+     * 다른 서버에서 움직인 위치 반영 (이 서버에 구독 중인 가족만, Redis 저장은 움직인 서버가 함)
+     */
+    public void merge(Long familyId, List<GameMapDto> positions) {
+        FamilyState family = families.get(familyId);
+        if (family == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (GameMapDto position : positions) {
+            if (position.getAlienId() != null) {
+                family.put(position.getAlienId(), position.getX(), position.getY(), now, false);
+            }
+        }
+    }
+
+    /**
+     * 가족 외계인들의 마지막 위치
+     */
+    public List<GameMapDto> positions(Long familyId) {
+        FamilyState family = families.get(familyId);
+        return family == null ? List.of() : family.positions(familyId);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        boolean binary = destination != null && destination.endsWith(BINARY_SUFFIX);
+        Long familyId = familyIdOf(destination, binary);
+        if (familyId == null) {
+            return;
+        }
+        String sessionId = accessor.getSessionId();
+        String subscriptionId = accessor.getSubscriptionId();
+        subscribers.computeIfAbsent(familyId, id -> ConcurrentHashMap.newKeySet()).add(sessionId + ":" + subscriptionId);
+        if (binary) {
+            mapBinaryPublisher.ifAvailable(publisher -> publisher.subscribe(familyId, sessionId, subscriptionId));
+        }
+
+        FamilyState family = families.computeIfAbsent(familyId, id -> new FamilyState());
+        try {
+            joinExecutor.execute(() -> join(familyId, family));
+        } catch (RejectedExecutionException e) {
+            log.debug("종료 중이라 입장 위치를 보내지 않음 : familyId={}", familyId);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String key = accessor.getSessionId() + ":" + accessor.getSubscriptionId();
+        subscribers.values().forEach(keys -> keys.remove(key));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + ":";
+        subscribers.values().forEach(keys -> keys.removeIf(key -> key.startsWith(prefix)));
+    }
+
+    /**
+     * 바뀐 위치를 Redis 에 저장하고, 구독 세션이 없는 가족은 메모리에서 제거
+     */
+    @Scheduled(fixedDelayString = "${map.store.flush-interval-ms:1000}")
+    public void flush() {
+        Map<Long, List<FamilyMapRepository.Position>> dirty = new HashMap<>();
+        families.forEach((familyId, family) -> {
+            List<FamilyMapRepository.Position> positions = family.drainDirty();
+            if (!positions.isEmpty()) {
+                dirty.put(familyId, positions);
+            }
+        });
+        try {
+            familyMapRepository.saveAll(dirty, ttlMillis);
+        } catch (Exception e) {
+            // 다음 주기에 다시 저장
+            dirty.forEach((familyId, positions) -> {
+                FamilyState family = families.get(familyId);
+                if (family != null) {
+                    family.markDirty(positions);
+                }
+            });
+            log.warn("가족 지도 위치 저장 실패 : {}가족", dirty.size(), e);
+            return;
+        }
+
+        subscribers.values().removeIf(Set::isEmpty);
+        families.entrySet().removeIf(entry -> !subscribers.containsKey(entry.getKey()) && !entry.getValue().hasDirty());
+    }
+
+    @Override
+    public void destroy() {
+        joinExecutor.shutdownNow();
+    }
+
+    /**
+     * 입장 시 Redis 위치를 합친 뒤 현재 위치 전체 전송
+     * - tick 사용 시 다음 tick 에 움직인 외계인 대신 전체 위치를 보냄 (binary 구독자는 그 tick 에 keyframe)
+     * - 아니면 기존처럼 외계인마다 GameMapDto 를 가족 지도로 전송
+     */
+    private void join(Long familyId, FamilyState family) {
+        try {
+            // 다른 서버에서 움직인 가족 위치 (더 최근 위치만 반영)
+            familyMapRepository.findAll(familyId)
+                    .forEach(position -> family.put(position.alienId(), position.x(), position.y(), position.updatedAt(), false));
+        } catch (Exception e) {
+            log.warn("가족 지도 위치 조회 실패 (이 서버 위치만 전송) : familyId={}", familyId, e);
+        }
+
+        MapTickEngine engine = mapTickEngine.getIfAvailable();
+        if (engine != null) {
+            engine.sendAll(familyId);
+            return;
+        }
+        try {
+            sendPositions(familyId, family);
+        } catch (RuntimeException e) {
+            log.warn("입장 지도 위치 전송 실패 : familyId={}", familyId, e);
+        }
+    }
+
+    /**
+     * 이동과 같은 경로(브로커)로 전송하고, 보내는 사이 움직인 외계인은 다시 읽어 한 번 더 보냄
+     * : 이동 프레임이 먼저 전송됐더라도 마지막으로 받는 위치는 최신 위치
+     */
+    private void sendPositions(Long familyId, FamilyState family) {
+        String destination = MAP_DESTINATION_PREFIX + familyId;
+        List<GameMapDto> sent = family.positions(familyId);
+        sent.forEach(position -> messagingTemplate.convertAndSend(destination, position));
+
+        List<GameMapDto> current = family.positions(familyId);
+        for (int i = 0; i < current.size(); i++) {
+            GameMapDto position = current.get(i);
+            if (i >= sent.size() || position.getX() != sent.get(i).getX() || position.getY() != sent.get(i).getY()) {
+                messagingTemplate.convertAndSend(destination, position);
+            }
+        }
+    }
+
+    private static Long familyIdOf(String destination, boolean binary) {
+        if (destination == null || !destination.startsWith(MAP_DESTINATION_PREFIX)) {
+            return null;
+        }
+        int end = destination.length() - (binary ? BINARY_SUFFIX.length() : 0);
+        try {
+            return Long.valueOf(destination.substring(MAP_DESTINATION_PREFIX.length(), end));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 가족 한 곳의 외계인 위치 (slot 별 배열, 가족 인원이 적어 선형 탐색)
+     */
+    private static final class FamilyState {
+        private long[] alienIds = new long[4];
+        private double[] xs = new double[4];
+        private double[] ys = new double[4];
+        private long[] updatedAt = new long[4];
+        private boolean[] dirty = new boolean[4];
+        private int size;
+
+        private synchronized GameMapDto move(GameMapDto position, WalkabilityGrid grid, long at) {
+            long alienId = position.getAlienId();
+            double x = position.getX();
+            double y = position.getY();
+            if (grid != null) {
+                int slot = slotOf(alienId);
+                double t = slot < 0 ? (grid.isWalkable(x, y) ? 1 : -1)
+                        : grid.reachable(xs[slot], ys[slot], x, y, at - updatedAt[slot]);
+                if (t < 0) {
+                    return null;
+                }
+                if (t < 1) {
+                    x = xs[slot] + (x - xs[slot]) * t;
+                    y = ys[slot] + (y - ys[slot]) * t;
+                }
+            }
+            put(alienId, x, y, at, true);
+            if (x == position.getX() && y == position.getY()) {
+                return position;
+            }
+            GameMapDto clamped = new GameMapDto(x, y, position.getFamilyId());
+            clamped.setAlienId(alienId);
+            clamped.setSentAt(position.getSentAt());
+            return clamped;
+        }
+
+        private synchronized void put(long alienId, double x, double y, long at, boolean markDirty) {
+            int slot = slotOf(alienId);
+            if (slot < 0) {
+                if (size == alienIds.length) {
+                    grow();
+                }
+                slot = size++;
+                alienIds[slot] = alienId;
+            } else if (updatedAt[slot] > at) {
+                return;
+            }
+            xs[slot] = x;
+            ys[slot] = y;
+            updatedAt[slot] = at;
+            dirty[slot] |= markDirty;
+        }
+
+        private synchronized List<GameMapDto> positions(Long familyId) {
+            List<GameMapDto> positions = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                GameMapDto position = new GameMapDto(xs[i], ys[i], familyId);
+                position.setAlienId(alienIds[i]);
+                positions.add(position);
+            }
+            return positions;
+        }
+
+        private synchronized List<FamilyMapRepository.Position> drainDirty() {
+            List<FamilyMapRepository.Position> positions = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                if (dirty[i]) {
+                    positions.add(new FamilyMapRepository.Position(alienIds[i], xs[i], ys[i], updatedAt[i]));
+                    dirty[i] = false;
+                }
+            }
+            return positions;
+        }
+
+        private synchronized void markDirty(List<FamilyMapRepository.Position> positions) {
+            for (FamilyMapRepository.Position position : positions) {
+                int slot = slotOf(position.alienId());
+                if (slot >= 0) {
+                    dirty[slot] = true;
+                }
+            }
+        }
+
+        private synchronized boolean hasDirty() {
+            for (int i = 0; i < size; i++) {
+                if (dirty[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int slotOf(long alienId) {
+            for (int i = 0; i < size; i++) {
+                if (alienIds[i] == alienId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void grow() {
+            int capacity = alienIds.length * 2;
+            alienIds = Arrays.copyOf(alienIds, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            updatedAt = Arrays.copyOf(updatedAt, capacity);
+            dirty = Arrays.copyOf(dirty, capacity);
+        }
+    }
+}
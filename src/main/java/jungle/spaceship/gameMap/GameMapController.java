@@ -2,8 +2,10 @@ package jungle.spaceship.gameMap;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.web.bind.annotation.RestController;
 
 @Slf4j
@@ -12,11 +14,31 @@ import org.springframework.web.bind.annotation.RestController;
 public class GameMapController {
 
     private final SimpMessageSendingOperations messagingTemplate;
+    private final FamilyMapStore familyMapStore;
+    private final ObjectProvider<MapTickEngine> mapTickEngine;
+    private final ObjectProvider<MapBinaryPublisher> mapBinaryPublisher;
 
     // 게임방 입장할 때 보내는 데이터
+    // map.tick.enabled=true 이면 바로 보내지 않고 tick 마다 움직인 외계인만 모아서 전송 (MapSnapshotDto)
     @MessageMapping("/map")
     public void gameMap(GameMapDto gameMapDto){
-        messagingTemplate.convertAndSend("/sub/map/" + gameMapDto.getFamilyId(), gameMapDto);
+        // 지나갈 수 없는 이동은 무시, 벽에 막히면 벽 앞까지만
+        GameMapDto position = familyMapStore.update(gameMapDto);
+        if (position == null) {
+            return;
+        }
+        MapTickEngine engine = mapTickEngine.getIfAvailable();
+        if (engine != null) {
+            engine.update(position);
+            return;
+        }
+        messagingTemplate.convertAndSend("/sub/map/" + position.getFamilyId(), position);
 
     }
+
+    // binary 지도 프레임(/sub/map/{familyId}/bin) 수신 확인
+    @MessageMapping("/map/ack")
+    public void ack(MapAckDto ack, StompHeaderAccessor accessor){
+        mapBinaryPublisher.ifAvailable(publisher -> publisher.ack(accessor.getSessionId(), ack));
+    }
 }
@@ -1,5 +1,6 @@
 package jungle.spaceship.gameMap;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -12,5 +13,9 @@ public class GameMapDto {
     private final Long familyId;
     @Setter
     private Long alienId;
+    // 클라이언트가 보낸 시각 (선택) : 이 이동을 전달할 때 그대로 돌려줘 전송 지연을 잴 수 있게 함
+    @Setter
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long sentAt;
 
 }
@@ -0,0 +1,14 @@
+package jungle.spaceship.gameMap;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * binary 지도 프레임 수신 확인 (/pub/map/ack) : 이후 delta 는 이 seq 의 snapshot 을 기준으로 인코딩
+ */
+@Getter
+@RequiredArgsConstructor
+public class MapAckDto {
+    private final Long familyId;
+    private final int seq;
+}
@@ -0,0 +1,179 @@
+package jungle.spaceship.gameMap;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * binary 지도 프레임 전송 (MapTickEngine 의 tick 마다)
+ * - /sub/map/{familyId}/bin 을 구독한(FamilyMapStore 에서 등록) 세션에만 세션별로 인코딩해 clientOutboundChannel 로 직접 전송
+ * - 세션마다 마지막으로 ack 한 snapshot 대비 delta 를 보내고, keyframe-interval tick 마다 또는 기준이 없으면 keyframe
+ * - /sub/map/{familyId} 를 구독한 기존 클라이언트는 그대로 JSON(MapSnapshotDto)을 받음
+ * - 다른 서버에서 움직인 위치도 MapRelayInterceptor 가 FamilyMapStore 에 반영한 뒤 MapTickEngine 이 tick 스레드에서 publish
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "map.tick.enabled", havingValue = "true")
+public class MapBinaryPublisher {
+
+    private static final String MAP_DESTINATION_PREFIX = "/sub/map/";
+    private static final String BINARY_SUFFIX = "/bin";
+    private static final int HISTORY_SIZE = 32;
+
+    private final MessageChannel clientOutboundChannel;
+    private final MapFrameCodec codec;
+    private final int keyframeInterval;
+
+    // 가족 Id -> ("sessionId:subscriptionId" -> 구독 상태)
+    private final Map<Long, Map<String, Subscriber>> families = new ConcurrentHashMap<>();
+
+    private final Counter keyframes;
+    private final Counter deltas;
+    private final Counter bytes;
+
+    public MapBinaryPublisher(@Lazy @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                              MeterRegistry meterRegistry,
+                              @Value("${map.binary.origin-x:0}") double originX,
+                              @Value("${map.binary.origin-y:0}") double originY,
+                              @Value("${map.binary.scale:16}") double scale,
+                              @Value("${map.binary.keyframe-interval:30}") int keyframeInterval) {
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.codec = new MapFrameCodec(originX, originY, scale);
+        this.keyframeInterval = keyframeInterval;
+        this.keyframes = meterRegistry.counter("map.binary.frames", "type", "keyframe");
+        this.deltas = meterRegistry.counter("map.binary.frames", "type", "delta");
+        this.bytes = meterRegistry.counter("map.binary.bytes");
+    }
+
+    /**
+     * 가족의 binary 구독자에게 현재 위치 전송
+     */
+    public void publish(Long familyId, List<GameMapDto> latest) {
+        Map<String, Subscriber> subscribers = families.get(familyId);
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        MapFrameCodec.Snapshot snapshot = codec.snapshot(latest);
+        for (Subscriber subscriber : subscribers.values()) {
+            send(familyId, subscriber, snapshot);
+        }
+    }
+
+    public boolean hasSubscribers(Long familyId) {
+        Map<String, Subscriber> subscribers = families.get(familyId);
+        return subscribers != null && !subscribers.isEmpty();
+    }
+
+    /**
+     * /sub/map/{familyId}/bin 구독 등록 (FamilyMapStore 가 입장 시 호출)
+     * - 첫 프레임(keyframe)은 다음 tick 에 tick 스레드에서 보냄 : 이후 delta 보다 늦게 전송되지 않음
+     */
+    public void subscribe(Long familyId, String sessionId, String subscriptionId) {
+        Subscriber subscriber = new Subscriber(sessionId, subscriptionId);
+        families.computeIfAbsent(familyId, id -> new ConcurrentHashMap<>()).put(sessionId + ":" + subscriptionId, subscriber);
+    }
+
+    private void send(Long familyId, Subscriber subscriber, MapFrameCodec.Snapshot snapshot) {
+        byte[] frame = subscriber.encode(snapshot);
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(subscriber.sessionId);
+        accessor.setSubscriptionId(subscriber.subscriptionId);
+        accessor.setDestination(MAP_DESTINATION_PREFIX + familyId + BINARY_SUFFIX);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        try {
+            clientOutboundChannel.send(MessageBuilder.createMessage(frame, accessor.getMessageHeaders()));
+            bytes.increment(frame.length);
+        } catch (RuntimeException e) {
+            log.warn("binary 지도 프레임 전송 실패 : session={}", subscriber.sessionId, e);
+        }
+    }
+
+    public void ack(String sessionId, MapAckDto ack) {
+        Map<String, Subscriber> subscribers = ack.getFamilyId() == null ? null : families.get(ack.getFamilyId());
+        if (subscribers == null) {
+            return;
+        }
+        subscribers.values().stream()
+                .filter(subscriber -> subscriber.sessionId.equals(sessionId))
+                .forEach(subscriber -> subscriber.ack(ack.getSeq()));
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String key = accessor.getSessionId() + ":" + accessor.getSubscriptionId();
+        families.values().forEach(subscribers -> subscribers.remove(key));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + ":";
+        families.values().forEach(subscribers -> subscribers.keySet().removeIf(key -> key.startsWith(prefix)));
+        families.values().removeIf(Map::isEmpty);
+    }
+
+    private final class Subscriber {
+        private final String sessionId;
+        private final String subscriptionId;
+        // 최근 보낸 snapshot (seq % HISTORY_SIZE) : ack 한 seq 를 delta 기준으로 사용
+        private final MapFrameCodec.Snapshot[] history = new MapFrameCodec.Snapshot[HISTORY_SIZE];
+        private final int[] historySeq = new int[HISTORY_SIZE];
+        private int seq;
+        private int ackedSeq = -1;
+        private int sinceKeyframe;
+
+        private Subscriber(String sessionId, String subscriptionId) {
+            this.sessionId = sessionId;
+            this.subscriptionId = subscriptionId;
+            Arrays.fill(historySeq, -1);
+        }
+
+        private synchronized byte[] encode(MapFrameCodec.Snapshot snapshot) {
+            int current = ++seq;
+            MapFrameCodec.Snapshot base = ackedSeq >= 0 && historySeq[ackedSeq % HISTORY_SIZE] == ackedSeq
+                    ? history[ackedSeq % HISTORY_SIZE] : null;
+
+            int deltaSize = base != null && sinceKeyframe < keyframeInterval ? codec.deltaSize(base, snapshot) : -1;
+            byte[] frame;
+            if (deltaSize >= 0) {
+                frame = new byte[deltaSize];
+                codec.encodeDelta(ByteBuffer.wrap(frame), current, ackedSeq, base, snapshot);
+                sinceKeyframe++;
+                deltas.increment();
+            } else {
+                frame = new byte[codec.keyframeSize(snapshot)];
+                codec.encodeKeyframe(ByteBuffer.wrap(frame), current, snapshot);
+                sinceKeyframe = 0;
+                keyframes.increment();
+            }
+            history[current % HISTORY_SIZE] = snapshot;
+            historySeq[current % HISTORY_SIZE] = current;
+            return frame;
+        }
+
+        private synchronized void ack(int ackSeq) {
+            if (ackSeq > ackedSeq && ackSeq <= seq) {
+                ackedSeq = ackSeq;
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package jungle.spaceship.gameMap;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * 지도 위치 binary 프레임 인코더
+ * - 좌표는 (값 - origin) * scale 을 16bit 고정 소수점(0 ~ 65535)으로 양자화
+ * - keyframe : 모든 외계인의 양자화 좌표, delta : 기준 snapshot(클라이언트가 마지막으로 ack 한 seq) 대비 바뀐 외계인의 좌표 차이만
+ *
+ * keyframe : [0x01][seq 4B][originX f32][originY f32][scale f32][count 1B] (alienId varint, x u16, y u16) ...
+ * delta    : [0x02][seq 4B][baseSeq 4B][count 1B] (alienId varint, dx zigzag varint, dy zigzag varint) ...
+ *   dx, dy 는 16bit 값의 차이 (x = (base + dx) & 0xFFFF)
+ * - 전송할 프레임은 큐에 쌓인 뒤 비동기로 전송되므로 재사용할 수 없음 : keyframeSize/deltaSize 로 크기를 먼저 구해
+ *   딱 맞는 byte[] 에 바로 인코딩 (프레임마다 전송할 byte[] 하나만 할당하고 복사하지 않음)
+ */
+public final class MapFrameCodec {
+
+    public static final byte KEYFRAME = 0x01;
+    public static final byte DELTA = 0x02;
+    public static final int MAX_ALIENS = 255;
+
+    private static final int KEYFRAME_HEADER_SIZE = 18;
+    private static final int DELTA_HEADER_SIZE = 10;
+
+    private final double originX;
+    private final double originY;
+    private final double scale;
+
+    public MapFrameCodec(double originX, double originY, double scale) {
+        this.originX = originX;
+        this.originY = originY;
+        this.scale = scale;
+    }
+
+    /**
+     * 외계인 위치를 양자화해 (x << 16 | y) 로 묶음
+     */
+    public int quantize(double x, double y) {
+        return quantizeAxis(x, originX) << 16 | quantizeAxis(y, originY);
+    }
+
+    private int quantizeAxis(double value, double origin) {
+        long q = Math.round((value - origin) * scale);
+        return (int) Math.max(0, Math.min(0xFFFF, q));
+    }
+
+    public Snapshot snapshot(List<GameMapDto> positions) {
+        int count = Math.min(positions.size(), MAX_ALIENS);
+        long[] alienIds = new long[count];
+        int[] packed = new int[count];
+        for (int i = 0; i < count; i++) {
+            GameMapDto position = positions.get(i);
+            alienIds[i] = position.getAlienId();
+            packed[i] = quantize(position.getX(), position.getY());
+        }
+        return new Snapshot(alienIds, packed);
+    }
+
+    public int keyframeSize(Snapshot snapshot) {
+        int size = KEYFRAME_HEADER_SIZE;
+        for (int i = 0; i < snapshot.size(); i++) {
+            size += varLongSize(snapshot.alienIds[i]) + 4;
+        }
+        return size;
+    }
+
+    /**
+     * @return base 에 없는 외계인이 있어 delta 로 표현할 수 없으면 -1 (keyframe 을 보내야 함)
+     */
+    public int deltaSize(Snapshot base, Snapshot snapshot) {
+        int size = DELTA_HEADER_SIZE;
+        for (int i = 0; i < snapshot.size(); i++) {
+            int b = base.indexOf(snapshot.alienIds[i]);
+            if (b < 0) {
+                return -1;
+            }
+            int current = snapshot.packed[i];
+            int previous = base.packed[b];
+            if (current != previous) {
+                size += varLongSize(snapshot.alienIds[i])
+                        + zigZagSize((short) ((current >>> 16) - (previous >>> 16)))
+                        + zigZagSize((short) ((current & 0xFFFF) - (previous & 0xFFFF)));
+            }
+        }
+        return size;
+    }
+
+    public void encodeKeyframe(ByteBuffer out, int seq, Snapshot snapshot) {
+        out.put(KEYFRAME).putInt(seq)
+                .putFloat((float) originX).putFloat((float) originY).putFloat((float) scale)
+                .put((byte) snapshot.size());
+        for (int i = 0; i < snapshot.size(); i++) {
+            putVarLong(out, snapshot.alienIds[i]);
+            out.putShort((short) (snapshot.packed[i] >>> 16)).putShort((short) snapshot.packed[i]);
+        }
+    }
+
+    /**
+     * base 대비 바뀐 외계인만 인코딩
+     * @return base 에 없는 외계인이 있어 delta 로 표현할 수 없으면 false (keyframe 을 보내야 함)
+     */
+    public boolean encodeDelta(ByteBuffer out, int seq, int baseSeq, Snapshot base, Snapshot snapshot) {
+        int start = out.position();
+        out.put(DELTA).putInt(seq).putInt(baseSeq);
+        int countAt = out.position();
+        out.put((byte) 0);
+        int count = 0;
+        for (int i = 0; i < snapshot.size(); i++) {
+            int b = base.indexOf(snapshot.alienIds[i]);
+            if (b < 0) {
+                out.position(start);
+                return false;
+            }
+            int current = snapshot.packed[i];
+            int previous = base.packed[b];
+            if (current == previous) {
+                continue;
+            }
+            putVarLong(out, snapshot.alienIds[i]);
+            putZigZag(out, (short) ((current >>> 16) - (previous >>> 16)));
+            putZigZag(out, (short) ((current & 0xFFFF) - (previous & 0xFFFF)));
+            count++;
+        }
+        out.put(countAt, (byte) count);
+        return true;
+    }
+
+    private static int zigZagSize(int value) {
+        return varLongSize((value << 1) ^ (value >> 31));
+    }
+
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void putZigZag(ByteBuffer out, int value) {
+        putVarLong(out, (value << 1) ^ (value >> 31));
+    }
+
+    private static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * 가족 외계인들의 양자화 좌표 (클라이언트에 보낸 snapshot 기록용)
+     */
+    public static final class Snapshot {
+        private final long[] alienIds;
+        private final int[] packed;
+
+        private Snapshot(long[] alienIds, int[] packed) {
+            this.alienIds = alienIds;
+            this.packed = packed;
+        }
+
+        public int size() {
+            return alienIds.length;
+        }
+
+        private int indexOf(long alienId) {
+            for (int i = 0; i < alienIds.length; i++) {
+                if (alienIds[i] == alienId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
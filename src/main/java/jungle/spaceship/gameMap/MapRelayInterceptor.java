@@ -0,0 +1,83 @@
+package jungle.spaceship.gameMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jungle.spaceship.config.RedisBrokerRelay;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 다른 서버에서 움직인 위치를 이 서버의 binary 구독자에게 전송 (websocket.broker.relay=redis 와 함께 사용)
+ * - binary 프레임은 구독자별 delta 라 서버 간에 그대로 전달할 수 없으므로, Redis 로 전달된 다른 서버의
+ *   /sub/map/{familyId} JSON 위치(MapSnapshotDto)를 FamilyMapStore 에 반영하고, 다음 tick 에 MapTickEngine 이 다시 인코딩해 전송
+ *   (binary 프레임은 모두 tick 스레드에서 보내야 seq 순서대로 도착)
+ * - RedisBrokerRelay 는 /sub/map/{familyId}/bin 구독자가 있으면 /sub/map/{familyId} 채널을 구독
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "map.tick.enabled", havingValue = "true")
+public class MapRelayInterceptor implements ChannelInterceptor {
+
+    private static final String MAP_DESTINATION_PREFIX = "/sub/map/";
+
+    private final FamilyMapStore familyMapStore;
+    private final MapBinaryPublisher mapBinaryPublisher;
+    private final ObjectProvider<MapTickEngine> mapTickEngine;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        if (accessor.getHeader(RedisBrokerRelay.RELAYED_HEADER) == null
+                || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+        Long familyId = familyIdOf(accessor.getDestination());
+        if (familyId == null || !mapBinaryPublisher.hasSubscribers(familyId)) {
+            return message;
+        }
+        try {
+            familyMapStore.merge(familyId, aliensOf(objectMapper.readTree(payload), familyId));
+            mapTickEngine.ifAvailable(engine -> engine.relayed(familyId));
+        } catch (IOException | RuntimeException e) {
+            log.warn("다른 서버의 지도 위치 반영 실패 : familyId={}", familyId, e);
+        }
+        return message;
+    }
+
+    /**
+     * MapSnapshotDto JSON 의 aliens (GameMapDto 는 기본 생성자가 없어 직접 읽음)
+     */
+    private static List<GameMapDto> aliensOf(JsonNode snapshot, Long familyId) {
+        List<GameMapDto> aliens = new ArrayList<>();
+        for (JsonNode alien : snapshot.path("aliens")) {
+            GameMapDto position = new GameMapDto(alien.path("x").asDouble(), alien.path("y").asDouble(), familyId);
+            position.setAlienId(alien.hasNonNull("alienId") ? alien.get("alienId").asLong() : null);
+            aliens.add(position);
+        }
+        return aliens;
+    }
+
+    private static Long familyIdOf(String destination) {
+        if (destination == null || !destination.startsWith(MAP_DESTINATION_PREFIX)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(destination.substring(MAP_DESTINATION_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package jungle.spaceship.gameMap;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * tick 마다 가족 지도로 보내는 위치 묶음 (지난 tick 이후 움직인 외계인만, 누가 입장한 tick 에는 전체)
+ */
+@Getter
+@RequiredArgsConstructor
+public class MapSnapshotDto {
+    private final Long familyId;
+    private final long tick;
+    private final List<GameMapDto> aliens;
+}
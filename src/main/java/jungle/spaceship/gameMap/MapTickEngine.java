@@ -0,0 +1,194 @@
+package jungle.spaceship.gameMap;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 지도 위치 tick 처리 (map.tick.enabled=true)
+ * - 받은 위치는 가족/외계인별 최신 값만 저장하고, 가족마다 tick(rate-hz) 한 번씩 움직인 외계인만 모아 한 프레임으로 전송
+ * - /sub/map/{familyId}/bin 구독자에게는 MapBinaryPublisher 가 양자화한 binary delta 프레임으로 전송
+ * - tick 주기를 slots 개로 나눠 가족을 familyId 로 나눠 처리 : 한 번에 모든 가족의 프레임을 몰아서 보내지 않음
+ * - 누가 입장하면(sendAll) 다음 tick 에 움직인 외계인 대신 전체 위치를 보냄 : 입장 위치도 이동 프레임과 같은 순서로 전송
+ * - 다른 서버에서 움직인 위치(relayed)는 JSON 구독자에게 이미 전달되었으므로 다음 tick 에 binary 프레임만 보냄
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "map.tick.enabled", havingValue = "true")
+public class MapTickEngine implements DisposableBean {
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final MapBinaryPublisher mapBinaryPublisher;
+    private final FamilyMapStore familyMapStore;
+    private final long periodMicros;
+    private final int slots;
+    private final long idleMillis;
+
+    private final Map<Long, FamilyPositions> families = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("map-tick-"));
+    private long slotTicks;
+
+    private final Timer tickDuration;
+    private final Counter frames;
+    private final Counter superseded;
+
+    public MapTickEngine(SimpMessageSendingOperations messagingTemplate,
+                         MapBinaryPublisher mapBinaryPublisher,
+                         FamilyMapStore familyMapStore,
+                         MeterRegistry meterRegistry,
+                         @Value("${map.tick.rate-hz:15}") int rateHz,
+                         @Value("${map.tick.slots:4}") int slots,
+                         @Value("${map.tick.idle-seconds:300}") long idleSeconds) {
+        this.messagingTemplate = messagingTemplate;
+        this.mapBinaryPublisher = mapBinaryPublisher;
+        this.familyMapStore = familyMapStore;
+        this.periodMicros = TimeUnit.SECONDS.toMicros(1) / rateHz;
+        this.slots = slots;
+        this.idleMillis = TimeUnit.SECONDS.toMillis(idleSeconds);
+        this.tickDuration = meterRegistry.timer("map.tick.duration");
+        this.frames = meterRegistry.counter("map.tick.frames");
+        this.superseded = meterRegistry.counter("map.tick.superseded");
+        meterRegistry.gaugeMapSize("map.tick.families", List.of(), families);
+    }
+
+    @PostConstruct
+    public void start() {
+        long slotMicros = periodMicros / slots;
+        scheduler.scheduleAtFixedRate(this::tick, slotMicros, slotMicros, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * 다음 tick 에 보낼 위치 (이전 tick 이후 아직 보내지 않은 위치는 덮어씀)
+     */
+    public void update(GameMapDto position) {
+        if (position.getFamilyId() == null || position.getAlienId() == null) {
+            throw new IllegalArgumentException("가족 또는 외계인 Id 가 없습니다.");
+        }
+        FamilyPositions family = families.computeIfAbsent(position.getFamilyId(), id -> new FamilyPositions());
+        if (family.update(position)) {
+            superseded.increment();
+        }
+    }
+
+    /**
+     * 다른 서버의 위치를 FamilyMapStore 에 반영했으니 다음 tick 에 binary 프레임 전송 (MapRelayInterceptor 가 호출)
+     */
+    public void relayed(Long familyId) {
+        families.computeIfAbsent(familyId, id -> new FamilyPositions()).markRelayed();
+    }
+
+    /**
+     * 다음 tick 에 가족 전체 위치 전송 (FamilyMapStore 가 입장 시 호출)
+     */
+    public void sendAll(Long familyId) {
+        families.computeIfAbsent(familyId, id -> new FamilyPositions()).requestAll();
+    }
+
+    private void tick() {
+        long start = System.nanoTime();
+        long count = slotTicks++;
+        int slot = (int) (count % slots);
+        long tick = count / slots;
+        long now = System.currentTimeMillis();
+        try {
+            for (Map.Entry<Long, FamilyPositions> entry : families.entrySet()) {
+                Long familyId = entry.getKey();
+                if (Math.floorMod(familyId, slots) != slot) {
+                    continue;
+                }
+                FamilyPositions family = entry.getValue();
+                boolean all = family.takeAllRequest();
+                boolean relayed = family.takeRelayed();
+                List<GameMapDto> moved = family.drainMoved();
+                if (all || !moved.isEmpty()) {
+                    List<GameMapDto> positions = familyMapStore.positions(familyId);
+                    if (!positions.isEmpty()) {
+                        messagingTemplate.convertAndSend("/sub/map/" + familyId,
+                                new MapSnapshotDto(familyId, tick, all ? positions : moved));
+                        mapBinaryPublisher.publish(familyId, positions);
+                        frames.increment();
+                    }
+                } else if (relayed) {
+                    List<GameMapDto> positions = familyMapStore.positions(familyId);
+                    if (!positions.isEmpty()) {
+                        mapBinaryPublisher.publish(familyId, positions);
+                    }
+                } else if (now - family.lastUpdate > idleMillis) {
+                    families.remove(familyId, family);
+                }
+            }
+        } catch (RuntimeException e) {
+            // 예외로 스케줄이 멈추지 않도록
+            log.warn("지도 tick 처리 실패", e);
+        } finally {
+            tickDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+    }
+
+    private static final class FamilyPositions {
+        // 지난 tick 이후 움직인 외계인 Id -> 마지막 위치 (외계인별 마지막 위치 전체는 FamilyMapStore)
+        private final Map<Long, GameMapDto> moved = new LinkedHashMap<>();
+        private boolean all;
+        private boolean relayed;
+        private volatile long lastUpdate = System.currentTimeMillis();
+
+        /**
+         * @return 아직 보내지 않은 이전 위치를 덮어썼으면 true
+         */
+        private synchronized boolean update(GameMapDto position) {
+            lastUpdate = System.currentTimeMillis();
+            return moved.put(position.getAlienId(), position) != null;
+        }
+
+        private synchronized void requestAll() {
+            lastUpdate = System.currentTimeMillis();
+            all = true;
+        }
+
+        private synchronized void markRelayed() {
+            lastUpdate = System.currentTimeMillis();
+            relayed = true;
+        }
+
+        private synchronized boolean takeRelayed() {
+            boolean marked = relayed;
+            relayed = false;
+            return marked;
+        }
+
+        private synchronized boolean takeAllRequest() {
+            boolean requested = all;
+            all = false;
+            return requested;
+        }
+
+        private synchronized List<GameMapDto> drainMoved() {
+            if (moved.isEmpty()) {
+                return List.of();
+            }
+            List<GameMapDto> result = new ArrayList<>(moved.values());
+            moved.clear();
+            return result;
+        }
+    }
+}
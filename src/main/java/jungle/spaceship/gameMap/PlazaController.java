@@ -0,0 +1,23 @@
+package jungle.spaceship.gameMap;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
+
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "map.plaza.enabled", havingValue = "true")
+public class PlazaController {
+
+    private final PlazaService plazaService;
+
+    // 광장 이동 : 주변 외계인의 변화는 /sub/plaza 로 tick 마다 전송
+    @MessageMapping("/plaza/move")
+    public void move(GameMapDto gameMapDto, StompHeaderAccessor accessor, Principal principal){
+        plazaService.move(gameMapDto, accessor.getSessionId(), principal);
+    }
+}
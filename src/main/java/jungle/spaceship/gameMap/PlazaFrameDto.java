@@ -0,0 +1,17 @@
+package jungle.spaceship.gameMap;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 광장 tick 마다 세션별로 보내는 관심 영역 변화
+ */
+@Getter
+@RequiredArgsConstructor
+public class PlazaFrameDto {
+    private final long tick;
+    private final List<GameMapDto> aliens;     // 움직였거나 새로 보이게 된 외계인
+    private final List<Long> left;             // 관심 영역을 벗어났거나 광장을 나간 외계인 Id
+}
@@ -0,0 +1,294 @@
+package jungle.spaceship.gameMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 광장 지도 격자 (관심 영역 필터링)
+ * - 광장을 cellSize 크기의 균일한 격자로 나누고, 외계인은 좌표가 속한 칸에 등록 (칸이 바뀔 때만 이동)
+ * - 세션(viewer)이 있는 외계인은 자기 칸 기준 radius 칸 이내(관심 영역)의 변화만 받음
+ *   : 관심 영역 안에서 움직인 외계인, 새로 관심 영역에 들어온 칸의 외계인 전체, 관심 영역을 벗어나거나 나간 외계인(left)
+ * - 스레드 안전하지 않음 : PlazaService 의 tick 스레드에서만 사용
+ */
+final class PlazaGrid {
+
+    private final double width;
+    private final double height;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final int radius;
+    private final WalkabilityGrid walkability;
+
+    private final Cell[] cells;
+    private final List<Integer> touchedCells = new ArrayList<>();
+
+    private final Map<Long, Alien> aliens = new HashMap<>();
+    private final List<Alien> viewers = new ArrayList<>();
+    private final List<Alien> moved = new ArrayList<>();
+    private final List<Alien> removed = new ArrayList<>();
+
+    // viewer 마다 재사용하는 결과 목록
+    private final List<Alien> visible = new ArrayList<>();
+    private final List<Long> left = new ArrayList<>();
+
+    PlazaGrid(double width, double height, double cellSize, int radius, WalkabilityGrid walkability) {
+        this.width = width;
+        this.height = height;
+        this.cellSize = cellSize;
+        this.columns = (int) Math.ceil(width / cellSize);
+        this.rows = (int) Math.ceil(height / cellSize);
+        this.radius = radius;
+        this.walkability = walkability;
+        this.cells = new Cell[columns * rows];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new Cell();
+        }
+    }
+
+    /**
+     * 외계인 위치 반영 (처음이면 등록), viewer 가 있으면 이후 tick 부터 관심 영역의 변화를 받음
+     * 지도 충돌 정보가 있으면 지나갈 수 없는 이동은 거부하거나 막힌 칸 앞까지로 제한 (이전 이동 이후 지난 시간으로 거리도 제한)
+     * @param at 이동 시각 (ms)
+     * @return 거부했으면 false
+     */
+    boolean move(long alienId, Long familyId, double x, double y, Object viewer, long at) {
+        Alien alien = aliens.get(alienId);
+        if (walkability != null) {
+            double t = alien == null ? (walkability.isWalkable(x, y) ? 1 : -1)
+                    : walkability.reachable(alien.x, alien.y, x, y, at - alien.movedAt);
+            if (t < 0) {
+                return false;
+            }
+            if (t < 1) {
+                x = alien.x + (x - alien.x) * t;
+                y = alien.y + (y - alien.y) * t;
+            }
+        }
+        if (alien == null) {
+            alien = new Alien(alienId, familyId);
+            aliens.put(alienId, alien);
+        }
+        if (viewer != null && alien.viewer == null) {
+            viewers.add(alien);
+        }
+        if (viewer != null) {
+            alien.viewer = viewer;
+        }
+        alien.x = Math.max(0, Math.min(width - 1e-9, x));
+        alien.y = Math.max(0, Math.min(height - 1e-9, y));
+        alien.movedAt = at;
+
+        if (!alien.moved) {
+            alien.moved = true;
+            alien.tickStartCell = alien.cell;
+            moved.add(alien);
+        }
+        int cell = cellOf(alien.x, alien.y);
+        if (cell != alien.cell) {
+            if (alien.cell >= 0) {
+                removeFromCell(alien);
+            }
+            alien.cell = cell;
+            alien.indexInCell = cells[cell].aliens.size();
+            cells[cell].aliens.add(alien);
+        }
+        return true;
+    }
+
+    void remove(long alienId) {
+        Alien alien = aliens.remove(alienId);
+        if (alien == null) {
+            return;
+        }
+        removeFromCell(alien);
+        if (alien.viewer != null) {
+            viewers.remove(alien);
+        }
+        alien.removed = true;
+        if (!alien.moved) {
+            alien.tickStartCell = alien.cell;
+        }
+        removed.add(alien);
+    }
+
+    int size() {
+        return aliens.size();
+    }
+
+    /**
+     * 이번 tick 의 변화를 viewer 별로 모아 sink 에 전달 (변화가 없는 viewer 는 생략)
+     */
+    void tick(FrameSink sink) {
+        for (Alien alien : moved) {
+            if (alien.removed) {
+                continue;
+            }
+            touch(alien.cell);
+            cells[alien.cell].movedIn.add(alien);
+            if (alien.tickStartCell >= 0 && alien.tickStartCell != alien.cell) {
+                touch(alien.tickStartCell);
+                cells[alien.tickStartCell].movedOut.add(alien);
+            }
+        }
+        for (Alien alien : removed) {
+            if (alien.tickStartCell >= 0) {
+                touch(alien.tickStartCell);
+                cells[alien.tickStartCell].movedOut.add(alien);
+            }
+        }
+
+        for (Alien viewer : viewers) {
+            collect(viewer);
+            viewer.viewedCell = viewer.cell;
+            if (!visible.isEmpty() || !left.isEmpty()) {
+                sink.accept(viewer.viewer, visible, left);
+            }
+        }
+
+        for (Alien alien : moved) {
+            alien.moved = false;
+        }
+        moved.clear();
+        removed.clear();
+        for (int cell : touchedCells) {
+            cells[cell].movedIn.clear();
+            cells[cell].movedOut.clear();
+        }
+        touchedCells.clear();
+    }
+
+    private void collect(Alien viewer) {
+        visible.clear();
+        left.clear();
+        int now = viewer.cell;
+        int before = viewer.viewedCell;
+        int column = now % columns;
+        int row = now / columns;
+        for (int r = Math.max(0, row - radius); r <= Math.min(rows - 1, row + radius); r++) {
+            for (int c = Math.max(0, column - radius); c <= Math.min(columns - 1, column + radius); c++) {
+                int cell = r * columns + c;
+                if (before < 0 || !inInterest(before, cell)) {
+                    // 새로 관심 영역에 들어온 칸 : 전체
+                    addVisible(viewer, cells[cell].aliens);
+                    continue;
+                }
+                addVisible(viewer, cells[cell].movedIn);
+                for (Alien alien : cells[cell].movedOut) {
+                    if (alien != viewer && (alien.removed || !inInterest(now, alien.cell))) {
+                        left.add(alien.alienId);
+                    }
+                }
+            }
+        }
+        if (before < 0 || before == now) {
+            return;
+        }
+        // 관심 영역에서 빠진 칸의 외계인
+        int beforeColumn = before % columns;
+        int beforeRow = before / columns;
+        for (int r = Math.max(0, beforeRow - radius); r <= Math.min(rows - 1, beforeRow + radius); r++) {
+            for (int c = Math.max(0, beforeColumn - radius); c <= Math.min(columns - 1, beforeColumn + radius); c++) {
+                int cell = r * columns + c;
+                if (inInterest(now, cell)) {
+                    continue;
+                }
+                for (Alien alien : cells[cell].aliens) {
+                    left.add(alien.alienId);
+                }
+                for (Alien alien : cells[cell].movedOut) {
+                    if (alien.removed || !inInterest(now, alien.cell)) {
+                        left.add(alien.alienId);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addVisible(Alien viewer, List<Alien> aliens) {
+        for (Alien alien : aliens) {
+            if (alien != viewer) {
+                visible.add(alien);
+            }
+        }
+    }
+
+    private boolean inInterest(int center, int cell) {
+        return Math.abs(center % columns - cell % columns) <= radius && Math.abs(center / columns - cell / columns) <= radius;
+    }
+
+    private int cellOf(double x, double y) {
+        int column = Math.min(columns - 1, (int) (x / cellSize));
+        int row = Math.min(rows - 1, (int) (y / cellSize));
+        return row * columns + column;
+    }
+
+    private void removeFromCell(Alien alien) {
+        List<Alien> cell = cells[alien.cell].aliens;
+        Alien last = cell.remove(cell.size() - 1);
+        if (last != alien) {
+            cell.set(alien.indexInCell, last);
+            last.indexInCell = alien.indexInCell;
+        }
+    }
+
+    private void touch(int cell) {
+        if (cells[cell].movedIn.isEmpty() && cells[cell].movedOut.isEmpty()) {
+            touchedCells.add(cell);
+        }
+    }
+
+    private static final class Cell {
+        private final List<Alien> aliens = new ArrayList<>();
+        // 이번 tick 에 칸 안에서 움직였거나 들어온 외계인, 이번 tick 에 칸을 떠난 외계인
+        private final List<Alien> movedIn = new ArrayList<>();
+        private final List<Alien> movedOut = new ArrayList<>();
+    }
+
+    @FunctionalInterface
+    interface FrameSink {
+        /**
+         * @param visible 관심 영역에서 움직였거나 새로 보이게 된 외계인 (호출이 끝나면 재사용되므로 보관하지 않음)
+         * @param left    관심 영역을 벗어났거나 광장을 나간 외계인 Id
+         */
+        void accept(Object viewer, List<Alien> visible, List<Long> left);
+    }
+
+    static final class Alien {
+        private final long alienId;
+        private final Long familyId;
+        private double x;
+        private double y;
+        private int cell = -1;
+        private int indexInCell;
+        private int tickStartCell = -1;
+        private int viewedCell = -1;
+        private long movedAt;
+        private boolean moved;
+        private boolean removed;
+        private Object viewer;
+
+        private Alien(long alienId, Long familyId) {
+            this.alienId = alienId;
+            this.familyId = familyId;
+        }
+
+        long alienId() {
+            return alienId;
+        }
+
+        Long familyId() {
+            return familyId;
+        }
+
+        double x() {
+            return x;
+        }
+
+        double y() {
+            return y;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package jungle.spaceship.gameMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jungle.spaceship.member.entity.Member;
+import jungle.spaceship.member.entity.MemberDetail;
+import jungle.spaceship.member.entity.alien.Alien;
+import jungle.spaceship.member.repository.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import javax.annotation.PostConstruct;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 여러 가족이 함께 쓰는 광장 지도 (map.plaza.enabled=true)
+ * - /pub/plaza/move 로 받은 위치는 외계인별 최신 값만 모았다가 tick(rate-hz) 마다 PlazaGrid 에 반영
+ * - /sub/plaza 를 구독한 세션에는 자기 외계인 주변(관심 영역)의 변화만 세션별 프레임으로 전송
+ * - 움직이는 외계인과 가족은 보낸 값이 아닌 인증된 회원(MemberDetail)의 것을 사용, 한 외계인은 한 세션만 움직일 수 있음
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "map.plaza.enabled", havingValue = "true")
+public class PlazaService implements DisposableBean {
+
+    public static final String PLAZA_DESTINATION = "/sub/plaza";
+
+    private final MessageChannel clientOutboundChannel;
+    private final ObjectMapper objectMapper;
+    private final MemberRepository memberRepository;
+    private final PlazaGrid grid;
+    private final long periodMillis;
+
+    // 외계인 Id -> 다음 tick 에 반영할 위치, 광장을 나간 외계인
+    private final Map<Long, PendingMove> pendingMoves = new ConcurrentHashMap<>();
+    private final Queue<Long> removals = new ConcurrentLinkedQueue<>();
+    // 세션 Id -> /sub/plaza 구독 Id, 세션 Id -> 세션이 움직이는 외계인, 외계인 Id -> 움직이는 세션 Id
+    private final Map<String, String> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, SessionAlien> sessionAliens = new ConcurrentHashMap<>();
+    private final Map<Long, String> alienOwners = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("plaza-tick-"));
+    private long tick;
+
+    private final Timer tickDuration;
+    private final Counter frames;
+    private final Counter superseded;
+    private final Counter rejected;
+    private final AtomicInteger aliens = new AtomicInteger();
+
+    public PlazaService(@Lazy @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                        ObjectMapper objectMapper,
+                        MemberRepository memberRepository,
+                        WalkabilityMaps walkabilityMaps,
+                        MeterRegistry meterRegistry,
+                        @Value("${map.plaza.width:4096}") double width,
+                        @Value("${map.plaza.height:4096}") double height,
+                        @Value("${map.plaza.cell-size:128}") double cellSize,
+                        @Value("${map.plaza.interest-radius:2}") int interestRadius,
+                        @Value("${map.plaza.rate-hz:10}") int rateHz) {
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.objectMapper = objectMapper;
+        this.memberRepository = memberRepository;
+        this.grid = new PlazaGrid(width, height, cellSize, interestRadius, walkabilityMaps.get(WalkabilityMaps.PLAZA));
+        this.periodMillis = 1000L / rateHz;
+        this.tickDuration = meterRegistry.timer("map.plaza.tick.duration");
+        this.frames = meterRegistry.counter("map.plaza.frames");
+        this.superseded = meterRegistry.counter("map.plaza.superseded");
+        this.rejected = meterRegistry.counter("map.move.rejected", "map", WalkabilityMaps.PLAZA);
+        meterRegistry.gauge("map.plaza.aliens", aliens);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleAtFixedRate(this::tick, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 보낸 위치의 외계인/가족 Id 는 무시하고 세션 회원의 외계인을 움직임
+     */
+    public void move(GameMapDto position, String sessionId, Principal principal) {
+        SessionAlien alien = sessionAliens.get(sessionId);
+        if (alien == null) {
+            alien = claim(sessionId, principal);
+        }
+        GameMapDto moved = new GameMapDto(position.getX(), position.getY(), alien.familyId());
+        moved.setAlienId(alien.alienId());
+        if (pendingMoves.put(alien.alienId(), new PendingMove(moved, sessionId)) != null) {
+            superseded.increment();
+        }
+    }
+
+    /**
+     * 세션의 첫 이동 : 회원의 외계인을 찾아 이 세션에 묶음 (다른 세션이 움직이는 중이면 거부)
+     */
+    private SessionAlien claim(String sessionId, Principal principal) {
+        if (!(principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof MemberDetail member
+                && member.getFamilyId() != null)) {
+            throw new IllegalArgumentException("인증 정보가 없습니다.");
+        }
+        Long alienId = memberRepository.findByEmail(member.getUserId())
+                .map(Member::getAlien)
+                .map(Alien::getAlienId)
+                .orElseThrow(() -> new IllegalArgumentException("외계인이 없습니다."));
+        String owner = alienOwners.putIfAbsent(alienId, sessionId);
+        if (owner != null && !owner.equals(sessionId)) {
+            throw new IllegalArgumentException("다른 세션에서 움직이는 외계인입니다.");
+        }
+        SessionAlien alien = new SessionAlien(alienId, Long.valueOf(member.getFamilyId()));
+        sessionAliens.put(sessionId, alien);
+        return alien;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        if (PLAZA_DESTINATION.equals(accessor.getDestination())) {
+            subscriptions.put(accessor.getSessionId(), accessor.getSubscriptionId());
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        subscriptions.remove(accessor.getSessionId(), accessor.getSubscriptionId());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        subscriptions.remove(event.getSessionId());
+        SessionAlien alien = sessionAliens.remove(event.getSessionId());
+        if (alien != null) {
+            removals.add(alien.alienId());
+            alienOwners.remove(alien.alienId(), event.getSessionId());
+        }
+    }
+
+    private void tick() {
+        long start = System.nanoTime();
+        long current = tick++;
+        long now = System.currentTimeMillis();
+        try {
+            for (Long alienId; (alienId = removals.poll()) != null; ) {
+                pendingMoves.remove(alienId);
+                grid.remove(alienId);
+            }
+            for (Long alienId : pendingMoves.keySet()) {
+                PendingMove move = pendingMoves.remove(alienId);
+                if (move != null) {
+                    GameMapDto position = move.position();
+                    if (!grid.move(alienId, position.getFamilyId(), position.getX(), position.getY(), move.sessionId(), now)) {
+                        rejected.increment();
+                    }
+                }
+            }
+            grid.tick((viewer, visible, left) -> send(current, (String) viewer, visible, left));
+            aliens.set(grid.size());
+        } catch (RuntimeException e) {
+            // 예외로 스케줄이 멈추지 않도록
+            log.warn("광장 tick 처리 실패", e);
+        } finally {
+            tickDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void send(long tick, String sessionId, List<PlazaGrid.Alien> visible, List<Long> left) {
+        String subscriptionId = subscriptions.get(sessionId);
+        if (subscriptionId == null) {
+            return;
+        }
+        List<GameMapDto> positions = new ArrayList<>(visible.size());
+        for (PlazaGrid.Alien alien : visible) {
+            GameMapDto position = new GameMapDto(alien.x(), alien.y(), alien.familyId());
+            position.setAlienId(alien.alienId());
+            positions.add(position);
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(PLAZA_DESTINATION);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(new PlazaFrameDto(tick, positions, List.copyOf(left)));
+            clientOutboundChannel.send(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+            frames.increment();
+        } catch (Exception e) {
+            log.warn("광장 프레임 전송 실패 : session={}", sessionId, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+    }
+
+    private record PendingMove(GameMapDto position, String sessionId) {
+    }
+
+    private record SessionAlien(Long alienId, Long familyId) {
+    }
+}
@@ -0,0 +1,178 @@
+package jungle.spaceship.gameMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 지도 충돌 정보 (칸마다 1bit, long 배열에 행 우선으로 채움)
+ * - 칸 : 좌표 (x - originX) / cellSize 열, (y - originY) / cellSize 행, 지도 밖은 막힌 칸
+ * - 이동 검사는 이전 위치에서 새 위치까지 지나는 칸만 차례로 확인 (최대 maxStepCells 칸)
+ * - 메시지를 자주 보내 한 번에 조금씩 빨리 움직이지 않도록 이전 위치 이후 지난 시간으로 이동 거리도 제한 (max-speed)
+ *
+ * 파일 형식 (maps/{이름}.map) : "key=value" 설정 줄(cell-size, origin-x, origin-y, max-step-cells, max-speed)과
+ * 위에서부터 한 줄에 한 행씩 '#' 막힌 칸, 그 외 문자는 지나갈 수 있는 칸
+ */
+public final class WalkabilityGrid {
+
+    // 벽 바로 앞에서 멈출 때 벽과 띄우는 거리
+    private static final double WALL_MARGIN = 1e-3;
+    // 메시지가 늦게 도착했다 몰려 와도 움직일 수 있도록 지난 시간에 더해 주는 여유
+    private static final long SPEED_GRACE_MILLIS = 250;
+
+    private final String name;
+    private final int columns;
+    private final int rows;
+    private final double cellSize;
+    private final double originX;
+    private final double originY;
+    private final int maxStepCells;
+    private final double maxSpeed;
+    private final long[] blocked;
+
+    private WalkabilityGrid(String name, int columns, int rows, double cellSize, double originX, double originY,
+                            int maxStepCells, double maxSpeed, long[] blocked) {
+        this.name = name;
+        this.columns = columns;
+        this.rows = rows;
+        this.cellSize = cellSize;
+        this.originX = originX;
+        this.originY = originY;
+        this.maxStepCells = maxStepCells;
+        this.maxSpeed = maxSpeed;
+        this.blocked = blocked;
+    }
+
+    public static WalkabilityGrid parse(String name, List<String> lines) {
+        double cellSize = 32;
+        double originX = 0;
+        double originY = 0;
+        int maxStepCells = 8;
+        double maxSpeed = -1;
+        List<String> rowLines = new ArrayList<>();
+        for (String line : lines) {
+            if (line.isBlank() || line.startsWith("//")) {
+                continue;
+            }
+            int separator = line.indexOf('=');
+            if (separator < 0) {
+                rowLines.add(line);
+                continue;
+            }
+            String key = line.substring(0, separator).trim();
+            String value = line.substring(separator + 1).trim();
+            switch (key) {
+                case "cell-size" -> cellSize = Double.parseDouble(value);
+                case "origin-x" -> originX = Double.parseDouble(value);
+                case "origin-y" -> originY = Double.parseDouble(value);
+                case "max-step-cells" -> maxStepCells = Integer.parseInt(value);
+                case "max-speed" -> maxSpeed = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException("알 수 없는 지도 설정입니다 : " + key);
+            }
+        }
+        if (rowLines.isEmpty()) {
+            throw new IllegalArgumentException("지도 칸 정보가 없습니다 : " + name);
+        }
+
+        int rows = rowLines.size();
+        int columns = rowLines.stream().mapToInt(String::length).max().orElse(0);
+        long[] blocked = new long[(rows * columns + 63) >>> 6];
+        for (int row = 0; row < rows; row++) {
+            String line = rowLines.get(row);
+            for (int column = 0; column < line.length(); column++) {
+                if (line.charAt(column) == '#') {
+                    int bit = row * columns + column;
+                    blocked[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+        // 기본 속도 : 초당 max-step-cells 칸
+        if (maxSpeed < 0) {
+            maxSpeed = maxStepCells * cellSize;
+        }
+        return new WalkabilityGrid(name, columns, rows, cellSize, originX, originY, maxStepCells, maxSpeed, blocked);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isWalkable(double x, double y) {
+        return !isBlocked(columnOf(x), rowOf(y));
+    }
+
+    /**
+     * 지난 위치가 elapsedMillis 전 위치일 때 갈 수 있는 비율 : 막힌 칸 검사에 더해 max-speed 로 갈 수 있는 거리까지로 제한
+     * @return reachable(fromX, fromY, toX, toY) 와 같은 의미
+     */
+    public double reachable(double fromX, double fromY, double toX, double toY, long elapsedMillis) {
+        double t = reachable(fromX, fromY, toX, toY);
+        if (t <= 0) {
+            return t;
+        }
+        double distance = Math.hypot(toX - fromX, toY - fromY);
+        double limit = maxSpeed * (Math.max(0, elapsedMillis) + SPEED_GRACE_MILLIS) / 1000;
+        return distance * t > limit ? limit / distance : t;
+    }
+
+    /**
+     * from 에서 to 로 직선 이동할 때 갈 수 있는 비율
+     * @return 1 : 그대로 이동, 0 ~ 1 : 이 비율 지점(막힌 칸 바로 앞)까지만 이동,
+     *         -1 : 거부 (maxStepCells 칸보다 멀리 이동하거나 막힌 칸에서 막힌 칸으로)
+     */
+    public double reachable(double fromX, double fromY, double toX, double toY) {
+        int column = columnOf(fromX);
+        int row = rowOf(fromY);
+        int toColumn = columnOf(toX);
+        int toRow = rowOf(toY);
+        int steps = Math.abs(toColumn - column) + Math.abs(toRow - row);
+        if (steps > maxStepCells) {
+            return -1;
+        }
+        if (isBlocked(column, row)) {
+            // 이미 막힌 칸에 있으면(지도 변경 등) 갈 수 있는 칸으로 나가는 것만 허용
+            return isBlocked(toColumn, toRow) ? -1 : 1;
+        }
+
+        double dx = toX - fromX;
+        double dy = toY - fromY;
+        int stepX = dx > 0 ? 1 : -1;
+        int stepY = dy > 0 ? 1 : -1;
+        double tDeltaX = dx != 0 ? cellSize / Math.abs(dx) : Double.POSITIVE_INFINITY;
+        double tDeltaY = dy != 0 ? cellSize / Math.abs(dy) : Double.POSITIVE_INFINITY;
+        double tMaxX = dx != 0 ? (originX + (column + (dx > 0 ? 1 : 0)) * cellSize - fromX) / dx : Double.POSITIVE_INFINITY;
+        double tMaxY = dy != 0 ? (originY + (row + (dy > 0 ? 1 : 0)) * cellSize - fromY) / dy : Double.POSITIVE_INFINITY;
+
+        for (int i = 0; i < steps; i++) {
+            double t;
+            if (tMaxX < tMaxY) {
+                t = tMaxX;
+                column += stepX;
+                tMaxX += tDeltaX;
+            } else {
+                t = tMaxY;
+                row += stepY;
+                tMaxY += tDeltaY;
+            }
+            if (isBlocked(column, row)) {
+                return Math.max(0, t - WALL_MARGIN / Math.hypot(dx, dy));
+            }
+        }
+        return 1;
+    }
+
+    private boolean isBlocked(int column, int row) {
+        if (column < 0 || row < 0 || column >= columns || row >= rows) {
+            return true;
+        }
+        int bit = row * columns + column;
+        return (blocked[bit >>> 6] & 1L << bit) != 0;
+    }
+
+    private int columnOf(double x) {
+        return (int) Math.floor((x - originX) / cellSize);
+    }
+
+    private int rowOf(double y) {
+        return (int) Math.floor((y - originY) / cellSize);
+    }
+}
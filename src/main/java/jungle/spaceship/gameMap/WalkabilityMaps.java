@@ -0,0 +1,60 @@
+package jungle.spaceship.gameMap;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 시작 시 지도 충돌 정보(map.walkability.location)를 읽어 지도 이름(파일 이름)별로 보관
+ * - family : 가족 지도, plaza : 광장, 파일이 없는 지도는 이동을 검사하지 않음
+ */
+@Slf4j
+@Component
+public class WalkabilityMaps {
+
+    public static final String FAMILY = "family";
+    public static final String PLAZA = "plaza";
+    private static final String SUFFIX = ".map";
+
+    private final ResourcePatternResolver resourcePatternResolver;
+    private final String location;
+    private final Map<String, WalkabilityGrid> grids = new ConcurrentHashMap<>();
+
+    public WalkabilityMaps(ResourcePatternResolver resourcePatternResolver,
+                           @Value("${map.walkability.location:classpath*:maps/*.map}") String location) {
+        this.resourcePatternResolver = resourcePatternResolver;
+        this.location = location;
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        for (Resource resource : resourcePatternResolver.getResources(location)) {
+            String filename = resource.getFilename();
+            if (filename == null || !filename.endsWith(SUFFIX)) {
+                continue;
+            }
+            String name = filename.substring(0, filename.length() - SUFFIX.length());
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+                grids.put(name, WalkabilityGrid.parse(name, reader.lines().toList()));
+            }
+            log.info("지도 충돌 정보 로드 : {}", name);
+        }
+    }
+
+    /**
+     * 지도 충돌 정보, 없으면 null
+     */
+    public WalkabilityGrid get(String name) {
+        return grids.get(name);
+    }
+}
@@ -9,9 +9,7 @@ import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,6 +22,13 @@ public class FcmService {
     private String SERVER_KEY;
 
     public void sendFcmMessageToFamilyExcludingMe(Member member, NotificationType type, String content) {
+        sendFcmMessageToFamilyExcludingMe(member, type, content, Collections.emptySet());
+    }
+
+    /**
+     * excludedEmails : 알림을 보내지 않을 가족 (예: 이미 채팅방을 보고 있는 사용자)
+     */
+    public void sendFcmMessageToFamilyExcludingMe(Member member, NotificationType type, String content, Set<String> excludedEmails) {
         Family family = member.getFamily();
         if (family.getMembers().size() < 2) {
             return;
@@ -31,6 +36,7 @@ public class FcmService {
 
         List<String> tokens =  family.getMembers().stream()
                 .filter(m -> !m.equals(member))
+                .filter(m -> !excludedEmails.contains(m.getEmail()))
                 .map(Member::getFirebaseToken)
                 .collect(Collectors.toList());
 
@@ -1,5 +1,6 @@
 package jungle.spaceship.video;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.kurento.client.KurentoClient;
 import org.springframework.beans.factory.annotation.Value;
@@ -27,6 +28,20 @@ public class KurentoConfig implements WebSocketConfigurer {
         return new KurentoHandler();
     }
 
+    /* 가족별 영상 통화 방 */
+    @Bean
+    public KurentoRoomManager kurentoRoomManager(KurentoPipelinePool kurentoPipelinePool, MeterRegistry meterRegistry) {
+        return new KurentoRoomManager(kurentoPipelinePool, meterRegistry);
+    }
+
+    /* 미리 만들어 둔 MediaPipeline 풀 */
+    @Bean
+    public KurentoPipelinePool kurentoPipelinePool(KurentoClient kurentoClient, MeterRegistry meterRegistry,
+                                                   @Value("${video.pipeline-pool.size:2}") int size,
+                                                   @Value("${video.pipeline-pool.prebuild-endpoint:true}") boolean prebuildEndpoint) {
+        return new KurentoPipelinePool(kurentoClient, meterRegistry, size, prebuildEndpoint);
+    }
+
     /* Kurento 서버 통신을 위한 인스턴스 */
 //    @Bean
 //    public KurentoClient kurentoClient() {
@@ -1,15 +1,8 @@
 package jungle.spaceship.video;
 
 import java.io.IOException;
-import java.util.concurrent.ConcurrentHashMap;
 
-import org.kurento.client.EventListener;
 import org.kurento.client.IceCandidate;
-import org.kurento.client.IceCandidateFoundEvent;
-import org.kurento.client.KurentoClient;
-import org.kurento.client.MediaPipeline;
-import org.kurento.client.WebRtcEndpoint;
-import org.kurento.jsonrpc.JsonUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,18 +16,18 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 
 
+/**
+ * /call 영상 통화 signaling : 가족마다 방(KurentoRoom)이 따로 있어 한 가족씩 presenter 를 가질 수 있음
+ * - presenter / viewer : 한 명이 보내고 나머지가 받음
+ * - joinGroup / receiveVideoFrom / leaveGroup : 가족 모두가 영상을 보내고 서로 받는 그룹 통화
+ */
 public class KurentoHandler extends TextWebSocketHandler {
 
     private static final Logger log = LoggerFactory.getLogger(KurentoHandler.class);
     private static final Gson gson = new GsonBuilder().create();    // JSON 형식의 메시지를 자바 객체로 변환
 
-    private final ConcurrentHashMap<String, KurentoUserSession> viewers = new ConcurrentHashMap<>();
-
     @Autowired
-    private KurentoClient kurento;
-
-    private MediaPipeline pipeline;
-    private KurentoUserSession presenterKurentoUserSession;
+    private KurentoRoomManager roomManager;
 
     /* WebSocket에서 수신된 텍스트 메시지를 처리 : 메시지의 종류에 따라 presenter, viewer, onIceCandidate, stop 등의 액션을 수행 */
     @Override
@@ -45,200 +38,82 @@ public class KurentoHandler extends TextWebSocketHandler {
         switch (jsonMessage.get("id").getAsString()) {
             case "presenter":
                 try {
-                    presenter(session, jsonMessage);
+                    roomManager.join(session).presenter(session, sdpOfferOf(jsonMessage));
                 } catch (Throwable t) {
                     handleErrorResponse(t, session, "presenterResponse");
                 }
                 break;
             case "viewer":
                 try {
-                    viewer(session, jsonMessage);
+                    roomManager.join(session).viewer(session, sdpOfferOf(jsonMessage));
                 } catch (Throwable t) {
                     handleErrorResponse(t, session, "viewerResponse");
                 }
                 break;
+            case "joinGroup":
+                try {
+                    roomManager.join(session).joinGroup(session);
+                } catch (Throwable t) {
+                    handleErrorResponse(t, session, "joinGroupResponse");
+                }
+                break;
+            case "receiveVideoFrom":
+                try {
+                    roomManager.join(session).receiveVideoFrom(session,
+                            jsonMessage.get("sender").getAsString(), sdpOfferOf(jsonMessage));
+                } catch (Throwable t) {
+                    // 영상 하나를 받지 못한 것이므로 통화에서 내보내지 않음
+                    sendErrorResponse(t, session, "receiveVideoAnswer");
+                }
+                break;
             case "onIceCandidate": {
                 JsonObject candidate = jsonMessage.get("candidate").getAsJsonObject();
 
-                KurentoUserSession user = null;
-                if (presenterKurentoUserSession != null) {
-                    if (presenterKurentoUserSession.getSession() == session) {
-                        user = presenterKurentoUserSession;
-                    } else {
-                        user = viewers.get(session.getId());
-                    }
-                }
-                if (user != null) {
+                KurentoRoom room = roomManager.roomOf(session);
+                if (room != null) {
                     IceCandidate cand =
                             new IceCandidate(candidate.get("candidate").getAsString(), candidate.get("sdpMid")
                                     .getAsString(), candidate.get("sdpMLineIndex").getAsInt());
-                    user.addCandidate(cand);
+                    // 그룹 통화는 어느 참여자 영상의 후보인지 name 으로 구분
+                    String name = jsonMessage.has("name") ? jsonMessage.get("name").getAsString() : null;
+                    room.addCandidate(session, name, cand);
                 }
                 break;
             }
             case "stop":
-                stop(session);
+            case "leaveGroup":
+                roomManager.leave(session);
                 break;
             default:
                 break;
         }
     }
 
+    private static String sdpOfferOf(JsonObject jsonMessage) {
+        return jsonMessage.getAsJsonPrimitive("sdpOffer").getAsString();
+    }
+
     private void handleErrorResponse(Throwable throwable, WebSocketSession session, String responseId)
             throws IOException {
-        stop(session);
+        roomManager.leave(session);
+        sendErrorResponse(throwable, session, responseId);
+    }
+
+    private void sendErrorResponse(Throwable throwable, WebSocketSession session, String responseId)
+            throws IOException {
         log.error(throwable.getMessage(), throwable);
         JsonObject response = new JsonObject();
         response.addProperty("id", responseId);
         response.addProperty("response", "rejected");
         response.addProperty("message", throwable.getMessage());
-        session.sendMessage(new TextMessage(response.toString()));
-    }
-
-    /* WebSocket 세션을 통해 온 SDP(offer) 메시지를 처리 후, 클라는 "프레젠터"로 설정 -> 미디어 파이프라인과 EndPoint 관리 */
-    private synchronized void presenter(final WebSocketSession session, JsonObject jsonMessage)
-            throws IOException {
-        if (presenterKurentoUserSession == null) {
-            presenterKurentoUserSession = new KurentoUserSession(session);
-
-            pipeline = kurento.createMediaPipeline();
-            presenterKurentoUserSession.setWebRtcEndpoint(new WebRtcEndpoint.Builder(pipeline).build());
-
-            WebRtcEndpoint presenterWebRtc = presenterKurentoUserSession.getWebRtcEndpoint();  // EndPoint 를 미디어 파이프라인에 추가
-
-            //  Presenter가 ICE 후보를 생성하고 해당 후보 정보를 JSON 형식으로 변환하여 Viewer에게 전송
-            //  (Presenter와 Viewer 간에 SDP 교환이 완료되면, ICE 후보 찾기 프로세스가 시작)
-            presenterWebRtc.addIceCandidateFoundListener(new EventListener<IceCandidateFoundEvent>() {
-
-                @Override
-                public void onEvent(IceCandidateFoundEvent event) {
-                    JsonObject response = new JsonObject();
-                    response.addProperty("id", "iceCandidate");
-                    response.add("candidate", JsonUtils.toJsonObject(event.getCandidate()));
-                    try {
-                        synchronized (session) {
-                            session.sendMessage(new TextMessage(response.toString()));
-                        }
-                    } catch (IOException e) {
-                        log.debug(e.getMessage());
-                    }
-                }
-            });
-
-            // Presenter는 Viewer로부터 받은 SDP(Offer)를 처리 -> 응답으로 자신의 WebRTC 엔드포인트에 대한 SDP(Answer)를 생성
-            String sdpOffer = jsonMessage.getAsJsonPrimitive("sdpOffer").getAsString();
-            String sdpAnswer = presenterWebRtc.processOffer(sdpOffer);
-
-            JsonObject response = new JsonObject();
-            response.addProperty("id", "presenterResponse");
-            response.addProperty("response", "accepted");
-            response.addProperty("sdpAnswer", sdpAnswer);
-
-            synchronized (session) {
-                presenterKurentoUserSession.sendMessage(response);
-            }
-            presenterWebRtc.gatherCandidates();
-
-        } else {
-            // 다른 사용자가 presenter 로 활동 중 이라면, 새로운 연결 거부 + 메시지 전송
-            JsonObject response = new JsonObject();
-            response.addProperty("id", "presenterResponse");
-            response.addProperty("response", "rejected");
-            response.addProperty("message",
-                    "Another user is currently acting as sender. Try again later ...");
+        synchronized (session) {
             session.sendMessage(new TextMessage(response.toString()));
         }
     }
 
-    private synchronized void viewer(final WebSocketSession session, JsonObject jsonMessage)
-            throws IOException {
-        // Presenter 활성화 전 or Presenter 의 WebRTC EndPoint 미설정
-        if (presenterKurentoUserSession == null || presenterKurentoUserSession.getWebRtcEndpoint() == null) {
-            JsonObject response = new JsonObject();
-            response.addProperty("id", "viewerResponse");
-            response.addProperty("response", "rejected");
-            response.addProperty("message",
-                    "No active sender now. Become sender or . Try again later ...");
-            session.sendMessage(new TextMessage(response.toString()));
-        } else {
-            // 이미 연결된 Viewer이므로 추가 연결 거부
-            if (viewers.containsKey(session.getId())) {
-                JsonObject response = new JsonObject();
-                response.addProperty("id", "viewerResponse");
-                response.addProperty("response", "rejected");
-                response.addProperty("message", "You are already viewing in this session. "
-                        + "Use a different browser to add additional viewers.");
-                session.sendMessage(new TextMessage(response.toString()));
-                return;
-            }
-
-            // 새로운 Viewer : 세션 설정 + EndPoint 설정 -> Presenter의 EndPoint 와 연결
-            KurentoUserSession viewer = new KurentoUserSession(session);
-            viewers.put(session.getId(), viewer);
-
-            WebRtcEndpoint nextWebRtc = new WebRtcEndpoint.Builder(pipeline).build();
-
-            nextWebRtc.addIceCandidateFoundListener(new EventListener<IceCandidateFoundEvent>() {
-
-                @Override
-                public void onEvent(IceCandidateFoundEvent event) {
-                    JsonObject response = new JsonObject();
-                    response.addProperty("id", "iceCandidate");
-                    response.add("candidate", JsonUtils.toJsonObject(event.getCandidate()));
-                    try {
-                        synchronized (session) {
-                            session.sendMessage(new TextMessage(response.toString()));
-                        }
-                    } catch (IOException e) {
-                        log.debug(e.getMessage());
-                    }
-                }
-            });
-
-            viewer.setWebRtcEndpoint(nextWebRtc);
-            presenterKurentoUserSession.getWebRtcEndpoint().connect(nextWebRtc);
-            String sdpOffer = jsonMessage.getAsJsonPrimitive("sdpOffer").getAsString();
-            String sdpAnswer = nextWebRtc.processOffer(sdpOffer);
-
-            JsonObject response = new JsonObject();
-            response.addProperty("id", "viewerResponse");
-            response.addProperty("response", "accepted");
-            response.addProperty("sdpAnswer", sdpAnswer);
-
-            synchronized (session) {
-                viewer.sendMessage(response);
-            }
-            nextWebRtc.gatherCandidates();
-        }
-    }
-
-    private synchronized void stop(WebSocketSession session) throws IOException {
-        String sessionId = session.getId();
-        if (presenterKurentoUserSession != null && presenterKurentoUserSession.getSession().getId().equals(sessionId)) {
-            for (KurentoUserSession viewer : viewers.values()) {
-                JsonObject response = new JsonObject();
-                response.addProperty("id", "stopCommunication");
-                viewer.sendMessage(response);
-            }
-
-            log.info("Releasing media pipeline");
-            if (pipeline != null) {
-                pipeline.release();
-            }
-            pipeline = null;
-            presenterKurentoUserSession = null;
-        } else if (viewers.containsKey(sessionId)) {
-            if (viewers.get(sessionId).getWebRtcEndpoint() != null) {
-                viewers.get(sessionId).getWebRtcEndpoint().release();
-            }
-            viewers.remove(sessionId);
-        }
-    }
-
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
-        stop(session);
+        roomManager.leave(session);
     }
 
 }
-
@@ -0,0 +1,62 @@
+package jungle.spaceship.video;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.kurento.client.WebRtcEndpoint;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * 그룹 통화 참여자 : 자신의 영상을 보내는 EndPoint 하나 + 다른 참여자별로 받는 EndPoint (처음 요청할 때 생성)
+ * - 방(KurentoRoom)의 잠금 안에서만 사용
+ */
+class KurentoParticipant {
+
+    private final String name;
+    private final WebSocketSession session;
+    private final WebRtcEndpoint outgoing;
+    private final Map<String, WebRtcEndpoint> incoming = new LinkedHashMap<>();
+
+    KurentoParticipant(String name, WebSocketSession session, WebRtcEndpoint outgoing) {
+        this.name = name;
+        this.session = session;
+        this.outgoing = outgoing;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    WebSocketSession getSession() {
+        return session;
+    }
+
+    WebRtcEndpoint getOutgoing() {
+        return outgoing;
+    }
+
+    WebRtcEndpoint incomingFrom(String sender) {
+        return incoming.get(sender);
+    }
+
+    void addIncoming(String sender, WebRtcEndpoint endpoint) {
+        incoming.put(sender, endpoint);
+    }
+
+    WebRtcEndpoint removeIncoming(String sender) {
+        return incoming.remove(sender);
+    }
+
+    /**
+     * 나갈 때 해제할 EndPoint 수 (보내는 EndPoint 포함)
+     */
+    int endpointCount() {
+        return incoming.size() + 1;
+    }
+
+    void releaseAll() {
+        incoming.values().forEach(WebRtcEndpoint::release);
+        incoming.clear();
+        outgoing.release();
+    }
+}
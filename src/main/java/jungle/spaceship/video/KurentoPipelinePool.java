@@ -0,0 +1,172 @@
+package jungle.spaceship.video;
+
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.kurento.client.KurentoClient;
+import org.kurento.client.MediaObject;
+import org.kurento.client.MediaPipeline;
+import org.kurento.client.WebRtcEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * 미리 만들어 둔 MediaPipeline 풀 : 통화를 시작할 때 pipeline(과 첫 EndPoint)을 만드는 미디어 서버 왕복을 없앰
+ * - 꺼낸 만큼 백그라운드에서 다시 채우고, 쉬고 있는 pipeline 은 주기적으로 상태를 확인해 응답이 없으면 버림
+ * - 다 쓴 pipeline 은 남은 EndPoint 를 정리한 뒤 다시 넣음 (풀이 가득 찼거나 정리에 실패하면 해제)
+ * - size 가 0 이면 풀 없이 매번 만들고 바로 해제
+ */
+public class KurentoPipelinePool implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(KurentoPipelinePool.class);
+
+    private final KurentoClient kurento;
+    private final int size;
+    private final boolean prebuildEndpoint;
+
+    private final BlockingDeque<Lease> idle = new LinkedBlockingDeque<>();
+    // 생성/정리/상태 확인은 모두 이 스레드에서 순서대로 (요청 스레드는 기다리지 않음)
+    private final ExecutorService worker =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("kurento-pipeline-pool-"));
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private volatile boolean closed;
+
+    private final Counter hit;
+    private final Counter miss;
+    private final Counter discarded;
+
+    /**
+     * 풀에서 꺼낸 pipeline, prebuild-endpoint 설정 시 미리 만든 WebRtcEndpoint (없으면 null)
+     */
+    record Lease(MediaPipeline pipeline, WebRtcEndpoint endpoint) {
+    }
+
+    public KurentoPipelinePool(KurentoClient kurento, MeterRegistry meterRegistry, int size, boolean prebuildEndpoint) {
+        this.kurento = kurento;
+        this.size = size;
+        this.prebuildEndpoint = prebuildEndpoint;
+        this.hit = meterRegistry.counter("video.pipeline.pool", "result", "hit");
+        this.miss = meterRegistry.counter("video.pipeline.pool", "result", "miss");
+        this.discarded = meterRegistry.counter("video.pipeline.pool.discarded");
+        meterRegistry.gaugeCollectionSize("video.pipeline.pool.idle", List.of(), idle);
+    }
+
+    @PostConstruct
+    public void start() {
+        refillLater();
+    }
+
+    Lease acquire() {
+        Lease lease = idle.pollFirst();
+        if (size == 0) {
+            return new Lease(kurento.createMediaPipeline(), null);
+        }
+        refillLater();
+        if (lease != null) {
+            hit.increment();
+            return lease;
+        }
+        miss.increment();
+        return new Lease(kurento.createMediaPipeline(), null);
+    }
+
+    /**
+     * 다 쓴 pipeline 반납
+     */
+    void recycle(MediaPipeline pipeline) {
+        if (size == 0 || closed) {
+            release(pipeline);
+            return;
+        }
+        worker.execute(() -> {
+            try {
+                for (MediaObject child : pipeline.getChildren()) {
+                    child.release();
+                }
+                if (!closed && idle.size() < size) {
+                    idle.addLast(new Lease(pipeline, prebuildEndpoint ? new WebRtcEndpoint.Builder(pipeline).build() : null));
+                    return;
+                }
+            } catch (Exception e) {
+                discarded.increment();
+                log.warn("Discarding media pipeline that failed to recycle : {}", e.getMessage());
+            }
+            release(pipeline);
+        });
+    }
+
+    /**
+     * 쉬고 있는 pipeline 상태 확인 (미디어 서버가 재시작되면 이전 pipeline 은 모두 사라짐)
+     */
+    @Scheduled(fixedDelayString = "${video.pipeline-pool.health-check-interval-ms:30000}")
+    public void healthCheck() {
+        if (size == 0 || closed) {
+            return;
+        }
+        worker.execute(() -> {
+            for (Lease lease : List.copyOf(idle)) {
+                try {
+                    lease.pipeline().getChildren();
+                } catch (Exception e) {
+                    if (idle.remove(lease)) {
+                        discarded.increment();
+                        log.warn("Discarding unhealthy media pipeline : {}", e.getMessage());
+                        release(lease.pipeline());
+                    }
+                }
+            }
+            refill();
+        });
+    }
+
+    private void refillLater() {
+        if (size > 0 && !closed && refilling.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                refilling.set(false);
+                refill();
+            });
+        }
+    }
+
+    private void refill() {
+        while (!closed && idle.size() < size) {
+            try {
+                MediaPipeline pipeline = kurento.createMediaPipeline();
+                idle.addLast(new Lease(pipeline, prebuildEndpoint ? new WebRtcEndpoint.Builder(pipeline).build() : null));
+            } catch (Exception e) {
+                // 미디어 서버에 연결할 수 없으면 다음 상태 확인 때 다시 채움
+                log.warn("Failed to fill media pipeline pool : {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private static void release(MediaPipeline pipeline) {
+        try {
+            pipeline.release();
+        } catch (Exception e) {
+            log.debug(e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        closed = true;
+        worker.shutdownNow();
+        Lease lease;
+        while ((lease = idle.pollFirst()) != null) {
+            release(lease.pipeline());
+        }
+    }
+}
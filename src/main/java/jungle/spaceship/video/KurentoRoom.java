@@ -0,0 +1,384 @@
+package jungle.spaceship.video;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.kurento.client.EventListener;
+import org.kurento.client.IceCandidate;
+import org.kurento.client.IceCandidateFoundEvent;
+import org.kurento.client.MediaPipeline;
+import org.kurento.client.WebRtcEndpoint;
+import org.kurento.jsonrpc.JsonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * 가족 한 곳의 영상 통화 방 : MediaPipeline, presenter, viewer, 그룹 통화 참여자를 방마다 따로 가지고 방 단위로 잠금
+ * - presenter 모드 : presenter 한 명의 영상을 viewer 들이 받음
+ * - 그룹 통화 모드 (SFU) : 참여자마다 보내는 EndPoint 하나, 다른 참여자 영상은 요청할 때 받는 EndPoint 를 만들어 연결
+ * - 참여 중인(요청 처리 중 포함) 세션이 모두 나가면 pipeline 을 풀에 반납하고 닫힘 -> 닫힌 방은 다시 쓰지 않음
+ */
+class KurentoRoom {
+
+    private static final Logger log = LoggerFactory.getLogger(KurentoRoom.class);
+
+    private final String familyId;
+    private final KurentoPipelinePool pool;
+    private final VideoCallMetrics metrics;
+    private final Consumer<KurentoRoom> onClosed;
+
+    private final Set<String> members = new HashSet<>();
+    private final Map<String, KurentoUserSession> viewers = new HashMap<>();
+    // 그룹 통화 : 이름(이메일) -> 참여자, 세션 Id -> 이름
+    private final Map<String, KurentoParticipant> participants = new LinkedHashMap<>();
+    private final Map<String, String> participantSessions = new HashMap<>();
+    private MediaPipeline pipeline;
+    // 풀에서 pipeline 과 함께 받은 미리 만든 EndPoint (방의 첫 EndPoint 로 사용)
+    private WebRtcEndpoint spare;
+    private KurentoUserSession presenter;
+    private int endpoints;
+    private boolean closed;
+
+    KurentoRoom(String familyId, KurentoPipelinePool pool, VideoCallMetrics metrics, Consumer<KurentoRoom> onClosed) {
+        this.familyId = familyId;
+        this.pool = pool;
+        this.metrics = metrics;
+        this.onClosed = onClosed;
+    }
+
+    String getFamilyId() {
+        return familyId;
+    }
+
+    /**
+     * 요청 처리 전에 세션을 방에 등록 (처리 중에 방이 닫히지 않도록), 이미 닫힌 방이면 false
+     */
+    synchronized boolean reserve(String sessionId) {
+        if (closed) {
+            return false;
+        }
+        members.add(sessionId);
+        return true;
+    }
+
+    synchronized void presenter(WebSocketSession session, String sdpOffer) throws IOException {
+        long startedAt = System.nanoTime();
+        if (presenter != null) {
+            // 다른 가족 구성원이 presenter 로 활동 중 이라면, 새로운 연결 거부
+            reject(session, "presenterResponse", "Another user is currently acting as sender. Try again later ...");
+            return;
+        }
+        presenter = new KurentoUserSession(session);
+        WebRtcEndpoint presenterWebRtc = newEndpoint(session, null);
+        presenter.setWebRtcEndpoint(presenterWebRtc);
+
+        String sdpAnswer = presenterWebRtc.processOffer(sdpOffer);
+        accept(presenter, "presenterResponse", sdpAnswer);
+        presenterWebRtc.gatherCandidates();
+        metrics.setup("presenter", startedAt);
+    }
+
+    synchronized void viewer(WebSocketSession session, String sdpOffer) throws IOException {
+        long startedAt = System.nanoTime();
+        // Presenter 활성화 전 or Presenter 의 WebRTC EndPoint 미설정
+        if (presenter == null || presenter.getWebRtcEndpoint() == null) {
+            reject(session, "viewerResponse", "No active sender now. Become sender or . Try again later ...");
+            return;
+        }
+        if (viewers.containsKey(session.getId())) {
+            reject(session, "viewerResponse", "You are already viewing in this session. "
+                    + "Use a different browser to add additional viewers.");
+            return;
+        }
+
+        // 새로운 Viewer : 세션 설정 + EndPoint 설정 -> Presenter의 EndPoint 와 연결
+        KurentoUserSession viewer = new KurentoUserSession(session);
+        viewers.put(session.getId(), viewer);
+        WebRtcEndpoint nextWebRtc = newEndpoint(session, null);
+        viewer.setWebRtcEndpoint(nextWebRtc);
+        presenter.getWebRtcEndpoint().connect(nextWebRtc);
+
+        String sdpAnswer = nextWebRtc.processOffer(sdpOffer);
+        accept(viewer, "viewerResponse", sdpAnswer);
+        nextWebRtc.gatherCandidates();
+        metrics.setup("viewer", startedAt);
+    }
+
+    /**
+     * 그룹 통화 참여 : 보내는 EndPoint 를 만들고, 새 참여자에게 기존 참여자 목록을 / 기존 참여자에게 새 참여자를 알림
+     */
+    synchronized void joinGroup(WebSocketSession session) throws IOException {
+        String name = session.getPrincipal().getName();
+        if (participantSessions.containsKey(session.getId()) || participants.containsKey(name)) {
+            reject(session, "joinGroupResponse", "You are already in the group call.");
+            return;
+        }
+        KurentoParticipant participant = new KurentoParticipant(name, session, newEndpoint(session, name));
+
+        JsonObject arrived = new JsonObject();
+        arrived.addProperty("id", "newParticipantArrived");
+        arrived.addProperty("name", name);
+        JsonArray existing = new JsonArray();
+        for (KurentoParticipant other : participants.values()) {
+            send(other.getSession(), arrived);
+            existing.add(other.getName());
+        }
+        participants.put(name, participant);
+        participantSessions.put(session.getId(), name);
+
+        JsonObject response = new JsonObject();
+        response.addProperty("id", "existingParticipants");
+        response.add("data", existing);
+        send(session, response);
+    }
+
+    /**
+     * sender 의 영상 받기 : 자기 자신이면 보내는 EndPoint 로 SDP 협상(publish), 다른 참여자면 받는 EndPoint 를 처음 한 번만 만들어 연결
+     * - 협상에 실패하면 이 요청만 거부하고 받는 EndPoint 만 해제 (참여자는 통화에 그대로 남음)
+     */
+    synchronized void receiveVideoFrom(WebSocketSession session, String senderName, String sdpOffer) throws IOException {
+        long startedAt = System.nanoTime();
+        KurentoParticipant receiver = participantOf(session.getId());
+        KurentoParticipant sender = participants.get(senderName);
+        if (receiver == null || sender == null) {
+            reject(session, "receiveVideoAnswer", receiver == null
+                    ? "Join the group call first."
+                    : senderName + " is not in the group call.");
+            return;
+        }
+
+        try {
+            WebRtcEndpoint endpoint;
+            if (sender == receiver) {
+                endpoint = receiver.getOutgoing();
+            } else {
+                endpoint = receiver.incomingFrom(senderName);
+                if (endpoint == null) {
+                    endpoint = newEndpoint(session, senderName);
+                    receiver.addIncoming(senderName, endpoint);
+                    sender.getOutgoing().connect(endpoint);
+                }
+            }
+
+            String sdpAnswer = endpoint.processOffer(sdpOffer);
+            JsonObject response = new JsonObject();
+            response.addProperty("id", "receiveVideoAnswer");
+            response.addProperty("name", senderName);
+            response.addProperty("sdpAnswer", sdpAnswer);
+            send(session, response);
+            endpoint.gatherCandidates();
+        } catch (RuntimeException e) {
+            log.error("{} 가 {} 의 영상을 받지 못했습니다 : {}", receiver.getName(), senderName, e.getMessage());
+            if (sender != receiver) {
+                WebRtcEndpoint incoming = receiver.removeIncoming(senderName);
+                if (incoming != null) {
+                    incoming.release();
+                    endpointsChanged(-1);
+                }
+            }
+            reject(session, "receiveVideoAnswer", e.getMessage());
+            return;
+        }
+        metrics.setup(sender == receiver ? "publish" : "subscribe", startedAt);
+    }
+
+    /**
+     * name : 그룹 통화에서 후보가 속한 영상의 참여자 이름 (presenter/viewer 모드는 없음)
+     */
+    synchronized void addCandidate(WebSocketSession session, String name, IceCandidate candidate) {
+        KurentoParticipant participant = participantOf(session.getId());
+        if (name != null && participant != null) {
+            WebRtcEndpoint endpoint = name.equals(participant.getName())
+                    ? participant.getOutgoing()
+                    : participant.incomingFrom(name);
+            if (endpoint != null) {
+                endpoint.addIceCandidate(candidate);
+            }
+            return;
+        }
+        KurentoUserSession user = presenter != null && presenter.getSession() == session
+                ? presenter
+                : viewers.get(session.getId());
+        if (user != null && user.getWebRtcEndpoint() != null) {
+            user.addCandidate(candidate);
+        }
+    }
+
+    /**
+     * 세션이 맡은 역할에서 모두 나감
+     * - presenter : viewer 들에게 종료를 알리고 presenter/viewer EndPoint 해제
+     * - viewer : 자신의 EndPoint 만 해제
+     * - 그룹 통화 참여자 : 자신의 EndPoint 와 다른 참여자가 자신의 영상을 받던 EndPoint 만 해제
+     */
+    synchronized void leave(String sessionId) {
+        if (!members.remove(sessionId)) {
+            return;
+        }
+        if (presenter != null && presenter.getSession().getId().equals(sessionId)) {
+            stopPresenter();
+        } else {
+            KurentoUserSession viewer = viewers.remove(sessionId);
+            if (viewer != null && viewer.getWebRtcEndpoint() != null) {
+                viewer.getWebRtcEndpoint().release();
+                endpointsChanged(-1);
+            }
+        }
+        String name = participantSessions.remove(sessionId);
+        if (name != null) {
+            leaveGroup(participants.remove(name));
+        }
+        closeIfEmpty();
+    }
+
+    /**
+     * viewer 세션은 그룹 통화에도 참여 중이 아닐 때만 방에서 뺌
+     */
+    private void stopPresenter() {
+        int released = 0;
+        for (KurentoUserSession viewer : viewers.values()) {
+            JsonObject response = new JsonObject();
+            response.addProperty("id", "stopCommunication");
+            send(viewer.getSession(), response);
+            if (viewer.getWebRtcEndpoint() != null) {
+                viewer.getWebRtcEndpoint().release();
+                released++;
+            }
+        }
+        Set<String> stopped = new HashSet<>(viewers.keySet());
+        viewers.clear();
+        // EndPoint 생성 중에 실패한 presenter 는 EndPoint 가 없음
+        if (presenter.getWebRtcEndpoint() != null) {
+            presenter.getWebRtcEndpoint().release();
+            released++;
+        }
+        presenter = null;
+        endpointsChanged(-released);
+        for (String sessionId : stopped) {
+            if (!isParticipant(sessionId)) {
+                members.remove(sessionId);
+            }
+        }
+    }
+
+    private void leaveGroup(KurentoParticipant leaver) {
+        int released = leaver.endpointCount();
+        JsonObject left = new JsonObject();
+        left.addProperty("id", "participantLeft");
+        left.addProperty("name", leaver.getName());
+        for (KurentoParticipant other : participants.values()) {
+            WebRtcEndpoint incoming = other.removeIncoming(leaver.getName());
+            if (incoming != null) {
+                incoming.release();
+                released++;
+            }
+            send(other.getSession(), left);
+        }
+        leaver.releaseAll();
+        endpointsChanged(-released);
+    }
+
+    private KurentoParticipant participantOf(String sessionId) {
+        String name = participantSessions.get(sessionId);
+        return name == null ? null : participants.get(name);
+    }
+
+    private void reject(WebSocketSession session, String responseId, String message) {
+        JsonObject response = new JsonObject();
+        response.addProperty("id", responseId);
+        response.addProperty("response", "rejected");
+        response.addProperty("message", message);
+        send(session, response);
+        // 이미 presenter/viewer/그룹 통화 참여자인 세션은 방에 그대로 둠
+        if (!isParticipant(session.getId())) {
+            members.remove(session.getId());
+            closeIfEmpty();
+        }
+    }
+
+    private boolean isParticipant(String sessionId) {
+        return viewers.containsKey(sessionId)
+                || participantSessions.containsKey(sessionId)
+                || (presenter != null && presenter.getSession().getId().equals(sessionId));
+    }
+
+    private void accept(KurentoUserSession user, String responseId, String sdpAnswer) throws IOException {
+        JsonObject response = new JsonObject();
+        response.addProperty("id", responseId);
+        response.addProperty("response", "accepted");
+        response.addProperty("sdpAnswer", sdpAnswer);
+        synchronized (user.getSession()) {
+            user.sendMessage(response);
+        }
+    }
+
+    /**
+     * 방의 pipeline 에 EndPoint 생성 (pipeline 은 처음 필요할 때 풀에서 꺼냄)
+     */
+    private WebRtcEndpoint newEndpoint(WebSocketSession session, String name) {
+        if (pipeline == null) {
+            KurentoPipelinePool.Lease lease = pool.acquire();
+            pipeline = lease.pipeline();
+            spare = lease.endpoint();
+        }
+        WebRtcEndpoint endpoint = spare != null ? spare : new WebRtcEndpoint.Builder(pipeline).build();
+        spare = null;
+        endpoint.addIceCandidateFoundListener(candidateSender(session, name));
+        endpointsChanged(1);
+        return endpoint;
+    }
+
+    private void endpointsChanged(int delta) {
+        endpoints += delta;
+        metrics.endpointsChanged(delta, endpoints);
+    }
+
+    private void closeIfEmpty() {
+        if (!members.isEmpty() || closed) {
+            return;
+        }
+        closed = true;
+        if (endpoints != 0) {
+            endpointsChanged(-endpoints);
+        }
+        if (pipeline != null) {
+            log.info("Returning media pipeline of family {}", familyId);
+            pool.recycle(pipeline);
+            pipeline = null;
+            spare = null;
+        }
+        onClosed.accept(this);
+    }
+
+    //  EndPoint 가 찾은 ICE 후보를 해당 세션에 전송 (SDP 교환이 완료되면 ICE 후보 찾기 프로세스가 시작)
+    private static EventListener<IceCandidateFoundEvent> candidateSender(WebSocketSession session, String name) {
+        return event -> {
+            JsonObject response = new JsonObject();
+            response.addProperty("id", "iceCandidate");
+            if (name != null) {
+                response.addProperty("name", name);
+            }
+            response.add("candidate", JsonUtils.toJsonObject(event.getCandidate()));
+            send(session, response);
+        };
+    }
+
+    private static void send(WebSocketSession session, JsonObject message) {
+        try {
+            synchronized (session) {
+                session.sendMessage(new TextMessage(message.toString()));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package jungle.spaceship.video;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jungle.spaceship.member.entity.MemberDetail;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * 가족별 영상 통화 방 관리 : 가족 Id 는 /call 연결 시 인증된 사용자(MemberDetail)에서 가져옴
+ * - 방마다 따로 잠그므로 한 가족의 통화 연결이 다른 가족을 막지 않음
+ */
+public class KurentoRoomManager {
+
+    private final KurentoPipelinePool pool;
+    private final VideoCallMetrics metrics;
+
+    // 가족 Id -> 방, 세션 Id -> 참여 중인 방
+    private final Map<String, KurentoRoom> rooms = new ConcurrentHashMap<>();
+    private final Map<String, KurentoRoom> sessions = new ConcurrentHashMap<>();
+
+    public KurentoRoomManager(KurentoPipelinePool pool, MeterRegistry meterRegistry) {
+        this.pool = pool;
+        this.metrics = new VideoCallMetrics(meterRegistry);
+    }
+
+    /**
+     * 세션 가족의 방에 참여 (비워져 닫히는 중인 방이면 새 방을 만듦)
+     */
+    KurentoRoom join(WebSocketSession session) {
+        String familyId = familyIdOf(session.getPrincipal());
+        while (true) {
+            KurentoRoom room = rooms.computeIfAbsent(familyId,
+                    id -> new KurentoRoom(id, pool, metrics, closed -> rooms.remove(closed.getFamilyId(), closed)));
+            if (room.reserve(session.getId())) {
+                sessions.put(session.getId(), room);
+                return room;
+            }
+            rooms.remove(familyId, room);
+        }
+    }
+
+    KurentoRoom roomOf(WebSocketSession session) {
+        return sessions.get(session.getId());
+    }
+
+    void leave(WebSocketSession session) {
+        KurentoRoom room = sessions.remove(session.getId());
+        if (room != null) {
+            room.leave(session.getId());
+        }
+    }
+
+    private static String familyIdOf(Principal principal) {
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof MemberDetail member
+                && member.getFamilyId() != null) {
+            return member.getFamilyId();
+        }
+        throw new IllegalArgumentException("인증 정보가 없습니다.");
+    }
+}
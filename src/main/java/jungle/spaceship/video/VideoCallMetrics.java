@@ -0,0 +1,43 @@
+package jungle.spaceship.video;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 영상 통화 지표
+ * - video.endpoints : 서버 전체의 WebRtcEndpoint 수
+ * - video.room.endpoints : EndPoint 수가 바뀔 때마다 기록한 방별 EndPoint 수 (최대/평균)
+ * - video.call.setup{type} : 요청부터 sdpAnswer 전송까지 걸린 시간
+ */
+class VideoCallMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger endpoints;
+    private final DistributionSummary roomEndpoints;
+
+    VideoCallMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.endpoints = meterRegistry.gauge("video.endpoints", new AtomicInteger());
+        this.roomEndpoints = meterRegistry.summary("video.room.endpoints");
+    }
+
+    void endpointsChanged(int delta, int roomTotal) {
+        endpoints.addAndGet(delta);
+        roomEndpoints.record(roomTotal);
+    }
+
+    void setup(String type, long startedAt) {
+        Timer.builder("video.call.setup")
+                .tag("type", type)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    int endpoints() {
+        return endpoints.get();
+    }
+}
@@ -0,0 +1,266 @@
+package jungle.spaceship.config;
+
+import com.github.fppt.jedismock.RedisServer;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jungle.spaceship.gameMap.MapRelayInterceptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 서버 간 STOMP 메시지 전달 : 한 JVM 에 서버 두 대(ApplicationContext)를 띄우고 jedis-mock 으로 Redis 를 공유
+ */
+class RedisBrokerRelayTest {
+
+    private static final String DESTINATION = "/sub/chat/room/1";
+
+    private RedisServer redis;
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private final List<StompSession> sessions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redis = RedisServer.newRedisServer();
+        redis.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        sessions.forEach(StompSession::disconnect);
+        nodes.forEach(ConfigurableApplicationContext::close);
+        redis.stop();
+    }
+
+    @Test
+    void 한_서버에서_보낸_메시지를_두_서버의_구독자가_한_번씩_받음() throws Exception {
+        ConfigurableApplicationContext nodeA = start();
+        ConfigurableApplicationContext nodeB = start();
+        BlockingQueue<String> receivedA = subscribe(nodeA);
+        BlockingQueue<String> receivedB = subscribe(nodeB);
+        SimpMessagingTemplate template = nodeA.getBean(SimpMessagingTemplate.class);
+
+        awaitRelay(template, receivedB);
+        receivedA.clear();
+        receivedB.clear();
+
+        template.convertAndSend(DESTINATION, "hello");
+
+        assertThat(receivedA.poll(5, TimeUnit.SECONDS)).isEqualTo("hello");
+        assertThat(receivedB.poll(5, TimeUnit.SECONDS)).isEqualTo("hello");
+        // 자신이 Redis 로 발행한 메시지를 다시 전달하지 않음
+        assertThat(receivedA.poll(500, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(receivedB.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void 입력_중_신호는_다른_서버로_전달하지_않음() throws Exception {
+        ConfigurableApplicationContext nodeA = start();
+        ConfigurableApplicationContext nodeB = start();
+        BlockingQueue<String> chatB = subscribe(nodeB);
+        BlockingQueue<String> ephemeralA = subscribe(nodeA, DESTINATION + "/ephemeral");
+        BlockingQueue<String> ephemeralB = subscribe(nodeB, DESTINATION + "/ephemeral");
+        SimpMessagingTemplate template = nodeA.getBean(SimpMessagingTemplate.class);
+        awaitRelay(template, chatB);
+
+        template.convertAndSend(DESTINATION + "/ephemeral", "typing");
+
+        assertThat(ephemeralA.poll(5, TimeUnit.SECONDS)).isEqualTo("typing");
+        assertThat(ephemeralB.poll(500, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void binary_지도_구독이_있으면_같은_가족의_위치_채널을_전달받음() throws Exception {
+        ConfigurableApplicationContext nodeA = start();
+        ConfigurableApplicationContext nodeB = start();
+        subscribe(nodeB, "/sub/map/1/bin");
+        BlockingQueue<String> relayedB = nodeB.getBean(Node.class).relayedMapDestinations;
+        SimpMessagingTemplate template = nodeA.getBean(SimpMessagingTemplate.class);
+
+        // Redis 채널 구독은 비동기이므로 전달될 때까지 다시 보냄
+        String relayed = null;
+        for (int i = 0; i < 50 && relayed == null; i++) {
+            template.convertAndSend("/sub/map/1", "moved");
+            relayed = relayedB.poll(100, TimeUnit.MILLISECONDS);
+        }
+
+        assertThat(relayed).isEqualTo("/sub/map/1");
+        // 보낸 서버에서는 자신의 메시지를 다시 받지 않음
+        assertThat(nodeA.getBean(Node.class).relayedMapDestinations).isEmpty();
+    }
+
+    @Test
+    void Redis_에_발행하지_못해도_같은_서버의_구독자에게는_전달() throws Exception {
+        ConfigurableApplicationContext node = start();
+        BlockingQueue<String> received = subscribe(node);
+        SimpMessagingTemplate template = node.getBean(SimpMessagingTemplate.class);
+        awaitRelay(template, received);
+        received.clear();
+        redis.stop();
+
+        template.convertAndSend(DESTINATION, "hello");
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("hello");
+        redis.start();
+    }
+
+    private ConfigurableApplicationContext start() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Node.class)
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0",
+                        "websocket.broker.relay=redis",
+                        "spring.redis.host=" + redis.getHost(),
+                        "spring.redis.port=" + redis.getBindPort())
+                .run();
+        nodes.add(context);
+        return context;
+    }
+
+    private BlockingQueue<String> subscribe(ConfigurableApplicationContext node) throws Exception {
+        return subscribe(node, DESTINATION);
+    }
+
+    private BlockingQueue<String> subscribe(ConfigurableApplicationContext node, String destination) throws Exception {
+        int port = ((WebServerApplicationContext) node).getWebServer().getPort();
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new StringMessageConverter());
+        StompSession session = client.connect("ws://localhost:" + port + "/ws", new StompSessionHandlerAdapter() {})
+                .get(5, TimeUnit.SECONDS);
+        sessions.add(session);
+
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((String) payload);
+            }
+        });
+        return received;
+    }
+
+    /**
+     * 구독 이벤트 처리와 Redis 채널 구독은 비동기이므로, 구독자에게 메시지가 전달될 때까지 대기
+     */
+    private void awaitRelay(SimpMessagingTemplate template, BlockingQueue<String> subscriber) throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            template.convertAndSend(DESTINATION, "ready");
+            if (subscriber.poll(100, TimeUnit.MILLISECONDS) != null) {
+                Thread.sleep(200);
+                return;
+            }
+        }
+        throw new AssertionError("구독자에게 메시지가 전달되지 않습니다");
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebSocketServletAutoConfiguration.class})
+    @Import({WebSocketConfig.class, RedisBrokerRelay.class})
+    static class Node {
+
+        // MapRelayInterceptor 로 넘어온, 다른 서버에서 전달받은 메시지의 목적지
+        private final BlockingQueue<String> relayedMapDestinations = new LinkedBlockingQueue<>();
+
+        // jedis-mock 은 RESP3(HELLO)를 지원하지 않음, Redis 를 내린 경우를 빨리 확인하도록 timeout 을 짧게
+        @Bean
+        public RedisConnectionFactory redisConnectionFactory(@Value("${spring.redis.host}") String host,
+                                                             @Value("${spring.redis.port}") int port) {
+            LettuceClientConfiguration client = LettuceClientConfiguration.builder()
+                    .clientOptions(ClientOptions.builder()
+                            .protocolVersion(ProtocolVersion.RESP2)
+                            .socketOptions(SocketOptions.builder().connectTimeout(Duration.ofSeconds(1)).build())
+                            .build())
+                    .commandTimeout(Duration.ofSeconds(1))
+                    .build();
+            return new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port), client);
+        }
+
+        @Bean
+        public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory redisConnectionFactory) {
+            return new StringRedisTemplate(redisConnectionFactory);
+        }
+
+        @Bean
+        public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(redisConnectionFactory);
+            return container;
+        }
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        public MapRelayInterceptor mapRelayInterceptor() {
+            MapRelayInterceptor interceptor = mock(MapRelayInterceptor.class);
+            when(interceptor.preSend(any(), any())).thenAnswer(invocation -> {
+                Message<?> message = invocation.getArgument(0);
+                if (message.getHeaders().get(RedisBrokerRelay.RELAYED_HEADER) != null) {
+                    relayedMapDestinations.add(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+                }
+                return message;
+            });
+            return interceptor;
+        }
+
+        // 토큰 검증 없이 그대로 통과
+        @Bean
+        public WebSocketInterceptor webSocketInterceptor() {
+            WebSocketInterceptor interceptor = mock(WebSocketInterceptor.class);
+            when(interceptor.preSend(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+            return interceptor;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package jungle.spaceship.gameMap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 광장 관심 영역 필터링 : 1024 x 1024 광장, 128 칸(8 x 8), 관심 영역 반경 1칸
+ */
+class PlazaGridTest {
+
+    private static final double SIZE = 1024;
+    private static final double CELL_SIZE = 128;
+
+    private final Map<Object, Frame> frames = new HashMap<>();
+
+    @Test
+    void 관심_영역_안에서_움직인_외계인만_받음() {
+        PlazaGrid grid = new PlazaGrid(SIZE, SIZE, CELL_SIZE, 1, null);
+        grid.move(1, 1L, 64, 64, "A", 0);
+        grid.move(2, 2L, 200, 64, null, 0);
+        grid.move(3, 3L, 900, 900, null, 0);
+        tick(grid);
+        assertThat(frames.get("A").visible).containsExactly(2L);
+
+        // 관심 영역 밖의 이동은 받지 않음
+        grid.move(3, 3L, 950, 900, null, 0);
+        tick(grid);
+        assertThat(frames).doesNotContainKey("A");
+
+        grid.move(2, 2L, 210, 70, null, 0);
+        tick(grid);
+        assertThat(frames.get("A").visible).containsExactly(2L);
+        assertThat(frames.get("A").left).isEmpty();
+    }
+
+    @Test
+    void 관심_영역을_벗어나거나_광장을_나간_외계인은_left() {
+        PlazaGrid grid = new PlazaGrid(SIZE, SIZE, CELL_SIZE, 1, null);
+        grid.move(1, 1L, 64, 64, "A", 0);
+        grid.move(2, 2L, 200, 64, null, 0);
+        grid.move(3, 3L, 64, 200, null, 0);
+        tick(grid);
+
+        grid.move(2, 2L, 700, 700, null, 0);
+        grid.remove(3);
+        tick(grid);
+
+        assertThat(frames.get("A").visible).isEmpty();
+        assertThat(frames.get("A").left).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(grid.size()).isEqualTo(2);
+    }
+
+    @Test
+    void viewer_가_움직이면_새로_보이는_칸의_외계인과_빠진_칸의_외계인을_받음() {
+        PlazaGrid grid = new PlazaGrid(SIZE, SIZE, CELL_SIZE, 1, null);
+        grid.move(1, 1L, 64, 64, "A", 0);      // (0, 0)
+        grid.move(2, 2L, 64, 200, null, 0);    // (0, 1)
+        grid.move(3, 3L, 400, 64, null, 0);    // (3, 0)
+        tick(grid);
+        assertThat(frames.get("A").visible).containsExactly(2L);
+
+        grid.move(1, 1L, 300, 64, null, 0);    // (2, 0)
+        tick(grid);
+
+        assertThat(frames.get("A").visible).containsExactly(3L);
+        assertThat(frames.get("A").left).containsExactly(2L);
+    }
+
+    @Test
+    void 막힌_칸으로의_이동은_벽_앞까지만_반영() {
+        WalkabilityGrid walls = WalkabilityGrid.parse("plaza", List.of(
+                "cell-size=128",
+                "..#.....",
+                "..#.....",
+                "........",
+                "........",
+                "........",
+                "........",
+                "........",
+                "........"));
+        PlazaGrid grid = new PlazaGrid(SIZE, SIZE, CELL_SIZE, 1, walls);
+        grid.move(1, 1L, 64, 64, "A", 0);
+        grid.move(2, 2L, 64, 100, null, 0);
+        tick(grid);
+
+        // 처음 위치가 막힌 칸이면 거부
+        assertThat(grid.move(3, 3L, 300, 64, null, 1000)).isFalse();
+        assertThat(grid.move(2, 2L, 400, 100, null, 1000)).isTrue();
+        tick(grid);
+
+        PlazaGrid.Alien moved = frames.get("A").aliens.get(2L);
+        assertThat(moved.x()).isLessThan(256).isGreaterThan(255.99);
+        assertThat(moved.y()).isEqualTo(100);
+    }
+
+    @Test
+    void 무작위로_움직여도_viewer_가_받은_변화로_만든_화면이_실제_관심_영역과_같음() {
+        double size = 2048;
+        int radius = 2;
+        int columns = (int) (size / CELL_SIZE);
+        Random random = new Random(7);
+        PlazaGrid grid = new PlazaGrid(size, size, CELL_SIZE, radius, null);
+
+        // 외계인 Id -> 실제 위치, viewer Id -> viewer 가 받은 변화로 만든 화면 (외계인 Id -> 위치)
+        Map<Long, double[]> positions = new HashMap<>();
+        Map<Long, Map<Long, double[]>> views = new HashMap<>();
+        long nextId = 0;
+
+        for (int tick = 0; tick < 300; tick++) {
+            int changes = tick == 0 ? 300 : 40;
+            for (int i = 0; i < changes; i++) {
+                int action = random.nextInt(20);
+                if (positions.isEmpty() || action == 0 || tick == 0) {
+                    long id = nextId++;
+                    boolean viewer = random.nextInt(3) == 0;
+                    double[] position = {random.nextDouble() * size, random.nextDouble() * size};
+                    grid.move(id, id / 4, position[0], position[1], viewer ? id : null, 0);
+                    positions.put(id, position);
+                    if (viewer) {
+                        views.put(id, new HashMap<>());
+                    }
+                    continue;
+                }
+                List<Long> ids = new ArrayList<>(positions.keySet());
+                long id = ids.get(random.nextInt(ids.size()));
+                if (action == 1) {
+                    grid.remove(id);
+                    positions.remove(id);
+                    views.remove(id);
+                    continue;
+                }
+                // 대부분 한 걸음, 가끔 멀리 (순간 이동)
+                double[] position = positions.get(id);
+                double step = action == 2 ? size / 2 : 40;
+                position[0] = clamp(position[0] + (random.nextDouble() - 0.5) * 2 * step, size);
+                position[1] = clamp(position[1] + (random.nextDouble() - 0.5) * 2 * step, size);
+                grid.move(id, id / 4, position[0], position[1], null, 0);
+            }
+
+            grid.tick((viewer, visible, left) -> {
+                Map<Long, double[]> view = views.get((Long) viewer);
+                left.forEach(view::remove);
+                visible.forEach(alien -> view.put(alien.alienId(), new double[]{alien.x(), alien.y()}));
+            });
+
+            for (Map.Entry<Long, Map<Long, double[]>> entry : views.entrySet()) {
+                double[] center = positions.get(entry.getKey());
+                Map<Long, double[]> expected = new HashMap<>();
+                positions.forEach((id, position) -> {
+                    if (!id.equals(entry.getKey()) && inInterest(center, position, columns, radius)) {
+                        expected.put(id, position);
+                    }
+                });
+                assertThat(entry.getValue().keySet()).as("tick %d viewer %d", tick, entry.getKey())
+                        .isEqualTo(expected.keySet());
+                for (Map.Entry<Long, double[]> alien : expected.entrySet()) {
+                    assertThat(entry.getValue().get(alien.getKey()))
+                            .as("tick %d viewer %d alien %d", tick, entry.getKey(), alien.getKey())
+                            .containsExactly(alien.getValue());
+                }
+            }
+        }
+    }
+
+    private void tick(PlazaGrid grid) {
+        frames.clear();
+        grid.tick((viewer, visible, left) -> frames.put(viewer, new Frame(visible, left)));
+    }
+
+    private static double clamp(double value, double size) {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+
+    private static boolean inInterest(double[] center, double[] position, int columns, int radius) {
+        return Math.abs(cell(center[0], columns) - cell(position[0], columns)) <= radius
+                && Math.abs(cell(center[1], columns) - cell(position[1], columns)) <= radius;
+    }
+
+    private static int cell(double value, int columns) {
+        return Math.min(columns - 1, (int) (value / CELL_SIZE));
+    }
+
+    /**
+     * sink 가 받은 목록은 재사용되므로 복사해 둠
+     */
+    private static final class Frame {
+        private final Map<Long, PlazaGrid.Alien> aliens = new HashMap<>();
+        private final List<Long> visible = new ArrayList<>();
+        private final List<Long> left;
+
+        private Frame(List<PlazaGrid.Alien> visible, List<Long> left) {
+            visible.forEach(alien -> {
+                this.visible.add(alien.alienId());
+                this.aliens.put(alien.alienId(), alien);
+            });
+            this.left = new ArrayList<>(left);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package jungle.spaceship.gameMap;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 지도 충돌 정보 : src/test/resources/maps/family.map (32 칸 10 x 8, 4열 벽에 4행 문 하나, max-speed=320)
+ */
+class WalkabilityGridTest {
+
+    private static WalkabilityGrid grid;
+
+    @BeforeAll
+    static void load() throws Exception {
+        WalkabilityMaps maps = new WalkabilityMaps(new PathMatchingResourcePatternResolver(), "classpath*:maps/*.map");
+        maps.load();
+        grid = maps.get(WalkabilityMaps.FAMILY);
+        assertThat(maps.get(WalkabilityMaps.PLAZA)).isNull();
+    }
+
+    @Test
+    void 막힌_칸과_지도_밖은_지나갈_수_없음() {
+        assertThat(grid.getName()).isEqualTo(WalkabilityMaps.FAMILY);
+        assertThat(grid.isWalkable(48, 48)).isTrue();
+        assertThat(grid.isWalkable(144, 48)).isFalse();
+        assertThat(grid.isWalkable(144, 144)).isTrue();
+        assertThat(grid.isWalkable(-1, 48)).isFalse();
+        assertThat(grid.isWalkable(48, 1000)).isFalse();
+    }
+
+    @Test
+    void 빈_칸만_지나는_이동은_그대로() {
+        assertThat(grid.reachable(48, 48, 112, 48)).isEqualTo(1);
+        assertThat(grid.reachable(48, 48, 48, 176)).isEqualTo(1);
+        // 문(4행)으로 벽을 지나감
+        assertThat(grid.reachable(112, 144, 208, 144)).isEqualTo(1);
+    }
+
+    @Test
+    void 벽을_만나면_벽_바로_앞까지() {
+        double t = grid.reachable(48, 48, 176, 48);
+        assertThat(48 + 128 * t).isLessThan(128).isCloseTo(128, within(0.01));
+
+        // 반대 방향 : 벽 오른쪽 경계(160) 앞
+        t = grid.reachable(176, 48, 48, 48);
+        assertThat(176 - 128 * t).isGreaterThan(160).isCloseTo(160, within(0.01));
+    }
+
+    @Test
+    void 대각선_이동도_지나는_칸을_차례로_확인() {
+        // (3,2) -> (3,3) -> (4,3) 벽 : x 경계(128)를 넘는 시점에서 멈춤
+        double t = grid.reachable(112, 80, 144, 144);
+        assertThat(112 + 32 * t).isCloseTo(128, within(0.01));
+        assertThat(80 + 64 * t).isCloseTo(112, within(0.01));
+
+        // (3,3) -> (3,4) -> (4,4) 문 : 행 경계를 먼저 넘으면 끝까지 이동, 열 경계를 먼저 넘으면 (4,3) 벽
+        assertThat(grid.reachable(112, 120, 144, 140)).isEqualTo(1);
+        assertThat(grid.reachable(112, 112, 144, 136)).isLessThan(1);
+    }
+
+    @Test
+    void max_step_cells_보다_멀면_거부() {
+        // 7열 + 5행 = 12칸
+        assertThat(grid.reachable(48, 48, 272, 208)).isEqualTo(-1);
+    }
+
+    @Test
+    void 막힌_칸에_있으면_빈_칸으로_나가는_것만_허용() {
+        assertThat(grid.reachable(16, 16, 48, 48)).isEqualTo(1);
+        assertThat(grid.reachable(16, 16, 16, 48)).isEqualTo(-1);
+    }
+
+    @Test
+    void 지난_시간_동안_max_speed_로_갈_수_있는_거리까지만() {
+        // 문 행을 따라 224 이동 : 바로 다시 보내면 여유 250ms 분량(80)까지만
+        assertThat(grid.reachable(48, 144, 272, 144, 0)).isCloseTo(80.0 / 224, within(1e-9));
+        assertThat(grid.reachable(48, 144, 272, 144, 1000)).isEqualTo(1);
+        // 시간 제한보다 벽이 가까우면 벽 앞까지
+        assertThat(grid.reachable(48, 48, 176, 48, 1000)).isEqualTo(grid.reachable(48, 48, 176, 48));
+        assertThat(grid.reachable(48, 48, 272, 208, 1000)).isEqualTo(-1);
+    }
+
+    @Test
+    void 이동_검사는_메모리를_할당하지_않음() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        check(100_000);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        double sum = check(2_000_000);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(sum).isNotZero();
+        assertThat(allocated).isLessThan(1024);
+    }
+
+    @Test
+    void 알_수_없는_설정이나_칸이_없는_지도는_읽지_않음() {
+        assertThatThrownBy(() -> WalkabilityGrid.parse("bad", List.of("speed=1", "....")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> WalkabilityGrid.parse("empty", List.of("cell-size=32")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * 거부/벽 앞/통과가 섞인 이동 검사 반복
+     */
+    private static double check(int count) {
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            double x = 40 + (i % 200);
+            sum += grid.reachable(x, 48 + (i % 7), x + 40 - (i % 80), 144, i % 400);
+            sum += grid.isWalkable(x, 100) ? 1 : 0;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,336 @@
+package jungle.spaceship.video;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jungle.spaceship.member.entity.MemberDetail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kurento.client.KurentoClient;
+import org.kurento.jsonrpc.DefaultJsonRpcHandler;
+import org.kurento.jsonrpc.Transaction;
+import org.kurento.jsonrpc.client.JsonRpcClientLocal;
+import org.kurento.jsonrpc.message.Request;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 그룹 통화 signaling 과 EndPoint 생성/해제 : 미디어 서버 대신 JSON-RPC 요청에 응답하는 StubKms 를 연결한 KurentoClient 사용
+ */
+class KurentoGroupCallTest {
+
+    private static final Gson gson = new Gson();
+
+    private StubKms kms;
+    private SimpleMeterRegistry meterRegistry;
+    private KurentoClient kurento;
+    private KurentoHandler handler;
+    private final Map<String, List<JsonObject>> received = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        kms = new StubKms();
+        meterRegistry = new SimpleMeterRegistry();
+        kurento = KurentoClient.createFromJsonRpcClient(new JsonRpcClientLocal(kms));
+        useRoomManager(new KurentoPipelinePool(kurento, meterRegistry, 0, false));
+    }
+
+    @Test
+    void 늦게_들어온_참여자는_기존_참여자_목록을_받고_기존_참여자는_알림을_받음() throws Exception {
+        WebSocketSession mom = session("mom", "1");
+        WebSocketSession dad = session("dad", "1");
+        WebSocketSession other = session("other", "2");
+
+        send(mom, "joinGroup");
+        send(other, "joinGroup");
+        send(dad, "joinGroup");
+
+        assertThat(last(mom, "existingParticipants").getAsJsonArray("data")).isEmpty();
+        assertThat(last(dad, "existingParticipants").getAsJsonArray("data").toString()).isEqualTo("[\"mom\"]");
+        assertThat(last(mom, "newParticipantArrived").get("name").getAsString()).isEqualTo("dad");
+        // 다른 가족 방에는 알리지 않음
+        assertThat(messages(other, "newParticipantArrived")).isEmpty();
+        assertThat(kms.created("MediaPipeline")).isEqualTo(2);
+    }
+
+    @Test
+    void 받는_EndPoint_는_보내는_참여자별로_처음_요청할_때_한_번만_생성() throws Exception {
+        WebSocketSession mom = session("mom", "1");
+        WebSocketSession dad = session("dad", "1");
+        send(mom, "joinGroup");
+        send(dad, "joinGroup");
+        assertThat(kms.created("WebRtcEndpoint")).isEqualTo(2);
+
+        receiveVideoFrom(dad, "mom");
+        receiveVideoFrom(dad, "mom");
+        receiveVideoFrom(dad, "dad");
+
+        assertThat(kms.created("WebRtcEndpoint")).isEqualTo(3);
+        assertThat(kms.invoked("connect")).isEqualTo(1);
+        assertThat(messages(dad, "receiveVideoAnswer")).hasSize(3)
+                .allSatisfy(answer -> assertThat(answer.get("sdpAnswer").getAsString()).isEqualTo("sdp-answer"));
+        assertThat(meterRegistry.get("video.call.setup").tag("type", "subscribe").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("video.call.setup").tag("type", "publish").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void 나간_참여자는_자신의_EndPoint_와_자신을_받던_EndPoint_만_해제() throws Exception {
+        WebSocketSession mom = session("mom", "1");
+        WebSocketSession dad = session("dad", "1");
+        WebSocketSession kid = session("kid", "1");
+        List<WebSocketSession> family = List.of(mom, dad, kid);
+        for (WebSocketSession member : family) {
+            send(member, "joinGroup");
+        }
+        for (WebSocketSession receiver : family) {
+            for (WebSocketSession sender : family) {
+                receiveVideoFrom(receiver, sender.getId());
+            }
+        }
+        // 보내는 EndPoint 3 + 서로 받는 EndPoint 6
+        assertThat(kms.live("WebRtcEndpoint")).hasSize(9);
+        assertThat(meterRegistry.get("video.endpoints").gauge().value()).isEqualTo(9);
+
+        send(dad, "leaveGroup");
+
+        assertThat(kms.live("WebRtcEndpoint")).hasSize(4);
+        assertThat(kms.live("MediaPipeline")).hasSize(1);
+        assertThat(meterRegistry.get("video.endpoints").gauge().value()).isEqualTo(4);
+        assertThat(last(mom, "participantLeft").get("name").getAsString()).isEqualTo("dad");
+        assertThat(last(kid, "participantLeft").get("name").getAsString()).isEqualTo("dad");
+
+        // 나간 참여자의 영상은 더 받을 수 없음
+        receiveVideoFrom(mom, "dad");
+        assertThat(last(mom, "receiveVideoAnswer").get("response").getAsString()).isEqualTo("rejected");
+    }
+
+    @Test
+    void 영상_받기에_실패하면_그_요청의_EndPoint_만_해제하고_통화에_남음() throws Exception {
+        WebSocketSession mom = session("mom", "1");
+        WebSocketSession dad = session("dad", "1");
+        send(mom, "joinGroup");
+        send(dad, "joinGroup");
+        receiveVideoFrom(dad, "dad");
+
+        receiveVideoFrom(dad, "mom", StubKms.BAD_OFFER);
+
+        assertThat(last(dad, "receiveVideoAnswer").get("response").getAsString()).isEqualTo("rejected");
+        assertThat(kms.live("WebRtcEndpoint")).hasSize(2);
+        assertThat(meterRegistry.get("video.endpoints").gauge().value()).isEqualTo(2);
+        assertThat(messages(mom, "participantLeft")).isEmpty();
+
+        // 다시 요청하면 새 EndPoint 로 연결
+        receiveVideoFrom(dad, "mom");
+        assertThat(last(dad, "receiveVideoAnswer").get("sdpAnswer").getAsString()).isEqualTo("sdp-answer");
+        assertThat(kms.live("WebRtcEndpoint")).hasSize(3);
+    }
+
+    @Test
+    void 모두_나가면_pipeline_을_해제하고_방을_닫음() throws Exception {
+        WebSocketSession mom = session("mom", "1");
+        WebSocketSession dad = session("dad", "1");
+        send(mom, "joinGroup");
+        send(dad, "joinGroup");
+        receiveVideoFrom(mom, "dad");
+
+        handler.afterConnectionClosed(mom, CloseStatus.NORMAL);
+        handler.afterConnectionClosed(dad, CloseStatus.NORMAL);
+
+        assertThat(kms.live("MediaPipeline")).isEmpty();
+        assertThat(meterRegistry.get("video.endpoints").gauge().value()).isZero();
+
+        // 같은 가족이 다시 통화하면 새 pipeline
+        send(mom, "joinGroup");
+        assertThat(kms.created("MediaPipeline")).isEqualTo(2);
+        assertThat(last(mom, "existingParticipants").getAsJsonArray("data")).isEmpty();
+    }
+
+    @Test
+    void presenter_가_나가도_그룹_통화에_참여_중인_viewer_는_방에_남음() throws Exception {
+        WebSocketSession mom = session("mom", "1");
+        WebSocketSession dad = session("dad", "1");
+        WebSocketSession kid = session("kid", "1");
+        handler.handleTextMessage(mom, new TextMessage("{\"id\":\"presenter\",\"sdpOffer\":\"sdp-offer\"}"));
+        handler.handleTextMessage(dad, new TextMessage("{\"id\":\"viewer\",\"sdpOffer\":\"sdp-offer\"}"));
+        handler.handleTextMessage(kid, new TextMessage("{\"id\":\"viewer\",\"sdpOffer\":\"sdp-offer\"}"));
+        send(dad, "joinGroup");
+
+        handler.afterConnectionClosed(mom, CloseStatus.NORMAL);
+
+        assertThat(messages(dad, "stopCommunication")).hasSize(1);
+        assertThat(messages(kid, "stopCommunication")).hasSize(1);
+        // 그룹 통화의 보내는 EndPoint 와 pipeline 은 그대로
+        assertThat(kms.live("MediaPipeline")).hasSize(1);
+        assertThat(kms.live("WebRtcEndpoint")).hasSize(1);
+        receiveVideoFrom(dad, "dad");
+        assertThat(last(dad, "receiveVideoAnswer").get("sdpAnswer").getAsString()).isEqualTo("sdp-answer");
+
+        handler.afterConnectionClosed(dad, CloseStatus.NORMAL);
+
+        assertThat(kms.live("MediaPipeline")).isEmpty();
+        assertThat(meterRegistry.get("video.endpoints").gauge().value()).isZero();
+    }
+
+    @Test
+    void 풀에서_미리_만든_pipeline_과_EndPoint_를_쓰고_다_쓴_pipeline_은_정리해_다시_넣음() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        KurentoPipelinePool pool = new KurentoPipelinePool(kurento, meterRegistry, 1, true);
+        useRoomManager(pool);
+        pool.start();
+        awaitUntil(() -> kms.live("WebRtcEndpoint").size() == 1);
+
+        WebSocketSession mom = session("mom", "1");
+        WebSocketSession dad = session("dad", "1");
+        send(mom, "joinGroup");
+        send(dad, "joinGroup");
+
+        // 첫 참여자는 미리 만든 EndPoint 사용, 꺼낸 자리는 백그라운드에서 다시 채움
+        assertThat(meterRegistry.get("video.pipeline.pool").tag("result", "hit").counter().count()).isEqualTo(1);
+        awaitUntil(() -> kms.live("MediaPipeline").size() == 2);
+        assertThat(kms.created("WebRtcEndpoint")).isEqualTo(3);
+
+        handler.afterConnectionClosed(mom, CloseStatus.NORMAL);
+        handler.afterConnectionClosed(dad, CloseStatus.NORMAL);
+
+        // 풀이 가득 차 있으므로 반납한 pipeline 은 남은 EndPoint 를 정리한 뒤 해제
+        awaitUntil(() -> kms.live("MediaPipeline").size() == 1);
+        assertThat(kms.live("WebRtcEndpoint")).hasSize(1);
+        assertThat(meterRegistry.get("video.pipeline.pool.idle").gauge().value()).isEqualTo(1);
+
+        send(mom, "joinGroup");
+        assertThat(meterRegistry.get("video.pipeline.pool").tag("result", "hit").counter().count()).isEqualTo(2);
+        pool.destroy();
+    }
+
+    private void useRoomManager(KurentoPipelinePool pool) {
+        handler = new KurentoHandler();
+        ReflectionTestUtils.setField(handler, "roomManager", new KurentoRoomManager(pool, meterRegistry));
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private WebSocketSession session(String email, String familyId) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(email);
+        when(session.getPrincipal()).thenReturn(
+                new UsernamePasswordAuthenticationToken(new MemberDetail(email, familyId), "", List.of()));
+        doAnswer(invocation -> {
+            TextMessage message = invocation.getArgument(0);
+            received.computeIfAbsent(email, id -> new ArrayList<>()).add(gson.fromJson(message.getPayload(), JsonObject.class));
+            return null;
+        }).when(session).sendMessage(any());
+        return session;
+    }
+
+    private void send(WebSocketSession session, String id) throws Exception {
+        handler.handleTextMessage(session, new TextMessage("{\"id\":\"" + id + "\"}"));
+    }
+
+    private void receiveVideoFrom(WebSocketSession session, String sender) throws Exception {
+        receiveVideoFrom(session, sender, "sdp-offer");
+    }
+
+    private void receiveVideoFrom(WebSocketSession session, String sender, String sdpOffer) throws Exception {
+        handler.handleTextMessage(session, new TextMessage(
+                "{\"id\":\"receiveVideoFrom\",\"sender\":\"" + sender + "\",\"sdpOffer\":\"" + sdpOffer + "\"}"));
+    }
+
+    private List<JsonObject> messages(WebSocketSession session, String id) {
+        return received.getOrDefault(session.getId(), List.of()).stream()
+                .filter(message -> id.equals(message.get("id").getAsString()))
+                .toList();
+    }
+
+    private JsonObject last(WebSocketSession session, String id) {
+        List<JsonObject> messages = messages(session, id);
+        assertThat(messages).isNotEmpty();
+        return messages.get(messages.size() - 1);
+    }
+
+    /**
+     * Kurento 미디어 서버의 JSON-RPC 응답 흉내 : 생성/해제한 객체와 호출한 operation 만 기록
+     */
+    private static class StubKms extends DefaultJsonRpcHandler<JsonObject> {
+
+        // 이 SDP offer 로 processOffer 하면 오류 응답
+        private static final String BAD_OFFER = "bad-offer";
+
+        private final AtomicInteger ids = new AtomicInteger();
+        private final Map<String, String> types = new LinkedHashMap<>();
+        private final Map<String, String> parents = new HashMap<>();
+        private final Set<String> live = new LinkedHashSet<>();
+        private final List<String> operations = new ArrayList<>();
+
+        @Override
+        public synchronized void handleRequest(Transaction transaction, Request<JsonObject> request) throws Exception {
+            JsonObject params = request.getParams();
+            JsonObject result = new JsonObject();
+            switch (request.getMethod()) {
+                case "create" -> {
+                    String type = params.get("type").getAsString();
+                    String id = type + "-" + ids.incrementAndGet();
+                    types.put(id, type);
+                    live.add(id);
+                    JsonObject constructorParams = params.getAsJsonObject("constructorParams");
+                    if (constructorParams != null && constructorParams.has("mediaPipeline")) {
+                        parents.put(id, constructorParams.get("mediaPipeline").getAsString());
+                    }
+                    result.addProperty("value", id);
+                }
+                case "invoke" -> {
+                    String operation = params.get("operation").getAsString();
+                    operations.add(operation);
+                    if (operation.equals("processOffer")
+                            && BAD_OFFER.equals(params.getAsJsonObject("operationParams").get("offer").getAsString())) {
+                        transaction.sendError(40208, "SDP_PARSE_ERROR", "잘못된 SDP offer", null);
+                        return;
+                    }
+                    if (operation.equals("processOffer")) {
+                        result.addProperty("value", "sdp-answer");
+                    } else if (operation.equals("getChildren")) {
+                        String object = params.get("object").getAsString();
+                        JsonArray children = new JsonArray();
+                        live.stream().filter(id -> object.equals(parents.get(id))).forEach(children::add);
+                        result.add("value", children);
+                    }
+                }
+                case "subscribe" -> result.addProperty("value", "subscription-" + ids.incrementAndGet());
+                case "release" -> live.remove(params.get("object").getAsString());
+                default -> {
+                }
+            }
+            result.addProperty("sessionId", "stub");
+            transaction.sendResponse(result);
+        }
+
+        synchronized long created(String type) {
+            return types.values().stream().filter(type::equals).count();
+        }
+
+        synchronized List<String> live(String type) {
+            return live.stream().filter(id -> types.get(id).equals(type)).toList();
+        }
+
+        synchronized long invoked(String operation) {
+            return operations.stream().filter(operation::equals).count();
+        }
+    }
+}